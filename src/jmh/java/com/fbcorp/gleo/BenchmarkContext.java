@@ -0,0 +1,49 @@
+package com.fbcorp.gleo;
+
+import com.fbcorp.gleo.dev.SyntheticEventSeeder;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.service.SequenceIdAllocator;
+import com.fbcorp.gleo.service.TicketQrIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+/**
+ * Boots the application against an in-memory H2 database, for benchmarks that need the real
+ * services. Background refreshes are switched off, or pushed past any run for the ones a
+ * {@code @Scheduled} interval drives, so they do not run during measurements.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    public static ConfigurableApplicationContext start() {
+        // Passed as arguments so they override application.yml, unlike builder defaults
+        return new SpringApplicationBuilder(GleoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:gleo-bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--gleo.ticket-index.refresh-interval=0",
+                "--gleo.sales-rollup.reconcile-interval=PT24H");
+    }
+
+    public static SyntheticEventSeeder seeder(ConfigurableApplicationContext context) {
+        return new SyntheticEventSeeder(
+                context.getBean(EventRepo.class),
+                context.getBean(VendorRepo.class),
+                context.getBean(MenuItemRepo.class),
+                context.getBean(TicketQrIndex.class),
+                context.getBean(SequenceIdAllocator.class),
+                context.getBean(DataSource.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.BenchmarkContext;
+import com.fbcorp.gleo.dev.SyntheticEventSeeder.SeededEvent;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.service.cart.CartSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CartViewService#summarize} for carts of growing size, both rebuilt from the menu
+ * snapshots (a cart whose revision moved) and served from the memo (an unchanged cart).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartSummaryBenchmark {
+
+    @Param({"1", "5", "25"})
+    int lines;
+
+    private ConfigurableApplicationContext context;
+    private CartViewService cartViewService;
+    private String eventCode;
+    private CartSession changingCart;
+    private CartSession unchangedCart;
+
+    @Setup
+    public void seed() {
+        context = BenchmarkContext.start();
+        cartViewService = context.getBean(CartViewService.class);
+        SeededEvent seeded = BenchmarkContext.seeder(context).seed("BENCHCART", 8, 30, 0);
+        eventCode = seeded.event().getCode();
+        changingCart = cart(seeded, "changing");
+        unchangedCart = cart(seeded, "unchanged");
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public CartViewService.CartSummary rebuild() {
+        changingCart.setRevision(changingCart.getRevision() + 1);
+        return cartViewService.summarize(eventCode, changingCart);
+    }
+
+    @Benchmark
+    public CartViewService.CartSummary memoized() {
+        return cartViewService.summarize(eventCode, unchangedCart);
+    }
+
+    private CartSession cart(SeededEvent seeded, String id) {
+        CartSession cart = new CartSession();
+        List<Vendor> vendors = seeded.vendors();
+        for (int i = 0; i < lines; i++) {
+            Vendor vendor = vendors.get(i % vendors.size());
+            List<MenuItem> items = seeded.menus().get(vendor.getId());
+            cart.add(vendor.getId(), items.get(i / vendors.size() % items.size()).getId(), 1 + i % 3);
+        }
+        cart.setCartId(id);
+        return cart;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fbcorp.gleo.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of phone-sized JPEG photos: a ticket QR code off-centre on an uneven, noisy
+ * background, like a guest's photo of a printed or on-screen ticket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class QrDecodeBenchmark {
+
+    @Param({"1600x1200", "4032x3024"})
+    String photoSize;
+
+    private QrDecoderService decoder;
+    private MockMultipartFile photo;
+
+    @Setup
+    public void createPhoto() throws Exception {
+        String[] size = photoSize.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(190, 180, 170), width, height, new Color(90, 85, 80)));
+        graphics.fillRect(0, 0, width, height);
+        Random noise = new Random(42);
+        for (int i = 0; i < width * height / 50; i++) {
+            int gray = noise.nextInt(256);
+            image.setRGB(noise.nextInt(width), noise.nextInt(height), new Color(gray, gray, gray).getRGB());
+        }
+        int side = Math.min(width, height) / 3;
+        var matrix = new QRCodeWriter().encode("G2025-T123456", BarcodeFormat.QR_CODE, side, side);
+        graphics.drawImage(MatrixToImageWriter.toBufferedImage(matrix), width / 2 - side / 3, height / 2 - side / 2, null);
+        graphics.dispose();
+
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", jpeg);
+        photo = new MockMultipartFile("qrFile", "ticket.jpg", "image/jpeg", jpeg.toByteArray());
+        decoder = new QrDecoderService(new HotPathMetrics(), 0, 64, 1280, Duration.ofSeconds(30));
+        if (decoder.decode(photo).isEmpty()) {
+            throw new IllegalStateException("Benchmark photo does not decode");
+        }
+    }
+
+    @TearDown
+    public void shutdown() {
+        decoder.shutdown();
+    }
+
+    @Benchmark
+    public Optional<String> decode() {
+        return decoder.decode(photo);
+    }
+}
@@ -0,0 +1,73 @@
+package com.fbcorp.gleo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** CSV side of the ticket import: whole-sheet reading and single-line splitting. */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketCsvParsingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sheet {
+        @Param({"10000", "100000", "1000000"})
+        int rows;
+
+        byte[] csv;
+
+        @Setup
+        public void generate() {
+            StringBuilder out = new StringBuilder("QR Code,Tier,Holder Name,Phone,Serial\n");
+            for (int i = 0; i < rows; i++) {
+                out.append("QR-").append(i).append(',')
+                        .append(i % 5 == 0 ? "VIP" : "REG").append(',')
+                        .append(i % 10 == 0 ? "\"Guest, " + i + "\"" : "Guest " + i).append(',')
+                        .append("0100").append(1000000 + i).append(',')
+                        .append("S-").append(i).append('\n');
+            }
+            csv = out.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Line {
+        String plain = "QR-123456,REG,Guest 123456,01001123456,S-123456";
+        String quoted = "\"QR-123456\",VIP,\"Guest \"\"The Host\"\", 123456\",01001123456,S-123456";
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void readCsv(Sheet sheet, Blackhole blackhole) throws IOException {
+        TicketSheetRows.readCsv(new ByteArrayInputStream(sheet.csv), blackhole::consume);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<String> splitPlainLine(Line line) {
+        return TicketSheetRows.splitCsvLine(line.plain);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<String> splitQuotedLine(Line line) {
+        return TicketSheetRows.splitCsvLine(line.quoted);
+    }
+}
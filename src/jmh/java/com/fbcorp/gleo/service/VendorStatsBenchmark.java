@@ -0,0 +1,87 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.BenchmarkContext;
+import com.fbcorp.gleo.dev.SyntheticEventSeeder.SeededEvent;
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Order;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrganizerAnalyticsService#computeVendorStats} on an event whose orders were placed and
+ * advanced through the real checkout and order services, so the sales rollups are what a live
+ * event would have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendorStatsBenchmark {
+
+    @Param({"5", "40"})
+    int vendors;
+
+    @Param({"1000", "10000"})
+    int orders;
+
+    private ConfigurableApplicationContext context;
+    private OrganizerAnalyticsService analyticsService;
+    private Event event;
+    private List<Vendor> eventVendors;
+
+    @Setup
+    public void seed() {
+        context = BenchmarkContext.start();
+        analyticsService = context.getBean(OrganizerAnalyticsService.class);
+        CheckoutService checkoutService = context.getBean(CheckoutService.class);
+        OrderService orderService = context.getBean(OrderService.class);
+
+        SeededEvent seeded = BenchmarkContext.seeder(context).seed("BENCHSTATS", vendors, 12, orders);
+        event = seeded.event();
+        eventVendors = seeded.vendors();
+        for (int n = 0; n < orders; n++) {
+            Vendor vendor = eventVendors.get(n % eventVendors.size());
+            List<MenuItem> items = seeded.menus().get(vendor.getId());
+            var cart = Map.of(vendor.getId(), List.of(new CheckoutService.CartLine(items.get(n % items.size()).getId(), 1 + n % 3)));
+            Order order = checkoutService.checkout(event.getCode(), seeded.ticketQr(n), "bench-device-" + n, cart).orders.get(0);
+            // Spread orders over the board: a third stay new, a third complete
+            if (n % 3 != 0) {
+                orderService.markStatus(order.getId(), OrderStatus.PREPARING);
+                orderService.markStatus(order.getId(), OrderStatus.READY);
+            }
+            if (n % 3 == 2) {
+                orderService.markStatus(order.getId(), OrderStatus.COMPLETED);
+            }
+        }
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<Long, OrganizerAnalyticsService.VendorStats> computeVendorStats() {
+        return analyticsService.computeVendorStats(event, eventVendors);
+    }
+}
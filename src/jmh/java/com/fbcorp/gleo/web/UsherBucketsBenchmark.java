@@ -0,0 +1,75 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.service.UsherBoardService.BoardCard;
+import com.fbcorp.gleo.service.UsherBoardService.BoardItem;
+import com.fbcorp.gleo.service.UsherBoardService.BoardView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Merging vendor boards into the usher board's status buckets, unfiltered and filtered by ticket. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsherBucketsBenchmark {
+
+    @Param({"1", "5", "20"})
+    int vendors;
+
+    @Param({"50", "500"})
+    int ordersPerVendor;
+
+    private List<BoardView> views;
+
+    @Setup
+    public void createBoards() {
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+        views = new ArrayList<>();
+        long orderId = 0;
+        for (long vendorId = 1; vendorId <= vendors; vendorId++) {
+            Map<OrderStatus, List<BoardCard>> buckets = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : statuses) {
+                buckets.put(status, new ArrayList<>());
+            }
+            for (int n = 1; n <= ordersPerVendor; n++) {
+                orderId++;
+                OrderStatus status = statuses[n % statuses.length];
+                buckets.get(status).add(new BoardCard(orderId, "BENCH", vendorId, "Vendor " + vendorId, null, n,
+                        start.plusSeconds(orderId * 7 % 7200), status, "Guest " + orderId, orderId,
+                        "BENCH-T" + orderId, "S-" + orderId, List.of(new BoardItem("Item", 1 + n % 3))));
+            }
+            buckets.replaceAll((status, cards) -> List.copyOf(cards));
+            views.add(new BoardView(vendorId, 1, buckets));
+        }
+    }
+
+    @Benchmark
+    public List<UsherBoardBuckets.StatusBucket> allOrders() {
+        return UsherBoardBuckets.merge(views, "");
+    }
+
+    @Benchmark
+    public List<UsherBoardBuckets.StatusBucket> filteredByTicket() {
+        return UsherBoardBuckets.merge(views, "BENCH-T12");
+    }
+}
@@ -0,0 +1,498 @@
+package com.fbcorp.gleo.loadsim;
+
+import com.fbcorp.gleo.GleoApplication;
+import com.fbcorp.gleo.dev.SyntheticEventSeeder;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Role;
+import com.fbcorp.gleo.domain.UserAccount;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.RoleRepo;
+import com.fbcorp.gleo.repo.UserAccountRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.service.SequenceIdAllocator;
+import com.fbcorp.gleo.service.TicketQrIndex;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates the rush after the gates open: boots the application, seeds an event of the
+ * requested size with {@link SyntheticEventSeeder}, and drives it over HTTP the way browsers do.
+ * <p>
+ * Guests arrive at {@code --guest-rate} a second whether or not the server keeps up (an open
+ * model, so a slow server shows up as growing latency and start lag rather than as fewer
+ * requests). Each guest uploads a photo of their ticket's QR code to {@code /e/{code}/ticket},
+ * adds {@code --items-per-order} items from random vendors to the cart and checks out. One
+ * usher per vendor signs in, reads the usher board and advances its orders through preparing,
+ * ready and completed at {@code --usher-rate} advances a second. At the end the run prints p50,
+ * p99 and max latency per endpoint together with orders and completions per second.
+ * <p>
+ * Runs with {@code mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="..."}.
+ * {@code --db=h2} (the default) uses an in-memory database; {@code --db=postgres} keeps the
+ * datasource from application.yml, and any other {@code --spring...} or {@code --gleo...}
+ * argument is passed on to the application. Client and server share the machine, so on a small
+ * box the numbers are a lower bound.
+ */
+public final class EventRushSimulator {
+
+    private static final String TICKET = "ticket bind";
+    private static final String CART_ADD = "cart add";
+    private static final String CHECKOUT = "checkout";
+    private static final String USHER_BOARD = "usher board";
+    private static final String USHER_ADVANCE = "usher advance";
+
+    private static final String USHER_PASSWORD = "Usher@123";
+    private static final Pattern ADVANCE_ACTION = Pattern.compile("/usher/orders/(\\d+)/advance");
+    // NEW -> PREPARING -> READY -> COMPLETED
+    private static final int ADVANCES_PER_ORDER = 3;
+
+    private final Options options;
+    private final LatencyRecorder recorder = new LatencyRecorder(TICKET, CART_ADD, CHECKOUT, USHER_BOARD, USHER_ADVANCE);
+    private final AtomicLong startLagNanos = new AtomicLong();
+    private final AtomicInteger guestsStarted = new AtomicInteger();
+    private final AtomicInteger guestsCheckedOut = new AtomicInteger();
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private SyntheticEventSeeder.SeededEvent seeded;
+    private List<MenuItem> menu;
+
+    private EventRushSimulator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context = start(options);
+        try {
+            new EventRushSimulator(options).run(context);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Options options) {
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--server.tomcat.threads.max=" + Math.max(200, options.workers)));
+        if (options.database.equals("h2")) {
+            appArgs.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:gleo-rush;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+                    "--spring.datasource.driverClassName=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        }
+        // Passed as arguments so they override application.yml, and the caller's come last
+        appArgs.addAll(options.applicationArgs);
+        return new SpringApplicationBuilder(GleoApplication.class).run(appArgs.toArray(String[]::new));
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+
+        String code = "RUSH" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36).toUpperCase(Locale.ROOT);
+        long seedStarted = System.nanoTime();
+        seeded = new SyntheticEventSeeder(
+                context.getBean(EventRepo.class),
+                context.getBean(VendorRepo.class),
+                context.getBean(MenuItemRepo.class),
+                context.getBean(TicketQrIndex.class),
+                context.getBean(SequenceIdAllocator.class),
+                context.getBean(DataSource.class))
+                .seed(code, options.vendors, options.items, options.tickets);
+        menu = seeded.menus().values().stream().flatMap(List::stream).toList();
+        List<String> ushers = createUshers(context);
+        System.out.printf("Seeded %s: %d vendors, %d menu items, %d tickets in %.1fs%n", code,
+                options.vendors, menu.size(), options.tickets, (System.nanoTime() - seedStarted) / 1e9);
+
+        ExecutorService guests = Executors.newFixedThreadPool(options.workers, daemon("rush-guest"));
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor(daemon("rush-arrivals"));
+        ScheduledExecutorService usherPool = Executors.newScheduledThreadPool(
+                Math.max(1, Math.min(ushers.size(), options.workers)), daemon("rush-usher"));
+
+        for (String username : ushers) {
+            Usher usher = new Usher(new Browser("gleo-rush/" + username));
+            usher.signIn(username);
+            usherPool.scheduleAtFixedRate(usher::step, 0, Math.round(1e9 / options.usherRate), TimeUnit.NANOSECONDS);
+        }
+
+        long started = System.nanoTime();
+        long periodNanos = Math.max(1, Math.round(1e9 / options.guestRate));
+        AtomicInteger nextGuest = new AtomicInteger();
+        arrivals.scheduleAtFixedRate(() -> {
+            int guest = nextGuest.getAndIncrement();
+            if (guest >= options.tickets) {
+                // Every ticket is bound to a device; a second device would be turned away
+                return;
+            }
+            long due = started + guest * periodNanos;
+            guests.execute(() -> {
+                startLagNanos.accumulateAndGet(System.nanoTime() - due, Math::max);
+                guestFlow(guest);
+            });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        TimeUnit.SECONDS.sleep(options.durationSeconds);
+        arrivals.shutdownNow();
+        guests.shutdown();
+        if (!guests.awaitTermination(60, TimeUnit.SECONDS)) {
+            System.out.println("Guests still in flight after 60s; the server is past its breaking point");
+            guests.shutdownNow();
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        usherPool.shutdownNow();
+        usherPool.awaitTermination(10, TimeUnit.SECONDS);
+
+        report(context, elapsed);
+    }
+
+    private void guestFlow(int guest) {
+        guestsStarted.incrementAndGet();
+        Browser browser = new Browser("gleo-rush/guest-" + guest);
+        String code = seeded.event().getCode();
+        try {
+            byte[] photo = qrPhoto(seeded.ticketQr(guest));
+            HttpResponse<String> bound = timed(TICKET, browser,
+                    browser.multipart("/e/" + code + "/ticket", "qrFile", "ticket.png", "image/png", photo),
+                    response -> response.statusCode() == 302 && location(response).endsWith("/cart"));
+            if (bound == null) {
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < options.itemsPerOrder; i++) {
+                MenuItem item = menu.get(random.nextInt(menu.size()));
+                timed(CART_ADD, browser,
+                        browser.form("/e/" + code + "/cart/add", Map.of("itemId", item.getId().toString(), "qty", "1")),
+                        response -> response.statusCode() == 302);
+            }
+            HttpResponse<String> checkout = timed(CHECKOUT, browser,
+                    browser.form("/e/" + code + "/checkout", Map.of()),
+                    // Redirects to the summary after placing orders, to the cart when there was nothing to place
+                    response -> response.statusCode() == 302 && location(response).endsWith("/checkout"));
+            if (checkout != null) {
+                guestsCheckedOut.incrementAndGet();
+            }
+        } catch (IOException | WriterException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Sends the request and records its latency; returns null when the check failed. */
+    private HttpResponse<String> timed(String endpoint, Browser browser, HttpRequest request,
+                                       Predicate<HttpResponse<String>> ok) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            browser.keepCookies(response);
+            boolean success = ok.test(response);
+            recorder.record(endpoint, System.nanoTime() - started, success);
+            return success ? response : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - started, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private List<String> createUshers(ConfigurableApplicationContext context) {
+        RoleRepo roleRepo = context.getBean(RoleRepo.class);
+        UserAccountRepo userAccountRepo = context.getBean(UserAccountRepo.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(USHER_PASSWORD);
+        Role usherRole = roleRepo.findByName("USHER").orElseGet(() -> {
+            Role role = new Role();
+            role.setName("USHER");
+            return roleRepo.save(role);
+        });
+        List<String> usernames = new ArrayList<>();
+        for (Vendor vendor : seeded.vendors()) {
+            UserAccount usher = new UserAccount();
+            usher.setUsername(seeded.event().getCode().toLowerCase(Locale.ROOT) + "-usher-" + vendor.getId());
+            usher.setPassword(hash);
+            usher.getRoles().add(usherRole);
+            usher.setVendor(vendor);
+            usher.setEvent(seeded.event());
+            usernames.add(userAccountRepo.save(usher).getUsername());
+        }
+        return usernames;
+    }
+
+    private void report(ConfigurableApplicationContext context, double elapsedSeconds) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        Long eventId = seeded.event().getId();
+        Integer orders = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE event_id = ?", Integer.class, eventId);
+        Integer completed = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE event_id = ? AND status = 'COMPLETED'",
+                Integer.class, eventId);
+
+        System.out.printf("%nRan %.1fs at %.1f guests/s and %d ushers at %.1f advances/s each%n",
+                elapsedSeconds, options.guestRate, seeded.vendors().size(), options.usherRate);
+        System.out.printf("%-14s %8s %7s %10s %10s %10s%n", "endpoint", "requests", "errors", "p50 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.Summary summary : recorder.summaries()) {
+            System.out.printf("%-14s %8d %7d %10.1f %10.1f %10.1f%n", summary.endpoint(), summary.count(),
+                    summary.errors(), summary.p50Millis(), summary.p99Millis(), summary.maxMillis());
+        }
+        System.out.printf("guests: %d arrived, %d checked out; worst start lag %.1f ms%n",
+                guestsStarted.get(), guestsCheckedOut.get(), startLagNanos.get() / 1e6);
+        System.out.printf("orders: %d placed (%.1f/s), %d completed (%.1f/s)%n",
+                orders, orders / elapsedSeconds, completed, completed / elapsedSeconds);
+    }
+
+    private static byte[] qrPhoto(String text) throws WriterException, IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 400, 400), "png", png);
+        return png.toByteArray();
+    }
+
+    private static String location(HttpResponse<?> response) {
+        return response.headers().firstValue("Location").orElse("");
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** An usher working through the cards on its vendor's board, one advance per step. */
+    private final class Usher {
+        private final Browser browser;
+        private final ArrayDeque<Long> pending = new ArrayDeque<>();
+        private final Map<Long, Integer> advances = new HashMap<>();
+
+        Usher(Browser browser) {
+            this.browser = browser;
+        }
+
+        void signIn(String username) throws IOException, InterruptedException {
+            HttpResponse<String> response = http.send(
+                    browser.form("/login", Map.of("username", username, "password", USHER_PASSWORD)),
+                    HttpResponse.BodyHandlers.ofString());
+            browser.keepCookies(response);
+            if (location(response).contains("error")) {
+                throw new IllegalStateException("Usher " + username + " could not sign in");
+            }
+        }
+
+        void step() {
+            String code = seeded.event().getCode();
+            if (pending.isEmpty()) {
+                HttpResponse<String> board = timed(USHER_BOARD, browser, browser.get("/e/" + code + "/usher"),
+                        response -> response.statusCode() == 200);
+                if (board == null) {
+                    return;
+                }
+                Set<Long> seen = new LinkedHashSet<>();
+                Matcher matcher = ADVANCE_ACTION.matcher(board.body());
+                while (matcher.find()) {
+                    seen.add(Long.parseLong(matcher.group(1)));
+                }
+                seen.removeIf(id -> advances.getOrDefault(id, 0) >= ADVANCES_PER_ORDER);
+                pending.addAll(seen);
+                if (pending.isEmpty()) {
+                    return;
+                }
+            }
+            Long orderId = pending.poll();
+            HttpResponse<String> advanced = timed(USHER_ADVANCE, browser,
+                    browser.form("/e/" + code + "/usher/orders/" + orderId + "/advance", Map.of()),
+                    response -> response.statusCode() == 302);
+            if (advanced != null) {
+                advances.merge(orderId, 1, Integer::sum);
+            }
+        }
+    }
+
+    /** One device: its own User-Agent, which the server fingerprints, and its own cookies. */
+    private final class Browser {
+        private final String userAgent;
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+
+        Browser(String userAgent) {
+            this.userAgent = userAgent;
+        }
+
+        HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+
+        HttpRequest form(String path, Map<String, String> fields) {
+            StringBuilder body = new StringBuilder();
+            fields.forEach((name, value) -> {
+                if (body.length() > 0) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            });
+            return builder(path)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+        }
+
+        HttpRequest multipart(String path, String field, String filename, String contentType, byte[] content) {
+            String boundary = "gleo-rush-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            String head = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + filename + "\"\r\n"
+                    + "Content-Type: " + contentType + "\r\n\r\n";
+            String tail = "\r\n--" + boundary + "--\r\n";
+            return builder(path)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                            head.getBytes(StandardCharsets.UTF_8), content, tail.getBytes(StandardCharsets.UTF_8))))
+                    .build();
+        }
+
+        void keepCookies(HttpResponse<?> response) {
+            for (String header : response.headers().allValues("Set-Cookie")) {
+                String pair = header.split(";", 2)[0];
+                int equals = pair.indexOf('=');
+                if (equals <= 0) {
+                    continue;
+                }
+                String name = pair.substring(0, equals).trim();
+                String value = pair.substring(equals + 1).trim();
+                if (value.isEmpty() || header.toLowerCase(Locale.ROOT).contains("max-age=0")) {
+                    cookies.remove(name);
+                } else {
+                    cookies.put(name, value);
+                }
+            }
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("User-Agent", userAgent);
+            if (!cookies.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                cookies.forEach((name, value) -> {
+                    if (header.length() > 0) {
+                        header.append("; ");
+                    }
+                    header.append(name).append('=').append(value);
+                });
+                builder.header("Cookie", header.toString());
+            }
+            return builder;
+        }
+    }
+
+    private record Options(int vendors,
+                           int items,
+                           int tickets,
+                           double guestRate,
+                           double usherRate,
+                           int itemsPerOrder,
+                           int durationSeconds,
+                           int workers,
+                           String database,
+                           List<String> applicationArgs) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                    "vendors", "20",
+                    "items", "12",
+                    "tickets", "20000",
+                    "guest-rate", "20",
+                    "usher-rate", "2",
+                    "items-per-order", "3",
+                    "duration", "60",
+                    "workers", "64",
+                    "db", "h2"));
+            List<String> applicationArgs = new ArrayList<>();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+                if (name != null && values.containsKey(name)) {
+                    values.put(name, arg.substring(equals + 1));
+                } else if (name != null && (name.startsWith("spring.") || name.startsWith("gleo.") || name.startsWith("server.")
+                        || name.startsWith("logging."))) {
+                    applicationArgs.add(arg);
+                } else {
+                    throw new IllegalArgumentException("Unknown argument " + arg + "; expected --name=value with name one of "
+                            + values.keySet() + " or an application property");
+                }
+            }
+            String database = values.get("db").toLowerCase(Locale.ROOT);
+            if (!database.equals("h2") && !database.equals("postgres")) {
+                throw new IllegalArgumentException("--db must be h2 or postgres");
+            }
+            double guestRate = Double.parseDouble(values.get("guest-rate"));
+            double usherRate = Double.parseDouble(values.get("usher-rate"));
+            if (guestRate <= 0 || usherRate <= 0) {
+                throw new IllegalArgumentException("--guest-rate and --usher-rate must be positive");
+            }
+            return new Options(
+                    positive(values, "vendors"),
+                    positive(values, "items"),
+                    positive(values, "tickets"),
+                    guestRate,
+                    usherRate,
+                    positive(values, "items-per-order"),
+                    positive(values, "duration"),
+                    positive(values, "workers"),
+                    database,
+                    applicationArgs);
+        }
+
+        private static int positive(Map<String, String> values, String name) {
+            int value = Integer.parseInt(values.get(name));
+            if (value <= 0) {
+                throw new IllegalArgumentException("--" + name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fbcorp.gleo.loadsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps every latency sample of a run, per endpoint, and reports exact percentiles at the end.
+ * A sample is eight bytes, so even a long run at a few thousand requests a second fits in memory.
+ */
+final class LatencyRecorder {
+
+    record Summary(String endpoint, int count, long errors, double p50Millis, double p99Millis, double maxMillis) { }
+
+    private final Map<String, Samples> endpoints = new LinkedHashMap<>();
+
+    /** Registers the endpoints up front so the report keeps their order. */
+    LatencyRecorder(String... names) {
+        for (String name : names) {
+            endpoints.put(name, new Samples());
+        }
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        Samples samples = endpoints.get(endpoint);
+        synchronized (samples) {
+            if (samples.count == samples.values.length) {
+                samples.values = Arrays.copyOf(samples.values, samples.values.length * 2);
+            }
+            samples.values[samples.count++] = nanos;
+            if (!ok) {
+                samples.errors++;
+            }
+        }
+    }
+
+    List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>();
+        endpoints.forEach((name, samples) -> {
+            long[] sorted;
+            long errors;
+            synchronized (samples) {
+                sorted = Arrays.copyOf(samples.values, samples.count);
+                errors = samples.errors;
+            }
+            Arrays.sort(sorted);
+            summaries.add(new Summary(name, sorted.length, errors,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0));
+        });
+        return summaries;
+    }
+
+    /** Nearest-rank percentile in milliseconds. */
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    private static final class Samples {
+        long[] values = new long[4096];
+        int count;
+        long errors;
+    }
+}
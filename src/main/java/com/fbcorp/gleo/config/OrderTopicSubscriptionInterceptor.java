@@ -0,0 +1,108 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.repo.UserAccountRepo;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Authorizes STOMP subscriptions to order topics:
+ * <ul>
+ *     <li>{@code /topic/orders/{eventCode}} - admins and organizers only</li>
+ *     <li>{@code /topic/orders/{eventCode}/vendor/{vendorId}} - admins, organizers, and accounts linked to that vendor</li>
+ *     <li>{@code /topic/orders/{eventCode}/ticket/{ticketId}} - the guest whose session holds that ticket</li>
+ * </ul>
+ * Other destinations are left alone.
+ */
+@Component
+public class OrderTopicSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final String PREFIX = "/topic/orders/";
+
+    private final UserAccountRepo userAccountRepo;
+
+    public OrderTopicSubscriptionInterceptor(UserAccountRepo userAccountRepo) {
+        this.userAccountRepo = userAccountRepo;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(PREFIX)) {
+            return message;
+        }
+        if (!isAllowed(destination.substring(PREFIX.length()).split("/"), accessor.getUser(), accessor.getSessionAttributes())) {
+            throw new AccessDeniedException("Not authorized to subscribe to " + destination);
+        }
+        return message;
+    }
+
+    private boolean isAllowed(String[] segments, Principal user, Map<String, Object> sessionAttributes) {
+        boolean staff = hasAnyRole(user, "ROLE_ADMIN", "ROLE_ORGANIZER");
+        if (segments.length == 1) {
+            return staff;
+        }
+        if (segments.length != 3) {
+            return false;
+        }
+        String eventCode = segments[0];
+        Long id = parseId(segments[2]);
+        if (id == null) {
+            return false;
+        }
+        return switch (segments[1]) {
+            case "vendor" -> staff || isVendorAccount(user, eventCode, id);
+            case "ticket" -> staff || (sessionAttributes != null
+                    && id.equals(sessionAttributes.get(TicketSessionInterceptor.SESSION_TICKET_ATTR)));
+            default -> false;
+        };
+    }
+
+    private boolean isVendorAccount(Principal user, String eventCode, Long vendorId) {
+        if (user == null) {
+            return false;
+        }
+        return userAccountRepo.findByUsername(user.getName())
+                .map(account -> account.getVendor())
+                .filter(vendor -> vendor.getId().equals(vendorId))
+                .filter(vendor -> vendor.getEvent() != null && eventCode.equals(vendor.getEvent().getCode()))
+                .isPresent();
+    }
+
+    private boolean hasAnyRole(Principal user, String... roles) {
+        if (!(user instanceof Authentication authentication) || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> {
+                    for (String role : roles) {
+                        if (role.equals(authority.getAuthority())) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+    }
+
+    private Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
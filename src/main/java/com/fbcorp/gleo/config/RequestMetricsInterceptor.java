@@ -0,0 +1,106 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.service.HotPathMetrics;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every handled request and counts the SQL statements it issued, per route pattern (e.g.
+ * {@code /e/{eventCode}/checkout}) so the series stay bounded. Both include view rendering, where
+ * lazy associations are loaded, so an N+1 in a template shows up as a jump in statements.
+ * <p>
+ * Requests over their {@link SqlStatementBudget} are logged or failed, depending on its mode.
+ * <p>
+ * A request that goes async (the streamed exports) is measured from its first dispatch to the
+ * end of the async dispatch that completes it. Its thread's statement scope is closed when the
+ * thread is handed back, and the count carries over to the async dispatch; statements issued
+ * while the response body is written on another thread are not counted.
+ */
+@Component
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+
+    private static final String STARTED_AT = RequestMetricsInterceptor.class.getName() + ".startedAt";
+    private static final String ISSUED_BEFORE_ASYNC = RequestMetricsInterceptor.class.getName() + ".issuedBeforeAsync";
+    private static final double[] STATEMENT_BUCKETS = {0, 1, 2, 3, 5, 10, 20, 50, 100, 200, 500};
+
+    private final SqlStatementCounter statementCounter;
+    private final SqlStatementBudget statementBudget;
+    private final HotPathMetrics.Timer requests;
+    private final HotPathMetrics.Histogram statements;
+    private final HotPathMetrics.Counter overBudget;
+
+    public RequestMetricsInterceptor(SqlStatementCounter statementCounter,
+                                     SqlStatementBudget statementBudget,
+                                     HotPathMetrics metrics) {
+        this.statementCounter = statementCounter;
+        this.statementBudget = statementBudget;
+        this.requests = metrics.timer("gleo_http_request_seconds",
+                "Handled requests, including view rendering", "method", "route", "status");
+        this.statements = metrics.histogram("gleo_http_request_statements",
+                "SQL statements Hibernate issued per handled request", STATEMENT_BUCKETS, "method", "route");
+        this.overBudget = metrics.counter("gleo_http_request_over_sql_budget_total",
+                "Handled requests that issued more SQL statements than their route's budget", "method", "route");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC || !(request.getAttribute(STARTED_AT) instanceof Long)) {
+            request.setAttribute(STARTED_AT, System.nanoTime());
+            request.removeAttribute(ISSUED_BEFORE_ASYNC);
+        }
+        if (statementBudget.mode() == SqlStatementBudget.Mode.FAIL) {
+            String route = route(request);
+            int remaining = Math.max(0, statementBudget.budgetFor(route) - issuedBeforeAsync(request));
+            statementCounter.begin(request.getMethod() + " " + route, remaining);
+        } else {
+            statementCounter.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // afterCompletion only runs on the async dispatch, possibly on another thread
+        request.setAttribute(ISSUED_BEFORE_ASYNC, issuedBeforeAsync(request) + statementCounter.end());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(STARTED_AT) instanceof Long startedAt)) {
+            return;
+        }
+        // An error dispatch that follows is measured on its own, under the /error route
+        request.removeAttribute(STARTED_AT);
+        String route = route(request);
+        String status = Integer.toString(ex != null && response.getStatus() < 400 ? 500 : response.getStatus());
+        int issued = issuedBeforeAsync(request) + statementCounter.end();
+        request.removeAttribute(ISSUED_BEFORE_ASYNC);
+        requests.record(startedAt, request.getMethod(), route, status);
+        statements.observe(issued, request.getMethod(), route);
+
+        int budget = statementBudget.budgetFor(route);
+        if (issued > budget) {
+            overBudget.increment(request.getMethod(), route);
+            if (statementBudget.mode() == SqlStatementBudget.Mode.LOG) {
+                log.warn("{} {} issued {} SQL statements, over its budget of {}",
+                        request.getMethod(), route, issued, budget);
+            }
+        }
+    }
+
+    private static int issuedBeforeAsync(HttpServletRequest request) {
+        return request.getAttribute(ISSUED_BEFORE_ASYNC) instanceof Integer issued ? issued : 0;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmapped";
+    }
+}
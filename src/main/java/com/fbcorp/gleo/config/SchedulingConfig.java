@@ -0,0 +1,24 @@
+package com.fbcorp.gleo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Runs {@code @Scheduled} jobs on their own thread. Without a scheduler named
+ * {@code taskScheduler} they would share {@code messageBrokerTaskScheduler}, where a slow job
+ * delays SockJS heartbeats and session timeouts.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("gleo-scheduled-");
+        return scheduler;
+    }
+}
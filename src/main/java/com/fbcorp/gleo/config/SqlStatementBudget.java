@@ -0,0 +1,65 @@
+package com.fbcorp.gleo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How many SQL statements a request may issue, per route pattern, and what happens when it
+ * issues more. Set with {@code gleo.sql-budget.mode} ({@code off}, {@code log} or {@code fail}),
+ * {@code gleo.sql-budget.default} and {@code gleo.sql-budget.routes}, a list such as
+ * {@code /e/{eventCode}/usher=40,/e/{eventCode}/checkout=25}.
+ */
+@Component
+public class SqlStatementBudget {
+
+    public enum Mode {
+        /** Count only. */
+        OFF,
+        /** Warn once the request completes, with the route and its count. */
+        LOG,
+        /** Throw at the first statement over budget. */
+        FAIL
+    }
+
+    private final Mode mode;
+    private final int defaultBudget;
+    private final Map<String, Integer> routeBudgets;
+
+    public SqlStatementBudget(@Value("${gleo.sql-budget.mode:off}") String mode,
+                              @Value("${gleo.sql-budget.default:50}") int defaultBudget,
+                              @Value("${gleo.sql-budget.routes:}") String routeBudgets) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.defaultBudget = Math.max(0, defaultBudget);
+        this.routeBudgets = parseRoutes(routeBudgets);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int budgetFor(String route) {
+        return routeBudgets.getOrDefault(route, defaultBudget);
+    }
+
+    static Map<String, Integer> parseRoutes(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return Map.of();
+        }
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid SQL budget '" + entry.trim() + "'; expected ROUTE=N");
+            }
+            budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(budgets);
+    }
+}
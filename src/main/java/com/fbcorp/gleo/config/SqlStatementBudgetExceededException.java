@@ -0,0 +1,29 @@
+package com.fbcorp.gleo.config;
+
+/**
+ * Thrown from the statement inspector when a scope opened with a hard budget issues one
+ * statement too many. Only raised in {@code gleo.sql-budget.mode=fail}, meant for tests and
+ * local development.
+ */
+public class SqlStatementBudgetExceededException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String label;
+    private final int budget;
+
+    public SqlStatementBudgetExceededException(String label, int budget, String sql) {
+        super((label != null ? label : "Scope") + " exceeded its budget of " + budget
+                + " SQL statements; statement " + (budget + 1) + " was: " + sql);
+        this.label = label;
+        this.budget = budget;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
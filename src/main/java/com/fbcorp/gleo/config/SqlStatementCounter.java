@@ -0,0 +1,95 @@
+package com.fbcorp.gleo.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin()}
+ * and {@link #end()}, which {@link RequestMetricsInterceptor} calls around each request. Threads
+ * outside such a scope (background jobs, the broadcast dispatcher) are not counted. Statements
+ * issued directly through JDBC bypass Hibernate and are not seen either.
+ * <p>
+ * Scopes nest, and a statement counts towards every open scope on the thread, so a test can
+ * measure a whole MockMvc call around the request's own scope.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final class Scope {
+        final Scope outer;
+        final String label;
+        final int failAbove;
+        int count;
+
+        Scope(Scope outer, String label, int failAbove) {
+            this.outer = outer;
+            this.label = label;
+            this.failAbove = failAbove;
+        }
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.session_factory.statement_inspector", this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope exceeded = null;
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.outer) {
+            scope.count++;
+            if (exceeded == null && scope.count > scope.failAbove) {
+                exceeded = scope;
+            }
+        }
+        if (exceeded != null) {
+            throw new SqlStatementBudgetExceededException(exceeded.label, exceeded.failAbove, sql);
+        }
+        return sql;
+    }
+
+    public void begin() {
+        begin(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Opens a scope whose statement past {@code failAbove} throws
+     * {@link SqlStatementBudgetExceededException}, so the stack trace points at the query that
+     * broke the budget rather than at the end of the request.
+     */
+    public void begin(String label, int failAbove) {
+        CURRENT.set(new Scope(CURRENT.get(), label, failAbove));
+    }
+
+    /** Statements counted in the innermost scope on this thread, or 0 outside a scope. */
+    public int current() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.count : 0;
+    }
+
+    /** Whether a scope is open on this thread. */
+    public boolean isCounting() {
+        return CURRENT.get() != null;
+    }
+
+    /** Ends the innermost scope and returns its count. */
+    public int end() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return 0;
+        }
+        if (scope.outer != null) {
+            CURRENT.set(scope.outer);
+        } else {
+            CURRENT.remove();
+        }
+        return scope.count;
+    }
+}
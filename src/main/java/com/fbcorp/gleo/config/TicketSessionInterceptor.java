@@ -34,8 +34,8 @@ public class TicketSessionInterceptor implements HandlerInterceptor {
             return true;
         }
         String eventCode = segments[2];
-        ticketService.findTicketForDevice(eventCode, DeviceFingerprint.from(request))
-                .ifPresent(ticket -> session.setAttribute(SESSION_TICKET_ATTR, ticket.getId()));
+        ticketService.findTicketIdForDevice(eventCode, DeviceFingerprint.from(request))
+                .ifPresent(ticketId -> session.setAttribute(SESSION_TICKET_ATTR, ticketId));
         if (session.getAttribute(SESSION_TICKET_ATTR) != null) {
             return true;
         }
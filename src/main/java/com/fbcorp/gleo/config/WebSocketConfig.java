@@ -1,19 +1,112 @@
 package com.fbcorp.gleo.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 import org.springframework.lang.NonNull;
 
+/**
+ * STOMP over SockJS on {@code /ws}.
+ * <p>
+ * {@code gleo.websocket.broker.mode} selects where {@code /topic} messages go:
+ * {@code simple} (default) keeps the in-memory broker, which only reaches clients on this node;
+ * {@code relay} forwards them to an external STOMP broker (ActiveMQ, Artemis, ...) so every node's
+ * broadcasts reach every client. Relay mode needs Reactor Netty on the classpath; build with
+ * {@code -Pbroker-relay}, otherwise startup fails with a message saying so. Any other mode is
+ * rejected at startup too.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final OrderTopicSubscriptionInterceptor orderTopicSubscriptionInterceptor;
+
+    @Value("${gleo.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${gleo.websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${gleo.websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${gleo.websocket.broker.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${gleo.websocket.broker.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${gleo.websocket.broker.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${gleo.websocket.broker.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${gleo.websocket.broker.system-passcode:guest}")
+    private String systemPasscode;
+
+    // Heartbeats in milliseconds: how often we send, and the longest silence we accept
+    @Value("${gleo.websocket.heartbeat.send:10000}")
+    private long heartbeatSend;
+
+    @Value("${gleo.websocket.heartbeat.receive:10000}")
+    private long heartbeatReceive;
+
+    @Value("${gleo.websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+
+    @Value("${gleo.websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${gleo.websocket.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+
+    // A client that cannot keep up is disconnected once either limit is hit, rather than buffering forever
+    @Value("${gleo.websocket.send-time-limit-ms:15000}")
+    private int sendTimeLimitMs;
+
+    @Value("${gleo.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    public WebSocketConfig(OrderTopicSubscriptionInterceptor orderTopicSubscriptionInterceptor) {
+        this.orderTopicSubscriptionInterceptor = orderTopicSubscriptionInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            if (!ClassUtils.isPresent("reactor.netty.tcp.TcpClient", getClass().getClassLoader())) {
+                throw new IllegalStateException("gleo.websocket.broker.mode=relay needs Reactor Netty, "
+                        + "which this build does not include; build with -Pbroker-relay or use mode 'simple'");
+            }
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatSend)
+                    .setSystemHeartbeatReceiveInterval(heartbeatReceive);
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            config.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[] {heartbeatSend, heartbeatReceive})
+                    .setTaskScheduler(webSocketHeartbeatScheduler());
+        } else {
+            throw new IllegalStateException("Unknown gleo.websocket.broker.mode '" + brokerMode + "'; expected 'simple' or 'relay'");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -21,6 +114,37 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
+                // Exposes the guest's active ticket to the subscription check
+                .addInterceptors(new HttpSessionHandshakeInterceptor())
                 .withSockJS();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(orderTopicSubscriptionInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    /** Sends the simple broker's heartbeats; a bean so the context shuts it down. Idle in relay mode. */
+    @Bean
+    public ThreadPoolTaskScheduler webSocketHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("gleo-ws-heartbeat-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+}
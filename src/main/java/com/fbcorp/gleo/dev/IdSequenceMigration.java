@@ -0,0 +1,125 @@
+package com.fbcorp.gleo.dev;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Moves tables created with identity columns over to the entities' pooled sequences.
+ * <p>
+ * For every entity whose id comes from a sequence and whose id column does not yet default to
+ * it, this drops the column's identity, restarts the sequence past the highest existing id if it
+ * is behind, and makes the sequence the column default. Ticket import and seeding take their ids
+ * from {@link com.fbcorp.gleo.service.SequenceIdAllocator}; the default covers ad-hoc inserts and
+ * nodes still running the identity mapping during a rolling deploy, since a single
+ * {@code nextval} is the low end of a block no other node will hand out.
+ * <p>
+ * Tables already migrated are only read from {@code information_schema}, so later boots take no
+ * locks. A table's steps run in one transaction; on Postgres it first locks the table (waiting
+ * at most {@value #LOCK_TIMEOUT}) and checks again, so old-mapping inserts never see the column
+ * without both identity and default, and nodes starting together migrate it once. Any failure
+ * stops startup: serving with a sequence below the existing ids would fail every insert.
+ * <p>
+ * Runs once the schema update has created the sequences and before any runner writes data.
+ */
+@Component
+public class IdSequenceMigration {
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    private static final String LOCK_TIMEOUT = "5s";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final SessionFactoryImplementor sessionFactory;
+    private final Dialect dialect;
+
+    public IdSequenceMigration(JdbcTemplate jdbc,
+                               PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dialect = sessionFactory.getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    void migrate() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                    && generator.getDatabaseStructure().isPhysicalSequence()
+                    && persister instanceof AbstractEntityPersister entity) {
+                migrate(entity.getTableName(), entity.getIdentifierColumnNames()[0],
+                        generator.getDatabaseStructure().getPhysicalName().render());
+            }
+        });
+    }
+
+    /** Moves one table's id column onto the sequence; does nothing once it defaults to it. */
+    void migrate(String table, String idColumn, String sequence) {
+        if (isMigrated(table, idColumn, sequence)) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                if (dialect instanceof PostgreSQLDialect) {
+                    jdbc.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+                    jdbc.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+                    // Another node may have migrated the table while this one waited for the lock
+                    if (isMigrated(table, idColumn, sequence)) {
+                        return;
+                    }
+                }
+                if (columnState(table, idColumn).identity()) {
+                    jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " DROP IDENTITY");
+                }
+                long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+                if (maxId > 0) {
+                    // Probing costs one block of ids; cheap next to handing out an id that is already taken
+                    Long next = jdbc.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+                    if (next != null && next <= maxId) {
+                        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+                        log.info("Restarted {} at {} to clear the existing ids in {}", sequence, maxId + 1, table);
+                    }
+                }
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn
+                        + " SET DEFAULT " + dialect.getSequenceSupport().getSelectSequenceNextValString(sequence));
+            });
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException("Could not move " + table + "." + idColumn + " onto sequence " + sequence, ex);
+        }
+    }
+
+    private boolean isMigrated(String table, String idColumn, String sequence) {
+        ColumnState state = columnState(table, idColumn);
+        return !state.identity() && state.defaultValue() != null
+                && state.defaultValue().toLowerCase(Locale.ROOT).contains(sequence.toLowerCase(Locale.ROOT));
+    }
+
+    private ColumnState columnState(String table, String idColumn) {
+        List<ColumnState> columns = jdbc.query(
+                "SELECT is_identity, column_default FROM information_schema.columns "
+                        + "WHERE table_schema = CURRENT_SCHEMA AND LOWER(table_name) = LOWER(?) AND LOWER(column_name) = LOWER(?)",
+                (rs, rowNum) -> new ColumnState("YES".equalsIgnoreCase(rs.getString(1)), rs.getString(2)),
+                table, idColumn);
+        if (columns.isEmpty()) {
+            throw new IllegalStateException("Column " + table + "." + idColumn + " does not exist");
+        }
+        return columns.get(0);
+    }
+
+    private record ColumnState(boolean identity, String defaultValue) {
+    }
+}
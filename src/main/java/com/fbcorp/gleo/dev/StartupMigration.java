@@ -4,12 +4,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 /**
- * Lightweight one-off migration to introduce vendor-specific order numbering.
+ * Lightweight one-off migration to introduce vendor-specific order numbering, plus the ticket
+ * indexes the guest hot paths rely on.
  * It is safe to keep; it uses IF NOT EXISTS and only updates rows with NULLs.
+ * <p>
+ * The indexes are built here rather than declared on the entity: ddl-auto would build them with a
+ * plain CREATE INDEX, which blocks writes to a live tickets table for the whole build. On Postgres
+ * they are built CONCURRENTLY, and an invalid index left by an interrupted build is rebuilt.
  */
 @Component
 public class StartupMigration implements ApplicationRunner {
@@ -22,6 +28,14 @@ public class StartupMigration implements ApplicationRunner {
 
     @Override
     public void run(ApplicationArguments args) {
+        migrateVendorOrderNumbers();
+        // Device lookups on (event_id, bound_device_hash), see TicketService
+        createTicketIndex("idx_tickets_event_device", "event_id, bound_device_hash");
+        // The QR index catch-up, which reads an event's tickets changed since its last pass
+        createTicketIndex("idx_tickets_event_updated", "event_id, updated_at");
+    }
+
+    private void migrateVendorOrderNumbers() {
         try {
             // 1) Ensure column exists
             jdbc.execute("ALTER TABLE orders ADD COLUMN IF NOT EXISTS vendor_order_number INTEGER");
@@ -48,4 +62,32 @@ public class StartupMigration implements ApplicationRunner {
             log.warn("Startup migration skipped/failed: {}", ex.getMessage());
         }
     }
+
+    private void createTicketIndex(String name, String columns) {
+        try {
+            if (isPostgres()) {
+                // CONCURRENTLY cannot run in a transaction; each statement here autocommits
+                Boolean valid = jdbc.query(
+                        "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                                + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                        rs -> rs.next() ? rs.getBoolean(1) : null, name);
+                if (Boolean.TRUE.equals(valid)) {
+                    return;
+                }
+                if (valid != null) {
+                    jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                }
+                jdbc.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON tickets (" + columns + ")");
+            } else {
+                jdbc.execute("CREATE INDEX IF NOT EXISTS " + name + " ON tickets (" + columns + ")");
+            }
+        } catch (Exception ex) {
+            log.warn("Could not create index {}: {}", name, ex.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
 }
@@ -0,0 +1,124 @@
+package com.fbcorp.gleo.dev;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Ticket;
+import com.fbcorp.gleo.domain.TierCode;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.service.SequenceIdAllocator;
+import com.fbcorp.gleo.service.TicketQrIndex;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates an event of arbitrary size for benchmarks and load runs: {@code vendors} vendors with
+ * {@code itemsPerVendor} priced menu items each, and {@code tickets} tickets whose QR codes are
+ * {@link SeededEvent#ticketQr(int)}. Tickets are batch-inserted over JDBC so a million of them
+ * take seconds, bracketed as a bulk change of the {@link TicketQrIndex} like an import. Not a
+ * bean; the caller wires it from the application context.
+ */
+public class SyntheticEventSeeder {
+
+    private static final String[] CATEGORIES = {"Mains", "Sides", "Drinks", "Desserts"};
+    private static final int TICKET_BATCH = 1000;
+
+    public record SeededEvent(Event event, List<Vendor> vendors, Map<Long, List<MenuItem>> menus, int tickets) {
+        /** Every fifth ticket is VIP, the rest REG. */
+        public String ticketQr(int index) {
+            return event.getCode() + "-T" + index;
+        }
+    }
+
+    private final EventRepo eventRepo;
+    private final VendorRepo vendorRepo;
+    private final MenuItemRepo menuItemRepo;
+    private final TicketQrIndex qrIndex;
+    private final SequenceIdAllocator idAllocator;
+    private final JdbcTemplate jdbc;
+
+    public SyntheticEventSeeder(EventRepo eventRepo,
+                                VendorRepo vendorRepo,
+                                MenuItemRepo menuItemRepo,
+                                TicketQrIndex qrIndex,
+                                SequenceIdAllocator idAllocator,
+                                DataSource dataSource) {
+        this.eventRepo = eventRepo;
+        this.vendorRepo = vendorRepo;
+        this.menuItemRepo = menuItemRepo;
+        this.qrIndex = qrIndex;
+        this.idAllocator = idAllocator;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    public SeededEvent seed(String code, int vendors, int itemsPerVendor, int tickets) {
+        if (eventRepo.findByCode(code).isPresent()) {
+            throw new IllegalStateException("Event " + code + " already exists");
+        }
+        Event event = new Event();
+        event.setCode(code);
+        event.setName("Synthetic event " + code);
+        event.setStartAt(LocalDateTime.now().minusHours(1));
+        event.setEndAt(LocalDateTime.now().plusHours(12));
+        // Let every guest order from several vendors without waiting for pickups
+        event.setBlockAddWhenOpenOrder(false);
+        event.setRegularOneItemPerVendor(false);
+        event = eventRepo.save(event);
+
+        List<Vendor> createdVendors = new ArrayList<>();
+        Map<Long, List<MenuItem>> menus = new LinkedHashMap<>();
+        for (int v = 1; v <= vendors; v++) {
+            Vendor vendor = new Vendor();
+            vendor.setEvent(event);
+            vendor.setName("Vendor " + v);
+            vendor.setPinPlain(String.format("%04d", v % 10000));
+            vendor.setActive(true);
+            vendor = vendorRepo.save(vendor);
+            createdVendors.add(vendor);
+
+            List<MenuItem> items = new ArrayList<>();
+            for (int i = 1; i <= itemsPerVendor; i++) {
+                MenuItem item = new MenuItem();
+                item.setVendor(vendor);
+                item.setName("Item " + v + "-" + i);
+                item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+                item.setCategoryOrder(i % CATEGORIES.length);
+                item.setPrice(BigDecimal.valueOf(25 + (i * 7L) % 150));
+                item.setAvailable(true);
+                items.add(item);
+            }
+            menus.put(vendor.getId(), menuItemRepo.saveAll(items));
+        }
+
+        SeededEvent seeded = new SeededEvent(event, createdVendors, menus, tickets);
+        List<Object[]> batch = new ArrayList<>(TICKET_BATCH);
+        qrIndex.beginBulkChange(event);
+        try {
+            long[] ids = new long[0];
+            for (int t = 0; t < tickets; t++) {
+                if (t % TICKET_BATCH == 0) {
+                    ids = idAllocator.allocate(Ticket.class, Math.min(TICKET_BATCH, tickets - t));
+                }
+                String tier = (t % 5 == 0 ? TierCode.VIP : TierCode.REG).name();
+                batch.add(new Object[]{ids[t % TICKET_BATCH], event.getId(), seeded.ticketQr(t), tier, "Guest " + t, null, "S-" + t, true, LocalDateTime.now()});
+                if (batch.size() == TICKET_BATCH || t == tickets - 1) {
+                    jdbc.batchUpdate("INSERT INTO tickets (id, event_id, qr_code, tier_code, holder_name, holder_phone, serial, active, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            qrIndex.endBulkChange(event);
+        }
+        return seeded;
+    }
+}
@@ -11,10 +11,11 @@ import lombok.Setter;
 public class AdminPreference {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admin_preferences_seq")
+    @SequenceGenerator(name = "admin_preferences_seq", sequenceName = "admin_preferences_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", unique = true)
     private UserAccount user;
 
@@ -21,7 +21,8 @@ public class AuditLogEntry {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_entries_seq")
+    @SequenceGenerator(name = "audit_log_entries_seq", sequenceName = "audit_log_entries_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
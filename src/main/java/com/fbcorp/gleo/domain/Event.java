@@ -11,7 +11,8 @@ import jakarta.persistence.Transient;
 @Entity @Getter @Setter
 @Table(name="events")
 public class Event {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -9,10 +9,11 @@ import java.math.BigDecimal;
 @Entity @Getter @Setter
 @Table(name="menu_items")
 public class MenuItem {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_seq")
+    @SequenceGenerator(name = "menu_items_seq", sequenceName = "menu_items_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional=false)
+    @ManyToOne(optional=false, fetch=FetchType.LAZY)
     private Vendor vendor;
 
     @Column(nullable=false)
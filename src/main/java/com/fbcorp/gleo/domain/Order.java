@@ -9,24 +9,34 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity @Getter @Setter
-@Table(name="orders")
+@Table(name="orders", indexes = {
+        // Serves the per-vendor sales rollups, which count a vendor's orders by status
+        @Index(name = "idx_orders_vendor_status", columnList = "vendor_id, status")
+})
 public class Order {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional=false)
+    @ManyToOne(optional=false, fetch=FetchType.LAZY)
     private Event event;
 
-    @ManyToOne(optional=false)
+    @ManyToOne(optional=false, fetch=FetchType.LAZY)
     private Vendor vendor;
 
-    @ManyToOne(optional=false)
+    @ManyToOne(optional=false, fetch=FetchType.LAZY)
     private Ticket ticket;
 
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.NEW;
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // When the order last entered each status; null until it has
+    private LocalDateTime preparingAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime cancelledAt;
     
     // Vendor-specific order number (e.g., Vendor A: #1, #2, #3; Vendor B: #1, #2, #3)
     @Column(nullable = false)
@@ -38,6 +48,18 @@ public class Order {
     private boolean confirmedByGuest = false;
     private String confirmedStaffPinLast4;
 
+    /** Sets the status and stamps the time it was entered. */
+    public void transitionTo(OrderStatus newStatus, LocalDateTime at){
+        this.status = newStatus;
+        switch (newStatus) {
+            case PREPARING -> preparingAt = at;
+            case READY -> readyAt = at;
+            case COMPLETED -> completedAt = at;
+            case CANCELLED -> cancelledAt = at;
+            case NEW -> { }
+        }
+    }
+
     public void addItem(OrderItem item){
         item.setOrder(this);
         items.add(item);
@@ -4,13 +4,17 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Entity @Getter @Setter
+// Indexes are built by StartupMigration, concurrently on Postgres, so a live table is never locked
 @Table(name="tickets")
 public class Ticket {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Event event;
 
     @Column(unique = true, nullable = false)
@@ -23,9 +27,18 @@ public class Ticket {
     private String holderPhone;
     private String serial;
 
-    private String boundDeviceHash; // nullable; first device bind
+    private String boundDeviceHash; // nullable; first device bind, stored normalized
     private boolean active = true;
 
+    // Null on tickets written before the QR index caught up by change time
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch(){
+        updatedAt = LocalDateTime.now();
+    }
+
     public boolean isRegular(){
         return tierCode == TierCode.REG;
     }
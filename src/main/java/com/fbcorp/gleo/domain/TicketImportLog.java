@@ -11,11 +11,15 @@ import java.time.LocalDateTime;
 @Setter
 @Table(name = "ticket_import_logs")
 public class TicketImportLog {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_import_logs_seq")
+    @SequenceGenerator(name = "ticket_import_logs_seq", sequenceName = "ticket_import_logs_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Event event;
 
     private String username;
@@ -29,13 +33,38 @@ public class TicketImportLog {
     @Column(length = 2000)
     private String errorSample;
 
+    // Null on logs written before imports reported progress; treat as COMPLETED
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private String fileName;
+
+    // The spooled upload while the import is queued or running; the row counts double as its checkpoint
+    @Column(length = 1000)
+    private String spoolPath;
+
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public boolean isInProgress() {
+        return status == Status.QUEUED || status == Status.RUNNING;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
 
     @PrePersist
     public void onCreate() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
 
@@ -7,16 +7,17 @@ import lombok.Setter;
 @Entity @Getter @Setter
 @Table(name="tier_consumption", uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "ticket_id", "vendor_id"}))
 public class TierConsumption {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tier_consumption_seq")
+    @SequenceGenerator(name = "tier_consumption_seq", sequenceName = "tier_consumption_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional=false) @JoinColumn(name="event_id")
+    @ManyToOne(optional=false, fetch=FetchType.LAZY) @JoinColumn(name="event_id")
     private Event event;
 
-    @ManyToOne(optional=false) @JoinColumn(name="ticket_id")
+    @ManyToOne(optional=false, fetch=FetchType.LAZY) @JoinColumn(name="ticket_id")
     private Ticket ticket;
 
-    @ManyToOne(optional=false) @JoinColumn(name="vendor_id")
+    @ManyToOne(optional=false, fetch=FetchType.LAZY) @JoinColumn(name="vendor_id")
     private Vendor vendor;
 
     private int totalItemsConsumed = 0;
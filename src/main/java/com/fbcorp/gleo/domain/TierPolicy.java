@@ -12,10 +12,11 @@ import lombok.Setter;
 public class TierPolicy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tier_policies_seq")
+    @SequenceGenerator(name = "tier_policies_seq", sequenceName = "tier_policies_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
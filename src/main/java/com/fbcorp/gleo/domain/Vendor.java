@@ -11,10 +11,11 @@ import com.fbcorp.gleo.model.VendorStatus;
 @Table(name = "vendors")
 public class Vendor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendors_seq")
+    @SequenceGenerator(name = "vendors_seq", sequenceName = "vendors_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Event event;
 
     @Column(nullable = false)
@@ -0,0 +1,22 @@
+package com.fbcorp.gleo.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Cluster-wide version of a vendor's usher board. Every node bumps it for each delta it
+ * broadcasts, so delta versions are comparable whichever node sent them, and a node whose board
+ * is behind the stored version knows it missed changes made elsewhere. The vendor id is a plain
+ * column (no FK) so vendor/event deletion never trips over it.
+ */
+@Entity @Getter @Setter
+@Table(name="vendor_board_versions")
+public class VendorBoardVersion {
+    @Id
+    @Column(name = "vendor_id")
+    private Long vendorId;
+
+    @Column(nullable = false)
+    private long version;
+}
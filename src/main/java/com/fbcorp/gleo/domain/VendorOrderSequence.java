@@ -0,0 +1,21 @@
+package com.fbcorp.gleo.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Persistent high-water mark for vendor order numbers. Each row records the last number
+ * handed out in a reserved block; nodes reserve a new block by bumping it under a row lock.
+ * The vendor id is a plain column (no FK) so vendor/event deletion never trips over it.
+ */
+@Entity @Getter @Setter
+@Table(name="vendor_order_sequences")
+public class VendorOrderSequence {
+    @Id
+    @Column(name = "vendor_id")
+    private Long vendorId;
+
+    @Column(nullable = false)
+    private int lastReserved;
+}
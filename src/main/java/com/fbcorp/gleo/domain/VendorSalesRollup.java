@@ -0,0 +1,49 @@
+package com.fbcorp.gleo.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running order and sales counters for one vendor, kept up to date as orders are placed and
+ * change status, and periodically reconciled against {@code orders}. Like
+ * {@link VendorOrderSequence}, vendor and event ids are plain columns (no FK).
+ */
+@Entity @Getter @Setter
+@Table(name="vendor_sales_rollups", indexes = @Index(name = "idx_vendor_sales_rollups_event", columnList = "event_id"))
+public class VendorSalesRollup {
+    @Id
+    @Column(name = "vendor_id")
+    private Long vendorId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    private long totalOrders;
+    private long newOrders;
+    private long preparingOrders;
+    private long readyOrders;
+    private long completedOrders;
+    private long cancelledOrders;
+
+    // Quantity and revenue of completed orders, priced at the menu price when counted
+    private long itemsServed;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    private LocalDateTime reconciledAt;
+
+    public long count(OrderStatus status) {
+        return switch (status) {
+            case NEW -> newOrders;
+            case PREPARING -> preparingOrders;
+            case READY -> readyOrders;
+            case COMPLETED -> completedOrders;
+            case CANCELLED -> cancelledOrders;
+        };
+    }
+}
@@ -4,6 +4,7 @@ import com.fbcorp.gleo.domain.MenuItem;
 import com.fbcorp.gleo.domain.Vendor;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepo extends JpaRepository<MenuItem, Long> {
@@ -11,6 +12,8 @@ public interface MenuItemRepo extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findByVendorOrderByNameAsc(Vendor vendor);
 
+    List<MenuItem> findByVendorIn(Collection<Vendor> vendors);
+
     List<MenuItem> findByVendorAndNameIgnoreCase(Vendor vendor, String name);
 
     void deleteByVendor(Vendor vendor);
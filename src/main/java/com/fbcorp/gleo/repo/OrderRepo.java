@@ -1,6 +1,7 @@
 package com.fbcorp.gleo.repo;
 
 import com.fbcorp.gleo.domain.*;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,10 +14,88 @@ public interface OrderRepo extends JpaRepository<Order, Long> {
          + "AND o.status IN (com.fbcorp.gleo.domain.OrderStatus.NEW, com.fbcorp.gleo.domain.OrderStatus.PREPARING, com.fbcorp.gleo.domain.OrderStatus.READY)")
     boolean existsOpenOrder(@Param("ticketId") Long ticketId, @Param("vendorId") Long vendorId);
 
+    @Query("SELECT DISTINCT o.vendor.id FROM Order o "
+         + "WHERE o.ticket.id = :ticketId "
+         + "AND o.vendor.id IN :vendorIds "
+         + "AND o.status IN (com.fbcorp.gleo.domain.OrderStatus.NEW, com.fbcorp.gleo.domain.OrderStatus.PREPARING, com.fbcorp.gleo.domain.OrderStatus.READY)")
+    java.util.List<Long> findVendorIdsWithOpenOrders(@Param("ticketId") Long ticketId,
+                                                     @Param("vendorIds") java.util.Collection<Long> vendorIds);
+
     java.util.List<Order> findByEvent(Event event);
 
-    java.util.List<Order> findByVendor(Vendor vendor);
+    /** Per-vendor order counts by status for one event, as returned by {@link #countOrdersByVendor}. */
+    interface VendorOrderCounts {
+        Long getVendorId();
+        long getTotalOrders();
+        long getNewOrders();
+        long getPreparingOrders();
+        long getReadyOrders();
+        long getCompletedOrders();
+        long getCancelledOrders();
+    }
+
+    /**
+     * Per-vendor quantity and revenue of completed orders, as returned by
+     * {@link #sumCompletedItemsByVendor} and {@link #sumCompletedItemsForVendor}.
+     */
+    interface VendorItemTotals {
+        Long getVendorId();
+        long getItemsServed();
+        java.math.BigDecimal getRevenue();
+    }
+
+    interface StatusCount {
+        OrderStatus getStatus();
+        long getOrders();
+    }
+
+    @Query("SELECT o.vendor.id AS vendorId, COUNT(o) AS totalOrders, "
+         + "SUM(CASE WHEN o.status = com.fbcorp.gleo.domain.OrderStatus.NEW THEN 1 ELSE 0 END) AS newOrders, "
+         + "SUM(CASE WHEN o.status = com.fbcorp.gleo.domain.OrderStatus.PREPARING THEN 1 ELSE 0 END) AS preparingOrders, "
+         + "SUM(CASE WHEN o.status = com.fbcorp.gleo.domain.OrderStatus.READY THEN 1 ELSE 0 END) AS readyOrders, "
+         + "SUM(CASE WHEN o.status = com.fbcorp.gleo.domain.OrderStatus.COMPLETED THEN 1 ELSE 0 END) AS completedOrders, "
+         + "SUM(CASE WHEN o.status = com.fbcorp.gleo.domain.OrderStatus.CANCELLED THEN 1 ELSE 0 END) AS cancelledOrders "
+         + "FROM Order o WHERE o.event = :event AND o.vendor.id IN :vendorIds GROUP BY o.vendor.id")
+    java.util.List<VendorOrderCounts> countOrdersByVendor(@Param("event") Event event,
+                                                          @Param("vendorIds") java.util.Collection<Long> vendorIds);
+
+    // Revenue is priced at the current menu price, as the dashboard always has; negative quantities count as zero
+    @Query("SELECT o.vendor.id AS vendorId, SUM(oi.qty) AS itemsServed, "
+         + "SUM(COALESCE(mi.price, 0) * oi.qty) AS revenue "
+         + "FROM OrderItem oi JOIN oi.order o LEFT JOIN oi.menuItem mi "
+         + "WHERE o.event = :event AND o.vendor.id IN :vendorIds "
+         + "AND o.status = com.fbcorp.gleo.domain.OrderStatus.COMPLETED AND oi.qty > 0 "
+         + "GROUP BY o.vendor.id")
+    java.util.List<VendorItemTotals> sumCompletedItemsByVendor(@Param("event") Event event,
+                                                               @Param("vendorIds") java.util.Collection<Long> vendorIds);
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orders FROM Order o WHERE o.vendor.id = :vendorId GROUP BY o.status")
+    java.util.List<StatusCount> countByStatusForVendor(@Param("vendorId") Long vendorId);
+
+    // One vendor's row of sumCompletedItemsByVendor, for reconciling a single rollup
+    @Query("SELECT o.vendor.id AS vendorId, SUM(oi.qty) AS itemsServed, "
+         + "SUM(COALESCE(mi.price, 0) * oi.qty) AS revenue "
+         + "FROM OrderItem oi JOIN oi.order o LEFT JOIN oi.menuItem mi "
+         + "WHERE o.vendor.id = :vendorId AND o.status = com.fbcorp.gleo.domain.OrderStatus.COMPLETED AND oi.qty > 0 "
+         + "GROUP BY o.vendor.id")
+    java.util.Optional<VendorItemTotals> sumCompletedItemsForVendor(@Param("vendorId") Long vendorId);
+
+    /**
+     * A vendor's orders with their event, ticket, items and menu items, in one query: everything
+     * the usher board cards and the vendor dashboard render.
+     */
+    @EntityGraph(attributePaths = {"event", "vendor", "ticket", "items", "items.menuItem"})
+    java.util.List<Order> findWithDetailsByVendor(Vendor vendor);
+
+    /** One order with everything a {@code BoardCard} and the tier consumption update read. */
+    @EntityGraph(attributePaths = {"event", "vendor", "ticket", "items", "items.menuItem"})
+    java.util.Optional<Order> findWithDetailsById(Long id);
+
+    /** One order with the vendor and event the tracking page and PIN check read. */
+    @EntityGraph(attributePaths = {"event", "vendor"})
+    java.util.Optional<Order> findWithVendorById(Long id);
 
+    @EntityGraph(attributePaths = {"event", "vendor"})
     java.util.List<Order> findByTicketOrderByCreatedAtDesc(Ticket ticket);
     
     @Query("SELECT COALESCE(MAX(o.vendorOrderNumber), 0) FROM Order o WHERE o.vendor.id = :vendorId")
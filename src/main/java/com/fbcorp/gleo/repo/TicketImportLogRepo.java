@@ -3,11 +3,45 @@ package com.fbcorp.gleo.repo;
 import com.fbcorp.gleo.domain.Event;
 import com.fbcorp.gleo.domain.TicketImportLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TicketImportLogRepo extends JpaRepository<TicketImportLog, Long> {
     List<TicketImportLog> findTop5ByEventOrderByCreatedAtDesc(Event event);
     List<TicketImportLog> findByEvent(Event event);
-}
+    List<TicketImportLog> findByStatusIn(Collection<TicketImportLog.Status> statuses);
+    Optional<TicketImportLog> findByIdAndEvent(Long id, Event event);
+
+    /** Moves a queued job, or one whose runner stopped reporting, to RUNNING; returns 0 when another node holds it. */
+    @Modifying
+    @Query("UPDATE TicketImportLog l SET l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.RUNNING, l.updatedAt = :now "
+         + "WHERE l.id = :id AND (l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.QUEUED "
+         + "OR (l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.RUNNING AND l.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE TicketImportLog l SET l.updatedAt = :now WHERE l.id IN :ids "
+         + "AND l.status IN (com.fbcorp.gleo.domain.TicketImportLog.Status.QUEUED, com.fbcorp.gleo.domain.TicketImportLog.Status.RUNNING)")
+    int touch(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 
+    /** Hands a running job back to the queue, e.g. when its node shuts down mid-import. */
+    @Modifying
+    @Query("UPDATE TicketImportLog l SET l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.QUEUED, l.updatedAt = :now "
+         + "WHERE l.id = :id AND l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.RUNNING")
+    int release(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /** Fails a job only if it is still unfinished and has not reported since {@code staleBefore}. */
+    @Modifying
+    @Query("UPDATE TicketImportLog l SET l.status = com.fbcorp.gleo.domain.TicketImportLog.Status.FAILED, "
+         + "l.spoolPath = NULL, l.errorCount = l.errorCount + 1, l.errorSample = :message, l.updatedAt = :now "
+         + "WHERE l.id = :id AND l.status IN (com.fbcorp.gleo.domain.TicketImportLog.Status.QUEUED, com.fbcorp.gleo.domain.TicketImportLog.Status.RUNNING) "
+         + "AND (l.updatedAt IS NULL OR l.updatedAt < :staleBefore)")
+    int failIfStale(@Param("id") Long id, @Param("message") String message,
+                    @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+}
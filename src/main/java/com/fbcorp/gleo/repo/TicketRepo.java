@@ -2,17 +2,47 @@ package com.fbcorp.gleo.repo;
 
 import com.fbcorp.gleo.domain.Event;
 import com.fbcorp.gleo.domain.Ticket;
+import com.fbcorp.gleo.domain.TierCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TicketRepo extends JpaRepository<Ticket, Long> {
     Optional<Ticket> findByQrCode(String qrCode);
 
-    Optional<Ticket> findByEvent_CodeAndBoundDeviceHash(String eventCode, String boundDeviceHash);
+    // Served by idx_tickets_event_device; callers pass the hash already normalized
+    Optional<Ticket> findByEvent_IdAndBoundDeviceHashAndActiveTrue(Long eventId, String boundDeviceHash);
+
+    // Confirms a cached device binding with a primary-key probe
+    boolean existsByIdAndBoundDeviceHashAndActiveTrue(Long id, String boundDeviceHash);
 
     Optional<Ticket> findByIdAndEvent_Code(Long id, String eventCode);
 
     List<Ticket> findByEvent(Event event);
+
+    // QR codes are unique across events, so this checks every ticket, not just the event's
+    @Query("SELECT t.qrCode FROM Ticket t WHERE t.qrCode IN :qrCodes")
+    List<String> findExistingQrCodes(@Param("qrCodes") Collection<String> qrCodes);
+
+    interface QrIndexRow {
+        Long getId();
+        String getQrCode();
+        TierCode getTierCode();
+        boolean isActive();
+        LocalDateTime getUpdatedAt();
+    }
+
+    @Query("SELECT t.id AS id, t.qrCode AS qrCode, t.tierCode AS tierCode, t.active AS active, t.updatedAt AS updatedAt " +
+           "FROM Ticket t WHERE t.event.id = :eventId")
+    List<QrIndexRow> findQrIndexRows(@Param("eventId") Long eventId);
+
+    // Ids come from per-node sequence blocks and are not in commit order, so changes are found by time
+    @Query("SELECT t.id AS id, t.qrCode AS qrCode, t.tierCode AS tierCode, t.active AS active, t.updatedAt AS updatedAt " +
+           "FROM Ticket t WHERE t.event.id = :eventId AND t.updatedAt > :since ORDER BY t.updatedAt")
+    List<QrIndexRow> findQrIndexRowsUpdatedAfter(@Param("eventId") Long eventId, @Param("since") LocalDateTime since);
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +19,14 @@ public interface TierConsumptionRepo extends JpaRepository<TierConsumption, Long
                           @Param("vendor") Vendor vendor);
 
     List<TierConsumption> findByEvent(Event event);
+
+    interface VendorConsumption {
+        Long getVendorId();
+        int getTotalItemsConsumed();
+    }
+
+    @Query("SELECT tc.vendor.id AS vendorId, tc.totalItemsConsumed AS totalItemsConsumed FROM TierConsumption tc "
+         + "WHERE tc.ticket.id = :ticketId AND tc.vendor.id IN :vendorIds")
+    List<VendorConsumption> consumedByVendor(@Param("ticketId") Long ticketId,
+                                             @Param("vendorIds") Collection<Long> vendorIds);
 }
@@ -1,12 +1,18 @@
 package com.fbcorp.gleo.repo;
 
 import com.fbcorp.gleo.domain.UserAccount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface UserAccountRepo extends JpaRepository<UserAccount, Long> {
+    /**
+     * Fetches the roles, vendor and events with the account: sign-in and the websocket
+     * subscription check read them outside any open session.
+     */
+    @EntityGraph(attributePaths = {"roles", "vendor", "vendor.event", "event"})
     Optional<UserAccount> findByUsername(String username);
 
     List<UserAccount> findByVendor(com.fbcorp.gleo.domain.Vendor vendor);
@@ -0,0 +1,31 @@
+package com.fbcorp.gleo.repo;
+
+import com.fbcorp.gleo.domain.VendorBoardVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VendorBoardVersionRepo extends JpaRepository<VendorBoardVersion, Long> {
+
+    List<VendorBoardVersion> findByVendorIdIn(Collection<Long> vendorIds);
+
+    /** Adds {@code count} in place, locking the row until commit; returns 0 when the vendor has no row yet. */
+    @Modifying
+    @Query("UPDATE VendorBoardVersion v SET v.version = v.version + :count WHERE v.vendorId = :vendorId")
+    int increment(@Param("vendorId") Long vendorId, @Param("count") long count);
+
+    /**
+     * Creates the vendor's row unless it exists; returns 0 when it did. Two nodes creating it at
+     * once can both pass the check, and the later insert then fails on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO vendor_board_versions (vendor_id, version) "
+                 + "SELECT :vendorId, :version "
+                 + "WHERE NOT EXISTS (SELECT 1 FROM vendor_board_versions WHERE vendor_id = :vendorId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("vendorId") Long vendorId, @Param("version") long version);
+}
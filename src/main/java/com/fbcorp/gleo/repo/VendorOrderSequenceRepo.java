@@ -0,0 +1,29 @@
+package com.fbcorp.gleo.repo;
+
+import com.fbcorp.gleo.domain.VendorOrderSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface VendorOrderSequenceRepo extends JpaRepository<VendorOrderSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM VendorOrderSequence s WHERE s.vendorId = :vendorId")
+    Optional<VendorOrderSequence> findForUpdate(@Param("vendorId") Long vendorId);
+
+    /**
+     * Creates the vendor's row unless it exists; returns 0 when it did. Two nodes seeding at once
+     * can both pass the check, and the later insert then fails on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO vendor_order_sequences (vendor_id, last_reserved) "
+                 + "SELECT :vendorId, :lastReserved "
+                 + "WHERE NOT EXISTS (SELECT 1 FROM vendor_order_sequences WHERE vendor_id = :vendorId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("vendorId") Long vendorId, @Param("lastReserved") int lastReserved);
+}
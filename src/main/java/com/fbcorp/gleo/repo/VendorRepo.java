@@ -2,8 +2,10 @@ package com.fbcorp.gleo.repo;
 
 import com.fbcorp.gleo.domain.Event;
 import com.fbcorp.gleo.domain.Vendor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface VendorRepo extends JpaRepository<Vendor, Long> {
@@ -11,5 +13,9 @@ public interface VendorRepo extends JpaRepository<Vendor, Long> {
 
     List<Vendor> findByEvent(Event event);
 
+    /** Vendors with their event, for callers that read the event code of each. */
+    @EntityGraph(attributePaths = "event")
+    List<Vendor> findWithEventByIdIn(Collection<Long> ids);
+
     java.util.Optional<Vendor> findByEventAndNameIgnoreCase(Event event, String name);
 }
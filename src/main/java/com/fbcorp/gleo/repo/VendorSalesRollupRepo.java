@@ -0,0 +1,57 @@
+package com.fbcorp.gleo.repo;
+
+import com.fbcorp.gleo.domain.VendorSalesRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface VendorSalesRollupRepo extends JpaRepository<VendorSalesRollup, Long> {
+
+    List<VendorSalesRollup> findByEventId(Long eventId);
+
+    @Query("SELECT r.vendorId FROM VendorSalesRollup r WHERE r.reconciledAt IS NULL OR r.reconciledAt < :cutoff")
+    List<Long> findVendorIdsReconciledBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM VendorSalesRollup r WHERE r.vendorId = :vendorId")
+    Optional<VendorSalesRollup> findForUpdate(@Param("vendorId") Long vendorId);
+
+    // Locked in vendor id order, the order record() callers take them in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM VendorSalesRollup r WHERE r.eventId = :eventId ORDER BY r.vendorId")
+    List<VendorSalesRollup> findByEventIdForUpdate(@Param("eventId") Long eventId);
+
+    /** Adds the deltas in place; returns 0 when the vendor has no row yet. */
+    @Modifying
+    @Query("UPDATE VendorSalesRollup r SET "
+         + "r.totalOrders = r.totalOrders + :total, "
+         + "r.newOrders = r.newOrders + :newOrders, "
+         + "r.preparingOrders = r.preparingOrders + :preparing, "
+         + "r.readyOrders = r.readyOrders + :ready, "
+         + "r.completedOrders = r.completedOrders + :completed, "
+         + "r.cancelledOrders = r.cancelledOrders + :cancelled, "
+         + "r.itemsServed = r.itemsServed + :items, "
+         + "r.revenue = r.revenue + :revenue "
+         + "WHERE r.vendorId = :vendorId")
+    int increment(@Param("vendorId") Long vendorId,
+                  @Param("total") long total,
+                  @Param("newOrders") long newOrders,
+                  @Param("preparing") long preparing,
+                  @Param("ready") long ready,
+                  @Param("completed") long completed,
+                  @Param("cancelled") long cancelled,
+                  @Param("items") long items,
+                  @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query("DELETE FROM VendorSalesRollup r WHERE r.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
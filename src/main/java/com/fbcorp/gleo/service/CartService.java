@@ -5,6 +5,12 @@ import com.fbcorp.gleo.repo.OrderRepo;
 import com.fbcorp.gleo.repo.TierConsumptionRepo;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 public class CartService {
     private final EventPolicyService policyService;
@@ -17,30 +23,75 @@ public class CartService {
         this.tcRepo = tcRepo;
     }
 
-    public record CheckResult(boolean allowed, String message){
-        public static CheckResult allow(){ return new CheckResult(true, null); }
-        public static CheckResult deny(String msg){ return new CheckResult(false, msg); }
+    /** {@code reason} is a short code for metrics, e.g. {@code open_order}; {@code message} is shown to the guest. */
+    public record CheckResult(boolean allowed, String reason, String message){
+        public static CheckResult allow(){ return new CheckResult(true, null, null); }
+        public static CheckResult deny(String reason, String msg){ return new CheckResult(false, reason, msg); }
     }
 
     public CheckResult canAddToCart(String eventCode, Ticket ticket, Vendor vendor, int qtySum){
         boolean blockOnOpen = policyService.blockAddWhenOpenOrder(eventCode);
 
         if (blockOnOpen && orderRepo.existsOpenOrder(ticket.getId(), vendor.getId())) {
-            return CheckResult.deny("You have an open order with this vendor. Complete it first.");
+            return CheckResult.deny("open_order", "You have an open order with this vendor. Complete it first.");
         }
 
-        TierPolicy tierPolicy = policyService.tierPolicy(eventCode, ticket.getTierCode());
-        if (tierPolicy.hasLimit()) {
-            int limit = Math.max(0, tierPolicy.getMaxItemsPerVendor());
+        var tierLimit = policyService.tierLimit(eventCode, ticket.getTierCode());
+        if (tierLimit.hasLimit()) {
             Integer consumed = tcRepo.consumedCount(vendor.getEvent(), ticket, vendor);
-            int alreadyConsumed = consumed != null ? consumed : 0;
-            if (alreadyConsumed >= limit) {
-                return CheckResult.deny("Limit reached for this vendor.");
-            }
-            if (alreadyConsumed + qtySum > limit) {
-                return CheckResult.deny("Only " + Math.max(0, limit - alreadyConsumed) + " more item(s) allowed for this vendor.");
+            return checkLimit(tierLimit, consumed != null ? consumed : 0, qtySum);
+        }
+        return CheckResult.allow();
+    }
+
+    /**
+     * Batched form of {@link #canAddToCart} for checkout: evaluates every vendor group of a cart
+     * with one open-order query and one consumption query, regardless of how many vendors it spans.
+     *
+     * @param qtyByVendor total quantity requested per vendor id
+     * @return a result per vendor id, in the iteration order of {@code qtyByVendor}
+     */
+    public Map<Long, CheckResult> canCheckout(String eventCode, Ticket ticket, Map<Long, Integer> qtyByVendor){
+        Map<Long, CheckResult> results = new LinkedHashMap<>();
+        if (qtyByVendor.isEmpty()) {
+            return results;
+        }
+        Set<Long> vendorIds = qtyByVendor.keySet();
+
+        var policy = policyService.snapshot(eventCode);
+        Set<Long> openOrderVendors = policy.blockAddWhenOpenOrder()
+                ? new HashSet<>(orderRepo.findVendorIdsWithOpenOrders(ticket.getId(), vendorIds))
+                : Set.of();
+
+        var tierLimit = policy.tierLimit(ticket.getTierCode());
+        Map<Long, Integer> consumedByVendor = tierLimit.hasLimit()
+                ? tcRepo.consumedByVendor(ticket.getId(), vendorIds).stream()
+                    .collect(Collectors.toMap(TierConsumptionRepo.VendorConsumption::getVendorId,
+                            TierConsumptionRepo.VendorConsumption::getTotalItemsConsumed,
+                            Integer::sum))
+                : Map.of();
+
+        for (var entry : qtyByVendor.entrySet()) {
+            Long vendorId = entry.getKey();
+            if (openOrderVendors.contains(vendorId)) {
+                results.put(vendorId, CheckResult.deny("open_order", "You have an open order with this vendor. Complete it first."));
+            } else if (tierLimit.hasLimit()) {
+                results.put(vendorId, checkLimit(tierLimit, consumedByVendor.getOrDefault(vendorId, 0), entry.getValue()));
+            } else {
+                results.put(vendorId, CheckResult.allow());
             }
         }
+        return results;
+    }
+
+    private CheckResult checkLimit(EventPolicyService.TierLimit tierLimit, int alreadyConsumed, int qtySum){
+        int limit = Math.max(0, tierLimit.maxItemsPerVendor());
+        if (alreadyConsumed >= limit) {
+            return CheckResult.deny("tier_limit", "Limit reached for this vendor.");
+        }
+        if (alreadyConsumed + qtySum > limit) {
+            return CheckResult.deny("tier_limit", "Only " + Math.max(0, limit - alreadyConsumed) + " more item(s) allowed for this vendor.");
+        }
         return CheckResult.allow();
     }
 }
@@ -1,63 +1,109 @@
 package com.fbcorp.gleo.service;
 
-import com.fbcorp.gleo.domain.MenuItem;
-import com.fbcorp.gleo.domain.Vendor;
-import com.fbcorp.gleo.repo.MenuItemRepo;
-import com.fbcorp.gleo.repo.VendorRepo;
-import com.fbcorp.gleo.web.CartSession;
+import com.fbcorp.gleo.service.MenuSnapshotService.MenuEntry;
+import com.fbcorp.gleo.service.MenuSnapshotService.VendorMenu;
+import com.fbcorp.gleo.service.cart.CartSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Builds the cart view from menu snapshots and the event's pricing table. Summaries are memoized
+ * per cart, and reused while neither the cart's revision nor the snapshot generation has moved,
+ * so re-rendering an unchanged cart does not touch the database.
+ */
 @Service
 public class CartViewService {
 
-    private final MenuItemRepo menuItemRepo;
-    private final VendorRepo vendorRepo;
-
-    public CartViewService(MenuItemRepo menuItemRepo, VendorRepo vendorRepo) {
-        this.menuItemRepo = menuItemRepo;
-        this.vendorRepo = vendorRepo;
+    private record Memo(long revision, long menuGeneration, CartSummary summary) { }
+
+    private final MenuSnapshotService menuSnapshotService;
+    private final PricingRuleService pricingRuleService;
+    private final Map<String, Memo> memos;
+    private final HotPathMetrics.Timer summaryTimer;
+
+    public CartViewService(MenuSnapshotService menuSnapshotService,
+                           PricingRuleService pricingRuleService,
+                           HotPathMetrics metrics,
+                           @Value("${gleo.cart.summary-cache-size:10000}") int maxEntries) {
+        this.menuSnapshotService = menuSnapshotService;
+        this.pricingRuleService = pricingRuleService;
+        int capacity = Math.max(1, maxEntries);
+        this.memos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Memo> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.summaryTimer = metrics.timer("gleo_cart_summary_seconds",
+                "Cart summaries, served from the memo or built", "source");
     }
 
-    public CartSummary summarize(CartSession cartSession) {
+    public CartSummary summarize(String eventCode, CartSession cartSession) {
         if (cartSession == null || cartSession.isEmpty()) {
             return CartSummary.empty();
         }
+        long started = System.nanoTime();
+        // Carts that were never stored have no id and are cheap to rebuild anyway
+        String key = cartSession.getCartId() != null ? eventCode + '/' + cartSession.getCartId() : null;
+        long menuGeneration = menuSnapshotService.generation();
+        if (key != null) {
+            Memo memo;
+            synchronized (memos) {
+                memo = memos.get(key);
+            }
+            if (memo != null && memo.revision() == cartSession.getRevision() && memo.menuGeneration() == menuGeneration) {
+                summaryTimer.record(started, "memo");
+                return memo.summary();
+            }
+        }
+        CartSummary summary = build(eventCode, cartSession);
+        if (key != null) {
+            synchronized (memos) {
+                memos.put(key, new Memo(cartSession.getRevision(), menuGeneration, summary));
+            }
+        }
+        summaryTimer.record(started, "built");
+        return summary;
+    }
+
+    private CartSummary build(String eventCode, CartSession cartSession) {
+        List<Long> vendorIds = cartSession.vendorIds();
+        Map<Long, VendorMenu> menus = menuSnapshotService.menus(vendorIds);
 
         List<VendorGroup> groups = new ArrayList<>();
         BigDecimal grandTotal = BigDecimal.ZERO;
         int totalQty = 0;
 
-        for (var vendorEntry : cartSession.getAll().entrySet()) {
-            Long vendorId = vendorEntry.getKey();
-            Vendor vendor = vendorRepo.findById(vendorId).orElse(null);
-            if (vendor == null) {
+        for (Long vendorId : vendorIds) {
+            VendorMenu menu = menus.get(vendorId);
+            if (menu == null) {
                 continue;
             }
             List<CartLine> lines = new ArrayList<>();
-            BigDecimal vendorTotal = BigDecimal.ZERO;
+            BigDecimal[] vendorTotal = {BigDecimal.ZERO};
 
-            for (var itemEntry : vendorEntry.getValue().entrySet()) {
-                Long itemId = itemEntry.getKey();
-                MenuItem menuItem = menuItemRepo.findById(itemId).orElse(null);
+            cartSession.forEachLine(vendorId, (itemId, itemQty) -> {
+                MenuEntry menuItem = menu.item(itemId);
                 if (menuItem == null) {
-                    continue;
+                    return;
                 }
-                int qty = Math.max(1, itemEntry.getValue());
-                BigDecimal price = menuItem.getPrice() != null ? menuItem.getPrice() : BigDecimal.ZERO;
-                BigDecimal subtotal = price.multiply(BigDecimal.valueOf(qty));
-                vendorTotal = vendorTotal.add(subtotal);
-                totalQty += qty;
-                lines.add(new CartLine(menuItem.getId(), menuItem.getName(), qty, price, subtotal));
-            }
+                int qty = Math.max(1, itemQty);
+                BigDecimal subtotal = menuItem.price().multiply(BigDecimal.valueOf(qty));
+                vendorTotal[0] = vendorTotal[0].add(subtotal);
+                lines.add(new CartLine(menuItem.id(), menuItem.name(), qty, menuItem.price(), subtotal));
+            });
 
             if (!lines.isEmpty()) {
                 String note = cartSession.getVendorNote(vendorId);
-                groups.add(new VendorGroup(vendorId, vendor.getName(), lines, vendorTotal, note));
-                grandTotal = grandTotal.add(vendorTotal);
+                groups.add(new VendorGroup(vendorId, menu.name(), List.copyOf(lines), vendorTotal[0], note));
+                grandTotal = grandTotal.add(vendorTotal[0]);
+                totalQty += lines.stream().mapToInt(CartLine::qty).sum();
             }
         }
 
@@ -65,36 +111,22 @@ public class CartViewService {
             return CartSummary.empty();
         }
 
-        // Simple service fee: 5% (could be externalized to config later)
-    BigDecimal serviceFee = grandTotal.multiply(BigDecimal.valueOf(0.05)).setScale(2, java.math.RoundingMode.HALF_UP);
-        // Basic promo code handling (temporary):  if promo == SAVE10 -> 10% off; if FLAT5 -> 5 currency units off
-        BigDecimal discount = BigDecimal.ZERO;
-        String appliedPromo = null;
-        if (cartSession.getPromoCode() != null) {
-            String code = cartSession.getPromoCode().toUpperCase();
-            appliedPromo = code;
-            switch (code) {
-                case "SAVE10" -> discount = grandTotal.multiply(BigDecimal.valueOf(0.10));
-                case "FLAT5" -> discount = BigDecimal.valueOf(5);
-                default -> appliedPromo = null; // unrecognized; treat as not applied
-            }
-        }
-        if (discount.compareTo(grandTotal) > 0) {
-            discount = grandTotal; // cap
-        }
-        BigDecimal finalTotal = grandTotal.add(serviceFee).subtract(discount);
-        return new CartSummary(groups, grandTotal, serviceFee, discount, appliedPromo, finalTotal, totalQty);
+        PricingRuleService.PricingTable pricingTable = pricingRuleService.table(eventCode);
+        PricingRuleService.Pricing pricing = pricingTable.apply(grandTotal, cartSession.getPromoCode());
+        return new CartSummary(List.copyOf(groups), grandTotal, pricing.serviceFee(), pricingTable.serviceFeePercent(),
+                pricing.discount(), pricing.promoCode(), pricing.total(), totalQty);
     }
 
     public record CartSummary(List<VendorGroup> groups,
                               BigDecimal grandSubtotal,
                               BigDecimal serviceFee,
+                              BigDecimal serviceFeePercent,
                               BigDecimal discount,
                               String promoCode,
                               BigDecimal grandTotal,
                               int totalQty) {
         public static CartSummary empty() {
-            return new CartSummary(List.of(), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null, BigDecimal.ZERO, 0);
+            return new CartSummary(List.of(), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null, BigDecimal.ZERO, 0);
         }
 
         public boolean hasItems() {
@@ -15,9 +15,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CheckoutService {
@@ -40,19 +45,29 @@ public class CheckoutService {
     private final OrderRepo orderRepo;
     private final CartService cartService;
     private final OrderService orderService;
+    private final VendorOrderNumberAllocator orderNumberAllocator;
+    private final HotPathMetrics.Timer checkoutTimer;
+    private final HotPathMetrics.Counter vendorGroups;
 
     public CheckoutService(TicketService ticketService,
                            VendorRepo vendorRepo,
                            MenuItemRepo menuItemRepo,
                            OrderRepo orderRepo,
                            CartService cartService,
-                           OrderService orderService) {
+                           OrderService orderService,
+                           VendorOrderNumberAllocator orderNumberAllocator,
+                           HotPathMetrics metrics) {
         this.ticketService = ticketService;
         this.vendorRepo = vendorRepo;
         this.menuItemRepo = menuItemRepo;
         this.orderRepo = orderRepo;
         this.cartService = cartService;
         this.orderService = orderService;
+        this.orderNumberAllocator = orderNumberAllocator;
+        this.checkoutTimer = metrics.timer("gleo_checkout_seconds",
+                "Checkouts, up to but excluding the commit", "outcome");
+        this.vendorGroups = metrics.counter("gleo_checkout_vendor_groups_total",
+                "Cart vendor groups by checkout outcome and rejection reason", "outcome", "reason");
     }
 
     public List<Order> recentOrdersForDevice(String eventCode, String deviceHash) {
@@ -65,39 +80,83 @@ public class CheckoutService {
         return orderRepo.findByTicketOrderByCreatedAtDesc(ticket);
     }
 
+    /**
+     * Places one order per vendor group of the cart.
+     * <p>
+     * Runs as a fixed pipeline so the number of round trips does not grow with the cart:
+     * vendors, menu items, open-order flags and tier consumption are bulk-loaded up front,
+     * every group is validated in memory, and accepted orders are persisted in a single
+     * {@code saveAll} before being announced.
+     */
     @Transactional
     public CheckoutResult checkout(String eventCode, String qr, String deviceHash, Map<Long, List<CartLine>> groupedLines) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            CheckoutResult result = placeOrders(eventCode, qr, deviceHash, groupedLines);
+            outcome = result.orders.isEmpty() ? "nothing_placed" : "placed";
+            return result;
+        } finally {
+            checkoutTimer.record(started, outcome);
+        }
+    }
+
+    private CheckoutResult placeOrders(String eventCode, String qr, String deviceHash, Map<Long, List<CartLine>> groupedLines) {
         Ticket ticket = ticketService.resolveTicket(eventCode, qr, deviceHash);
         CheckoutResult result = new CheckoutResult();
         result.ticket = ticket;
+        if (groupedLines.isEmpty()) {
+            return result;
+        }
 
+        // 1) Bulk-load everything the cart references
+        Map<Long, Vendor> vendors = vendorRepo.findWithEventByIdIn(groupedLines.keySet()).stream()
+                .collect(Collectors.toMap(Vendor::getId, Function.identity()));
+        Set<Long> itemIds = new HashSet<>();
+        groupedLines.values().forEach(lines -> lines.forEach(line -> itemIds.add(line.itemId())));
+        Map<Long, MenuItem> menuItems = menuItemRepo.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        // 2) Validate in memory; policy checks are batched across all eligible vendor groups
+        Map<Long, Integer> qtyByVendor = new LinkedHashMap<>();
         for (var entry : groupedLines.entrySet()) {
             Long vendorId = entry.getKey();
-            Vendor vendor = vendorRepo.findById(vendorId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vendor not found"));
+            Vendor vendor = vendors.get(vendorId);
+            if (vendor == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Vendor not found");
+            }
             if (!vendor.getEvent().getCode().equals(eventCode)) {
-                result.rejectedByVendor.put(vendorId, "Vendor not in this event");
+                reject(result, vendorId, "wrong_event", "Vendor not in this event");
                 continue;
             }
+            qtyByVendor.put(vendorId, entry.getValue().stream().mapToInt(CartLine::qty).sum());
+        }
+        Map<Long, CartService.CheckResult> policyChecks = cartService.canCheckout(eventCode, ticket, qtyByVendor);
 
-            int qtySum = entry.getValue().stream().mapToInt(CartLine::qty).sum();
-            var policyCheck = cartService.canAddToCart(eventCode, ticket, vendor, qtySum);
+        List<Order> accepted = new ArrayList<>();
+        for (Long vendorId : qtyByVendor.keySet()) {
+            var policyCheck = policyChecks.get(vendorId);
             if (!policyCheck.allowed()) {
-                result.rejectedByVendor.put(vendorId, policyCheck.message());
+                reject(result, vendorId, policyCheck.reason(), policyCheck.message());
                 continue;
             }
 
             List<OrderItem> orderItems = new ArrayList<>();
             String rejection = null;
-            for (CartLine line : entry.getValue()) {
-                MenuItem menuItem = menuItemRepo.findById(line.itemId())
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Menu item not found"));
+            String reason = null;
+            for (CartLine line : groupedLines.get(vendorId)) {
+                MenuItem menuItem = menuItems.get(line.itemId());
+                if (menuItem == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Menu item not found");
+                }
                 if (!menuItem.getVendor().getId().equals(vendorId)) {
                     rejection = "Menu item does not belong to vendor";
+                    reason = "foreign_item";
                     break;
                 }
                 if (!menuItem.isAvailable()) {
                     rejection = menuItem.getName() + " is unavailable";
+                    reason = "unavailable";
                     break;
                 }
                 OrderItem orderItem = new OrderItem();
@@ -107,29 +166,40 @@ public class CheckoutService {
             }
 
             if (rejection != null) {
-                result.rejectedByVendor.put(vendorId, rejection);
+                reject(result, vendorId, reason, rejection);
                 continue;
             }
 
+            Vendor vendor = vendors.get(vendorId);
             Order order = new Order();
             order.setEvent(vendor.getEvent());
             order.setVendor(vendor);
             order.setTicket(ticket);
             order.setStatus(OrderStatus.NEW);
-            
-            // Calculate vendor-specific order number
-            Integer maxOrderNum = orderRepo.findMaxVendorOrderNumber(vendorId);
-            order.setVendorOrderNumber(maxOrderNum + 1);
-            
+
+            // Vendor-specific order number, served from the allocator's reserved block
+            order.setVendorOrderNumber(orderNumberAllocator.next(vendorId));
+
             orderItems.forEach(order::addItem);
+            accepted.add(order);
+        }
 
-            orderRepo.save(order);
-            result.orders.add(order);
-            
-            // Use OrderService to broadcast the new order
-            orderService.markStatus(order.getId(), OrderStatus.NEW);
+        // 3) Persist all accepted orders together, then announce them from memory
+        if (!accepted.isEmpty()) {
+            vendorGroups.add(accepted.size(), "accepted", "none");
+            orderRepo.saveAll(accepted);
+            result.orders.addAll(accepted);
+            // Vendor id order, so concurrent checkouts take the vendors' sales rollup rows in the same order
+            accepted.stream()
+                    .sorted(Comparator.comparing((Order order) -> order.getVendor().getId()))
+                    .forEach(orderService::announceNewOrder);
         }
 
         return result;
     }
+
+    private void reject(CheckoutResult result, Long vendorId, String reason, String message) {
+        result.rejectedByVendor.put(vendorId, message);
+        vendorGroups.increment("rejected", reason);
+    }
 }
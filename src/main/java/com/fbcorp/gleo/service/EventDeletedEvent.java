@@ -0,0 +1,13 @@
+package com.fbcorp.gleo.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link EventService} when an event and everything belonging to it is deleted.
+ * Caches keyed by the event or its vendors listen for it and drop their entries once the
+ * deletion commits.
+ *
+ * @param vendorIds the event's vendors, deleted along with it
+ */
+public record EventDeletedEvent(Long eventId, String eventCode, List<Long> vendorIds) {
+}
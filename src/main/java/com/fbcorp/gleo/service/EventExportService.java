@@ -0,0 +1,173 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.Vendor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Organizer exports, written row by row to the response as CSV or XLSX.
+ * <p>
+ * The order export reads a forward-only JDBC cursor ({@code gleo.export.fetch-size} rows per
+ * round trip) inside a read-only transaction, which Postgres needs to stream instead of
+ * buffering the whole result. Only the order being written is held in memory, and XLSX rows are
+ * spilled to a temp file by POI's streaming workbook, so memory stays flat however large the event.
+ */
+@Service
+public class EventExportService {
+
+    static final List<String> VENDOR_COLUMNS = List.of(
+            "Vendor", "Status", "Pickup PIN", "Total orders", "Completed orders", "Items served", "Revenue (EGP)");
+
+    static final List<String> ORDER_COLUMNS = List.of(
+            "Order ID", "Vendor", "Vendor order #", "Status", "Ticket serial", "Tier", "Guest",
+            "Items", "Item count", "Total (EGP)", "Placed at", "Preparing at", "Ready at", "Completed at",
+            "Cancelled at", "Confirmed by guest");
+
+    // One row per order item, ordered so that an order's items are adjacent
+    private static final String ORDER_ROWS_SQL =
+            "SELECT o.id, v.name AS vendor_name, o.vendor_order_number, o.status, t.serial, t.tier_code, t.holder_name, " +
+            "       o.created_at, o.preparing_at, o.ready_at, o.completed_at, o.cancelled_at, o.confirmed_by_guest, " +
+            "       mi.name AS item_name, oi.qty, mi.price " +
+            "FROM orders o " +
+            "JOIN vendors v ON v.id = o.vendor_id " +
+            "JOIN tickets t ON t.id = o.ticket_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN menu_items mi ON mi.id = oi.menu_item_id " +
+            "WHERE o.event_id = ? " +
+            "ORDER BY o.id, oi.id";
+
+    private final JdbcTemplate cursor;
+    private final TransactionTemplate readTx;
+
+    public EventExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${gleo.export.fetch-size:500}") int fetchSize) {
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(Math.max(1, fetchSize));
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    public void writeVendorRoster(List<Vendor> vendors,
+                                  Map<Long, OrganizerAnalyticsService.VendorStats> stats,
+                                  ExportFormat format,
+                                  OutputStream out) throws IOException {
+        try (TabularWriter writer = TabularWriter.open(format, out, "Vendors")) {
+            writer.row(VENDOR_COLUMNS);
+            for (Vendor vendor : vendors) {
+                OrganizerAnalyticsService.VendorStats vendorStats = stats.getOrDefault(
+                        vendor.getId(),
+                        new OrganizerAnalyticsService.VendorStats(vendor, 0, 0, 0, BigDecimal.ZERO));
+                writer.row(Arrays.asList(
+                        vendor.getName(),
+                        vendor.isActive() ? "Active" : "Archived",
+                        vendor.getPinPlain() != null ? vendor.getPinPlain() : "",
+                        vendorStats.totalOrders(),
+                        vendorStats.completedOrders(),
+                        vendorStats.itemsServed(),
+                        vendorStats.revenue().setScale(2, RoundingMode.HALF_UP)));
+            }
+        }
+    }
+
+    /** Writes every order of the event, one row per order with its items joined into one cell. */
+    public void writeOrders(Event event, ExportFormat format, OutputStream out) throws IOException {
+        try (TabularWriter writer = TabularWriter.open(format, out, "Orders")) {
+            writer.row(ORDER_COLUMNS);
+            OrderRowAssembler assembler = new OrderRowAssembler(writer);
+            try {
+                readTx.executeWithoutResult(status -> cursor.query(ORDER_ROWS_SQL, assembler, event.getId()));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            assembler.finish();
+        }
+    }
+
+    /** Folds consecutive item rows of the same order into a single output row. */
+    private static final class OrderRowAssembler implements RowCallbackHandler {
+        private final TabularWriter writer;
+        private Long orderId;
+        private List<Object> order;
+        private List<Object> timeline;
+        private final StringBuilder items = new StringBuilder();
+        private long itemCount;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        OrderRowAssembler(TabularWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (orderId == null || orderId != id) {
+                finish();
+                orderId = id;
+                order = Arrays.asList(id, rs.getString("vendor_name"), rs.getObject("vendor_order_number"),
+                        rs.getString("status"), rs.getString("serial"), rs.getString("tier_code"), rs.getString("holder_name"));
+                timeline = Arrays.asList(time(rs, "created_at"), time(rs, "preparing_at"), time(rs, "ready_at"),
+                        time(rs, "completed_at"), time(rs, "cancelled_at"), rs.getBoolean("confirmed_by_guest"));
+            }
+            String itemName = rs.getString("item_name");
+            if (itemName != null) {
+                int qty = rs.getInt("qty");
+                BigDecimal price = rs.getBigDecimal("price");
+                if (!items.isEmpty()) {
+                    items.append("; ");
+                }
+                items.append(qty).append("x ").append(itemName);
+                itemCount += qty;
+                if (price != null) {
+                    total = total.add(price.multiply(BigDecimal.valueOf(qty)));
+                }
+            }
+        }
+
+        void finish() {
+            if (order == null) {
+                return;
+            }
+            List<Object> row = new ArrayList<>(ORDER_COLUMNS.size());
+            row.addAll(order);
+            row.add(items.toString());
+            row.add(itemCount);
+            row.add(total.setScale(2, RoundingMode.HALF_UP));
+            row.addAll(timeline);
+            try {
+                writer.row(row);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            order = null;
+            items.setLength(0);
+            itemCount = 0;
+            total = BigDecimal.ZERO;
+        }
+
+        private static LocalDateTime time(ResultSet rs, String column) throws SQLException {
+            Timestamp timestamp = rs.getTimestamp(column);
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        }
+    }
+}
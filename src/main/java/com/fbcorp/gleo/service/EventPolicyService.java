@@ -5,30 +5,154 @@ import com.fbcorp.gleo.domain.TierCode;
 import com.fbcorp.gleo.domain.TierPolicy;
 import com.fbcorp.gleo.repo.EventRepo;
 import com.fbcorp.gleo.repo.TierPolicyRepo;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
 public class EventPolicyService {
     private final EventRepo eventRepo;
     private final TierPolicyRepo tierPolicyRepo;
 
-    public EventPolicyService(EventRepo eventRepo, TierPolicyRepo tierPolicyRepo){
+    // Read-through cache of immutable policy snapshots, keyed by event code (LRU, bounded)
+    private final Map<String, CachedSnapshot> snapshots;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EventPolicyService(EventRepo eventRepo,
+                              TierPolicyRepo tierPolicyRepo,
+                              @Value("${gleo.policy-cache.max-events:256}") int maxEntries,
+                              @Value("${gleo.policy-cache.ttl:30s}") Duration ttl){
         this.eventRepo = eventRepo;
         this.tierPolicyRepo = tierPolicyRepo;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttl.toNanos();
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSnapshot> eldest) {
+                if (size() > EventPolicyService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Tier limit as seen by cart/checkout checks; events without a stored policy are unlimited. */
+    public record TierLimit(boolean unlimited, Integer maxItemsPerVendor) {
+        public static final TierLimit UNLIMITED = new TierLimit(true, null);
+
+        public boolean hasLimit() {
+            return !unlimited && maxItemsPerVendor != null;
+        }
+    }
+
+    /** Immutable copy of an event's feature flags and tier limits. */
+    public record PolicySnapshot(Long eventId,
+                                 String code,
+                                 boolean guestPickupEnabled,
+                                 boolean requirePin,
+                                 boolean multiVendorCart,
+                                 boolean blockAddWhenOpenOrder,
+                                 boolean regularOneItemPerVendor,
+                                 Map<TierCode, TierLimit> tierLimits) {
+        public TierLimit tierLimit(TierCode tierCode) {
+            return tierLimits.getOrDefault(tierCode, TierLimit.UNLIMITED);
+        }
     }
 
+    public record CacheStats(long hits, long misses, long evictions, int size) { }
+
+    private record CachedSnapshot(PolicySnapshot snapshot, long loadedAt) { }
+
+    /**
+     * Loads the managed event entity. Use this when the event is mutated, attached to other
+     * entities or rendered; flag and tier checks should go through {@link #snapshot} instead.
+     */
     public Event get(String eventCode){
         return eventRepo.findByCode(eventCode)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
     }
 
-    public boolean guestPickupEnabled(String eventCode){ return get(eventCode).isEnableGuestPickupConfirm(); }
-    public boolean requirePin(String eventCode){ return get(eventCode).isRequireVendorPinForPickup(); }
-    public boolean multiVendorCart(String eventCode){ return get(eventCode).isEnableMultiVendorCart(); }
-    public boolean blockAddWhenOpenOrder(String eventCode){ return get(eventCode).isBlockAddWhenOpenOrder(); }
-    public boolean regularOneItemPerVendor(String eventCode){ return get(eventCode).isRegularOneItemPerVendor(); }
+    public PolicySnapshot snapshot(String eventCode){
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (snapshots) {
+            CachedSnapshot cached = snapshots.get(eventCode);
+            if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                hits.incrementAndGet();
+                return cached.snapshot();
+            }
+            loadGeneration = generation.get();
+        }
+        misses.incrementAndGet();
+        PolicySnapshot loaded = load(eventCode);
+        synchronized (snapshots) {
+            // Skip the put if an admin write invalidated the cache while we were loading
+            if (generation.get() == loadGeneration) {
+                snapshots.put(eventCode, new CachedSnapshot(loaded, now));
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(String eventCode){
+        synchronized (snapshots) {
+            generation.incrementAndGet();
+            snapshots.remove(eventCode);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event){
+        invalidate(event.eventCode());
+    }
+
+    public CacheStats cacheStats(){
+        synchronized (snapshots) {
+            return new CacheStats(hits.get(), misses.get(), evictions.get(), snapshots.size());
+        }
+    }
+
+    private PolicySnapshot load(String eventCode){
+        Event event = get(eventCode);
+        Map<TierCode, TierLimit> limits = new EnumMap<>(TierCode.class);
+        for (TierPolicy policy : tierPolicyRepo.findByEvent(event)) {
+            limits.put(policy.getTierCode(), new TierLimit(policy.isUnlimited(), policy.getMaxItemsPerVendor()));
+        }
+        return new PolicySnapshot(
+                event.getId(),
+                event.getCode(),
+                event.isEnableGuestPickupConfirm(),
+                event.isRequireVendorPinForPickup(),
+                event.isEnableMultiVendorCart(),
+                event.isBlockAddWhenOpenOrder(),
+                event.isRegularOneItemPerVendor(),
+                Map.copyOf(limits));
+    }
+
+    public boolean guestPickupEnabled(String eventCode){ return snapshot(eventCode).guestPickupEnabled(); }
+    public boolean requirePin(String eventCode){ return snapshot(eventCode).requirePin(); }
+    public boolean multiVendorCart(String eventCode){ return snapshot(eventCode).multiVendorCart(); }
+    public boolean blockAddWhenOpenOrder(String eventCode){ return snapshot(eventCode).blockAddWhenOpenOrder(); }
+    public boolean regularOneItemPerVendor(String eventCode){ return snapshot(eventCode).regularOneItemPerVendor(); }
+
+    public TierLimit tierLimit(String eventCode, TierCode tierCode){
+        return snapshot(eventCode).tierLimit(tierCode);
+    }
 
     public TierPolicy tierPolicy(String eventCode, TierCode tierCode){
         Event event = get(eventCode);
@@ -51,7 +175,9 @@ public class EventPolicyService {
         TierPolicy policy = tierPolicy(eventCode, tierCode);
         policy.setUnlimited(unlimited);
         policy.setMaxItemsPerVendor(unlimited ? null : maxPerVendor);
-        return tierPolicyRepo.save(policy);
+        TierPolicy saved = tierPolicyRepo.save(policy);
+        invalidate(eventCode);
+        return saved;
     }
 
     /**
@@ -64,5 +190,6 @@ public class EventPolicyService {
         if (policies != null && !policies.isEmpty()) {
             tierPolicyRepo.deleteAll(policies);
         }
+        invalidate(eventCode);
     }
 }
@@ -2,6 +2,7 @@ package com.fbcorp.gleo.service;
 
 import com.fbcorp.gleo.domain.*;
 import com.fbcorp.gleo.repo.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -18,6 +19,8 @@ public class EventService {
     private final TierConsumptionRepo tierConsumptionRepo;
     private final UserAccountRepo userAccountRepo;
     private final TicketImportLogRepo ticketImportLogRepo;
+    private final VendorSalesRollupRepo salesRollupRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EventService(EventRepo eventRepo, 
                        VendorRepo vendorRepo,
@@ -27,7 +30,9 @@ public class EventService {
                        TierPolicyRepo tierPolicyRepo,
                        TierConsumptionRepo tierConsumptionRepo,
                        UserAccountRepo userAccountRepo,
-                       TicketImportLogRepo ticketImportLogRepo) {
+                       TicketImportLogRepo ticketImportLogRepo,
+                       VendorSalesRollupRepo salesRollupRepo,
+                       ApplicationEventPublisher eventPublisher) {
         this.eventRepo = eventRepo;
         this.vendorRepo = vendorRepo;
         this.menuItemRepo = menuItemRepo;
@@ -37,6 +42,8 @@ public class EventService {
         this.tierConsumptionRepo = tierConsumptionRepo;
         this.userAccountRepo = userAccountRepo;
         this.ticketImportLogRepo = ticketImportLogRepo;
+        this.salesRollupRepo = salesRollupRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     public Event getByCode(String code) {
@@ -51,13 +58,14 @@ public class EventService {
          * Deletion order matters because menu_items has a FK to vendors and vendors has a FK to events.
          * Steps:
          * 1. Tier consumption rows
-         * 2. Orders (cascades order items)
+         * 2. Orders (cascades order items) and their sales rollups
          * 3. Menu items per vendor then vendors (avoids FK violation menu_items.vendor_id)
          * 4. Tickets
          * 5. Ticket import logs
          * 6. Tier policies
          * 7. Null out user account links (vendor + event)
          * 8. Delete the event itself
+         * Caches holding the event's data drop it on the EventDeletedEvent published afterwards.
          */
         try {
             Event event = getByCode(eventCode);
@@ -68,9 +76,11 @@ public class EventService {
 
             // 2. Delete all orders for this event (will cascade delete order items)
             orderRepo.deleteAll(orderRepo.findByEvent(event));
+            salesRollupRepo.deleteByEventId(event.getId());
 
             // 3. Delete all menu items per vendor then delete vendors (explicit to avoid FK violation)
             var vendorsForEvent = vendorRepo.findByEvent(event);
+            var vendorIds = vendorsForEvent.stream().map(Vendor::getId).toList();
             vendorsForEvent.forEach(vendor -> {
                 // Remove menu items first to satisfy FK constraint menu_items.vendor_id -> vendors.id
                 menuItemRepo.deleteByVendor(vendor);
@@ -97,6 +107,7 @@ public class EventService {
 
             // 8. Finally delete the event
             eventRepo.delete(event);
+            eventPublisher.publishEvent(new EventDeletedEvent(event.getId(), eventCode, vendorIds));
             
             return eventName; // Return the name for display
         } catch (Exception e) {
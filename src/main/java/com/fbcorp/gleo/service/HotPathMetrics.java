@@ -0,0 +1,250 @@
+package com.fbcorp.gleo.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Timers, counters and gauges for the request hot paths, rendered in the Prometheus text format
+ * by {@link #scrape()}.
+ * <p>
+ * Timers are histograms over fixed second buckets, so latency quantiles can be aggregated across
+ * nodes with {@code histogram_quantile}. Recording only touches striped adders. Each metric keeps
+ * at most {@value #MAX_SERIES} label combinations; later ones are counted under {@code "other"}.
+ */
+@Service
+public class HotPathMetrics {
+
+    static final int MAX_SERIES = 500;
+    static final double[] SECONDS_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final ConcurrentMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /** Registers (or returns the existing) timer, a histogram of durations in seconds. */
+    public Timer timer(String name, String help, String... labelNames) {
+        return (Timer) metrics.computeIfAbsent(name, key -> new Timer(key, help, SECONDS_BUCKETS, labelNames));
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labelNames) {
+        return (Histogram) metrics.computeIfAbsent(name, key -> new Histogram(key, help, buckets.clone(), labelNames));
+    }
+
+    public Counter counter(String name, String help, String... labelNames) {
+        return (Counter) metrics.computeIfAbsent(name, key -> new Counter(key, help, labelNames));
+    }
+
+    /** Registers a gauge read at scrape time, e.g. a queue depth. */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        metrics.putIfAbsent(name, new Gauge(name, help, value));
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        metrics.values().forEach(metric -> {
+            out.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+            out.append("# TYPE ").append(metric.name).append(' ').append(metric.type()).append('\n');
+            metric.write(out);
+        });
+        return out.toString();
+    }
+
+    public abstract static class Metric {
+        final String name;
+        final String help;
+        final String[] labelNames;
+
+        Metric(String name, String help, String[] labelNames) {
+            this.name = name;
+            this.help = help;
+            this.labelNames = labelNames;
+        }
+
+        abstract String type();
+
+        abstract void write(StringBuilder out);
+
+        /** The series key for the label values, folding new combinations into "other" once the metric is full. */
+        <S> List<String> key(Map<List<String>, S> series, String[] labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " takes labels " + Arrays.toString(labelNames));
+            }
+            List<String> key = Arrays.asList(labelValues.clone());
+            if (series.size() >= MAX_SERIES && !series.containsKey(key)) {
+                String[] other = new String[labelValues.length];
+                Arrays.fill(other, "other");
+                return Arrays.asList(other);
+            }
+            return key;
+        }
+
+        void labels(StringBuilder out, List<String> values, String extraName, String extraValue) {
+            if (values.isEmpty() && extraName == null) {
+                return;
+            }
+            out.append('{');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labelNames[i]).append("=\"");
+                escape(out, values.get(i));
+                out.append('"');
+            }
+            if (extraName != null) {
+                if (!values.isEmpty()) {
+                    out.append(',');
+                }
+                out.append(extraName).append("=\"").append(extraValue).append('"');
+            }
+            out.append('}');
+        }
+    }
+
+    public static class Histogram extends Metric {
+        private final double[] buckets;
+        private final ConcurrentMap<List<String>, HistogramSeries> series = new ConcurrentHashMap<>();
+
+        Histogram(String name, String help, double[] buckets, String[] labelNames) {
+            super(name, help, labelNames);
+            this.buckets = buckets;
+        }
+
+        public void observe(double value, String... labelValues) {
+            series.computeIfAbsent(key(series, labelValues), k -> new HistogramSeries(buckets.length))
+                    .observe(buckets, value);
+        }
+
+        @Override
+        String type() {
+            return "histogram";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            series.forEach((values, data) -> {
+                long cumulative = 0;
+                for (int i = 0; i <= buckets.length; i++) {
+                    cumulative += data.buckets[i].sum();
+                    out.append(name).append("_bucket");
+                    labels(out, values, "le", i < buckets.length ? format(buckets[i]) : "+Inf");
+                    out.append(' ').append(cumulative).append('\n');
+                }
+                out.append(name).append("_sum");
+                labels(out, values, null, null);
+                out.append(' ').append(format(data.sum.sum())).append('\n');
+                out.append(name).append("_count");
+                labels(out, values, null, null);
+                out.append(' ').append(data.count.sum()).append('\n');
+            });
+        }
+    }
+
+    public static final class Timer extends Histogram {
+        Timer(String name, String help, double[] buckets, String[] labelNames) {
+            super(name, help, buckets, labelNames);
+        }
+
+        /** Records the time since {@code startNanos}, a {@link System#nanoTime()} reading. */
+        public void record(long startNanos, String... labelValues) {
+            observe((System.nanoTime() - startNanos) / 1e9, labelValues);
+        }
+    }
+
+    public static final class Counter extends Metric {
+        private final ConcurrentMap<List<String>, LongAdder> series = new ConcurrentHashMap<>();
+
+        Counter(String name, String help, String[] labelNames) {
+            super(name, help, labelNames);
+        }
+
+        public void increment(String... labelValues) {
+            add(1, labelValues);
+        }
+
+        public void add(long amount, String... labelValues) {
+            series.computeIfAbsent(key(series, labelValues), k -> new LongAdder()).add(amount);
+        }
+
+        @Override
+        String type() {
+            return "counter";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            series.forEach((values, count) -> {
+                out.append(name);
+                labels(out, values, null, null);
+                out.append(' ').append(count.sum()).append('\n');
+            });
+        }
+    }
+
+    private static final class Gauge extends Metric {
+        private final DoubleSupplier value;
+
+        Gauge(String name, String help, DoubleSupplier value) {
+            super(name, help, new String[0]);
+            this.value = value;
+        }
+
+        @Override
+        String type() {
+            return "gauge";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            out.append(name).append(' ').append(format(value.getAsDouble())).append('\n');
+        }
+    }
+
+    private static final class HistogramSeries {
+        // One slot per bucket plus the +Inf overflow; made cumulative when scraped
+        final LongAdder[] buckets;
+        final DoubleAdder sum = new DoubleAdder();
+        final LongAdder count = new LongAdder();
+
+        HistogramSeries(int bucketCount) {
+            buckets = new LongAdder[bucketCount + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void observe(double[] bounds, double value) {
+            int slot = Arrays.binarySearch(bounds, value);
+            buckets[slot >= 0 ? slot : -slot - 1].increment();
+            sum.add(value);
+            count.increment();
+        }
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        String text = value != null ? value : "";
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.fbcorp.gleo.service;
+
+/**
+ * Fixed-size histogram of durations in whole seconds, in the spirit of HdrHistogram: exact
+ * below 16s, then 8 linear sub-buckets per power of two (about 12% resolution) up to 2^18s, about
+ * 72 hours; longer values land in the last bucket.
+ * Recording is O(1) and the bucket array is only allocated on the first value, so the many
+ * empty per-minute histograms cost almost nothing.
+ * Not thread-safe; callers synchronize.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = 3;
+    private static final int MAX_MAGNITUDE = 17;
+    private static final int BUCKETS = EXACT + (MAX_MAGNITUDE - 3) * SUB_BUCKETS;
+
+    private int[] counts;
+    private long count;
+    private long max;
+
+    void record(long seconds) {
+        long value = Math.max(0, seconds);
+        if (counts == null) {
+            counts = new int[BUCKETS];
+        }
+        counts[index(value)]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    void add(LatencyHistogram other) {
+        if (other.counts == null) {
+            return;
+        }
+        if (counts == null) {
+            counts = new int[BUCKETS];
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Upper bound of the first bucket that covers {@code percentile} (0-100) of the values, capped at the max. */
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    static int index(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT + (magnitude - 4) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        int magnitude = (index - EXACT) / SUB_BUCKETS + 4;
+        int sub = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = magnitude - SUB_BITS;
+        return ((long) (sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,260 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.model.VendorStatus;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable per-vendor copies of vendor and menu data for guest-facing reads.
+ * <p>
+ * Snapshots are built on first use, in bulk for all missing vendors. Write paths on this node call
+ * {@link #evict}; writes on other nodes are picked up by reloading snapshots older than
+ * {@code gleo.menu-cache.ttl}. Every eviction, and every reload that finds the menu changed,
+ * bumps {@link #generation()}, which lets callers that derive data from snapshots (cart
+ * summaries) tell whether their copy is still current.
+ * <p>
+ * Each snapshot also carries the public menu already grouped into categories and sorted, plus a
+ * content {@link VendorMenu#version() version} and build time for HTTP validators.
+ */
+@Service
+public class MenuSnapshotService {
+
+    public record MenuEntry(Long id,
+                            String name,
+                            BigDecimal price,
+                            boolean available,
+                            Integer maxPerOrder,
+                            String imagePath,
+                            String category,
+                            Integer categoryOrder) {
+        static MenuEntry of(MenuItem item) {
+            return new MenuEntry(item.getId(), item.getName(),
+                    item.getPrice() != null ? item.getPrice() : BigDecimal.ZERO,
+                    item.isAvailable(), item.getMaxPerOrder(), item.getImagePath(),
+                    item.getCategory(), item.getCategoryOrder());
+        }
+    }
+
+    public record MenuCategory(String name, List<MenuEntry> items) { }
+
+    /**
+     * @param items      every menu item, available or not, by id
+     * @param categories available items only, in display order
+     * @param version    hash of the snapshot's content; equal across nodes and restarts for the same menu
+     */
+    public record VendorMenu(Long id,
+                             String name,
+                             String eventCode,
+                             boolean active,
+                             String imagePath,
+                             VendorStatus status,
+                             Map<Long, MenuEntry> items,
+                             List<MenuCategory> categories,
+                             String version,
+                             Instant builtAt) {
+        public MenuEntry item(long itemId) {
+            return items.get(itemId);
+        }
+    }
+
+    static final String UNCATEGORIZED = "Uncategorized";
+
+    private final VendorRepo vendorRepo;
+    private final MenuItemRepo menuItemRepo;
+    private final ConcurrentMap<Long, CachedMenu> menus = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+
+    private record CachedMenu(VendorMenu menu, long loadedAt) { }
+
+    public MenuSnapshotService(VendorRepo vendorRepo,
+                               MenuItemRepo menuItemRepo,
+                               @Value("${gleo.menu-cache.ttl:30s}") Duration ttl) {
+        this.vendorRepo = vendorRepo;
+        this.menuItemRepo = menuItemRepo;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Snapshots for the given vendors, skipping vendors that do not exist. Missing and expired
+     * snapshots are loaded with one vendor query and one menu item query in total.
+     */
+    public Map<Long, VendorMenu> menus(Collection<Long> vendorIds) {
+        long now = System.nanoTime();
+        Map<Long, VendorMenu> result = new LinkedHashMap<>();
+        List<Long> stale = new ArrayList<>();
+        for (Long vendorId : vendorIds) {
+            CachedMenu cached = menus.get(vendorId);
+            if (cached != null && now - cached.loadedAt() < ttlNanos) {
+                result.put(vendorId, cached.menu());
+            } else {
+                stale.add(vendorId);
+            }
+        }
+        if (!stale.isEmpty()) {
+            long loadGeneration = generation.get();
+            Map<Long, VendorMenu> loaded = load(stale);
+            // Don't cache a read that raced with an eviction; the next caller reloads it
+            synchronized (this) {
+                if (generation.get() == loadGeneration) {
+                    refresh(stale, loaded, now);
+                }
+            }
+            result.putAll(loaded);
+        }
+        // Back in the caller's order
+        Map<Long, VendorMenu> ordered = new LinkedHashMap<>();
+        for (Long vendorId : vendorIds) {
+            VendorMenu menu = result.get(vendorId);
+            if (menu != null) {
+                ordered.put(vendorId, menu);
+            }
+        }
+        return ordered;
+    }
+
+    public Optional<VendorMenu> menu(Long vendorId) {
+        return Optional.ofNullable(menus(List.of(vendorId)).get(vendorId));
+    }
+
+    /** Call after any change to a vendor or its menu items. */
+    public synchronized void evict(Long vendorId) {
+        generation.incrementAndGet();
+        menus.remove(vendorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventDeleted(EventDeletedEvent event) {
+        generation.incrementAndGet();
+        menus.values().removeIf(cached -> event.eventCode().equals(cached.menu().eventCode()));
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches freshly loaded snapshots. A reload that finds the menu unchanged keeps the old
+     * snapshot and its build time, so HTTP validators stay stable; one that finds it changed, or
+     * the vendor gone, bumps the generation.
+     */
+    private void refresh(List<Long> vendorIds, Map<Long, VendorMenu> loaded, long now) {
+        boolean changed = false;
+        for (Long vendorId : vendorIds) {
+            CachedMenu previous = menus.get(vendorId);
+            VendorMenu menu = loaded.get(vendorId);
+            if (menu == null) {
+                changed |= menus.remove(vendorId) != null;
+            } else if (previous != null && sameContent(previous.menu(), menu)) {
+                menus.put(vendorId, new CachedMenu(previous.menu(), now));
+                loaded.put(vendorId, previous.menu());
+            } else {
+                changed |= previous != null;
+                menus.put(vendorId, new CachedMenu(menu, now));
+            }
+        }
+        if (changed) {
+            generation.incrementAndGet();
+        }
+    }
+
+    private static boolean sameContent(VendorMenu a, VendorMenu b) {
+        // The version covers what guests see; items and the active flag cover what carts and checkout use
+        return a.version().equals(b.version()) && a.active() == b.active() && a.items().equals(b.items());
+    }
+
+    private Map<Long, VendorMenu> load(List<Long> vendorIds) {
+        List<Vendor> vendors = vendorRepo.findWithEventByIdIn(vendorIds);
+        if (vendors.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<MenuItem>> itemsByVendor = menuItemRepo.findByVendorIn(vendors).stream()
+                .collect(Collectors.groupingBy(item -> item.getVendor().getId()));
+        Instant builtAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<Long, VendorMenu> loaded = new HashMap<>();
+        for (Vendor vendor : vendors) {
+            List<MenuEntry> entries = itemsByVendor.getOrDefault(vendor.getId(), List.of()).stream()
+                    .map(MenuEntry::of)
+                    .toList();
+            Map<Long, MenuEntry> items = entries.stream()
+                    .collect(Collectors.toUnmodifiableMap(MenuEntry::id, Function.identity()));
+            List<MenuCategory> categories = categorize(entries);
+            VendorStatus status = vendor.getStatus() != null ? vendor.getStatus() : VendorStatus.AVAILABLE;
+            loaded.put(vendor.getId(), new VendorMenu(vendor.getId(), vendor.getName(),
+                    vendor.getEvent().getCode(), vendor.isActive(), vendor.getImagePath(), status,
+                    items, categories, version(vendor, status, categories), builtAt));
+        }
+        return loaded;
+    }
+
+    /**
+     * Available items grouped by category ("Uncategorized" for blanks). Categories are ordered by
+     * the lowest categoryOrder among their items, then by name; items inside a category by name.
+     */
+    static List<MenuCategory> categorize(List<MenuEntry> entries) {
+        Map<String, List<MenuEntry>> grouped = new HashMap<>();
+        Map<String, Integer> order = new HashMap<>();
+        for (MenuEntry entry : entries) {
+            if (!entry.available()) {
+                continue;
+            }
+            String key = entry.category() == null || entry.category().isBlank() ? UNCATEGORIZED : entry.category();
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            if (entry.categoryOrder() != null) {
+                order.merge(key, entry.categoryOrder(), Math::min);
+            }
+        }
+        Comparator<MenuEntry> byName = Comparator.comparing(entry -> entry.name() == null ? "" : entry.name());
+        return grouped.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, List<MenuEntry>>>comparingInt(e -> order.getOrDefault(e.getKey(), 0))
+                        .thenComparing(Map.Entry::getKey, String.CASE_INSENSITIVE_ORDER))
+                .map(e -> new MenuCategory(e.getKey(), e.getValue().stream().sorted(byName).toList()))
+                .toList();
+    }
+
+    private static String version(Vendor vendor, VendorStatus status, List<MenuCategory> categories) {
+        StringBuilder content = new StringBuilder()
+                .append(vendor.getId()).append('|').append(vendor.getName()).append('|')
+                .append(vendor.getImagePath()).append('|').append(status.name());
+        for (MenuCategory category : categories) {
+            content.append("|c:").append(category.name());
+            for (MenuEntry entry : category.items()) {
+                content.append("|i:").append(entry.id()).append(',').append(entry.name())
+                        .append(',').append(entry.price().toPlainString()).append(',').append(entry.imagePath());
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.websocket.OrderUpdateMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sends websocket messages for order changes off the request thread.
+ * <p>
+ * Messages are queued only after the order transaction commits, so a rollback never reaches
+ * the broker and a slow fan-out never holds a database connection. Updates to the same order
+ * that arrive within one flush window replace each other, so only the latest status is sent.
+ * The queue is bounded; when it is full new messages are dropped and counted. Deliveries, discards
+ * and the queue depth are published through {@link HotPathMetrics}.
+ */
+@Service
+public class OrderBroadcastDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(OrderBroadcastDispatcher.class);
+
+    private record Pending(String destination, Object payload, long enqueuedAtNanos) { }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int capacity;
+    private final ScheduledExecutorService flusher;
+
+    // Keys are order ids for coalescing messages and unique tokens otherwise; insertion order is send order.
+    private final Map<Object, Pending> pending = new LinkedHashMap<>();
+
+    private final HotPathMetrics.Timer deliveries;
+    private final HotPathMetrics.Counter discarded;
+
+    public OrderBroadcastDispatcher(SimpMessagingTemplate messagingTemplate,
+                                    HotPathMetrics metrics,
+                                    @Value("${gleo.broadcast.queue-capacity:10000}") int capacity,
+                                    @Value("${gleo.broadcast.coalesce-window:100ms}") Duration coalesceWindow) {
+        this.messagingTemplate = messagingTemplate;
+        this.capacity = Math.max(1, capacity);
+        long windowMillis = Math.max(1, coalesceWindow.toMillis());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gleo-order-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        this.deliveries = metrics.timer("gleo_broadcast_delivery_seconds",
+                "Order broadcasts from enqueue to hand-off to the broker", "outcome");
+        this.discarded = metrics.counter("gleo_broadcast_discarded_total",
+                "Order broadcasts never sent, replaced by a newer one or dropped on a full queue", "reason");
+        metrics.gauge("gleo_broadcast_queue_depth", "Order broadcasts waiting for the next flush", () -> {
+            synchronized (pending) {
+                return pending.size();
+            }
+        });
+        metrics.gauge("gleo_broadcast_queue_capacity", "Order broadcasts the queue holds before dropping new ones",
+                () -> this.capacity);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        var card = event.card();
+        String items = card.items().stream()
+                .map(item -> item.qty() + "x " + item.name())
+                .collect(Collectors.joining(", "));
+        OrderUpdateMessage message = new OrderUpdateMessage(
+                card.orderId(),
+                card.eventCode(),
+                card.status().toString(),
+                card.guestName(),
+                card.vendorName(),
+                items);
+        // Only the guest tracking the order reads the summary; the usher board works from deltas
+        if (card.ticketId() != null) {
+            enqueueLatest(card.orderId(), ticketTopic(card.eventCode(), card.ticketId()), message);
+        }
+    }
+
+    /** Every change at the event; subscribed to by admin and organizer boards. */
+    public static String eventTopic(String eventCode) {
+        return "/topic/orders/" + eventCode;
+    }
+
+    /** Changes for one vendor's orders; subscribed to by that vendor's ushers. */
+    public static String vendorTopic(String eventCode, Long vendorId) {
+        return eventTopic(eventCode) + "/vendor/" + vendorId;
+    }
+
+    /** Status updates for a guest's orders. */
+    public static String ticketTopic(String eventCode, Long ticketId) {
+        return eventTopic(eventCode) + "/ticket/" + ticketId;
+    }
+
+    /** Queues a message that replaces any unsent message with the same key. */
+    public void enqueueLatest(Object key, String destination, Object payload) {
+        offer(key, destination, payload);
+    }
+
+    /** Queues a message that must be delivered as-is, in order with the others. */
+    public void enqueue(String destination, Object payload) {
+        offer(new Object(), destination, payload);
+    }
+
+    /** Sends everything queued so far. Runs on the flusher thread; exposed for tests and shutdown. */
+    void flush() {
+        List<Pending> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Pending message : batch) {
+            try {
+                messagingTemplate.convertAndSend(message.destination(), message.payload());
+                deliveries.record(message.enqueuedAtNanos(), "sent");
+            } catch (RuntimeException ex) {
+                deliveries.record(message.enqueuedAtNanos(), "failed");
+                log.warn("Failed to broadcast to {}", message.destination(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushQuietly();
+    }
+
+    private void offer(Object key, String destination, Object payload) {
+        synchronized (pending) {
+            Pending previous = pending.get(key);
+            if (previous != null) {
+                // Keep the original position and enqueue time so latency reflects the oldest change
+                pending.put(key, new Pending(destination, payload, previous.enqueuedAtNanos()));
+                discarded.increment("coalesced");
+                return;
+            }
+            if (pending.size() >= capacity) {
+                discarded.increment("queue_full");
+                return;
+            }
+            pending.put(key, new Pending(destination, payload, System.nanoTime()));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Order broadcast flush failed", ex);
+        }
+    }
+}
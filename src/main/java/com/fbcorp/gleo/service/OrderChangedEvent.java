@@ -0,0 +1,25 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Order;
+import com.fbcorp.gleo.domain.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link OrderService} whenever an order is placed or changes status.
+ * The card is captured inside the transaction, so listeners never touch lazy associations.
+ *
+ * @param previousStatus status before the change, or {@code null} for a newly placed order
+ * @param timeline       when the order entered each status so far
+ */
+public record OrderChangedEvent(UsherBoardService.BoardCard card, OrderStatus previousStatus, Timeline timeline) {
+
+    public record Timeline(LocalDateTime createdAt,
+                           LocalDateTime preparingAt,
+                           LocalDateTime readyAt,
+                           LocalDateTime completedAt) {
+        static Timeline of(Order order) {
+            return new Timeline(order.getCreatedAt(), order.getPreparingAt(), order.getReadyAt(), order.getCompletedAt());
+        }
+    }
+}
@@ -3,62 +3,72 @@ package com.fbcorp.gleo.service;
 import com.fbcorp.gleo.domain.*;
 import com.fbcorp.gleo.repo.OrderRepo;
 import com.fbcorp.gleo.repo.TierConsumptionRepo;
-import com.fbcorp.gleo.websocket.OrderUpdateMessage;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
 
 @Service
 public class OrderService {
     private final OrderRepo orderRepo;
     private final TierConsumptionRepo tierConsumptionRepo;
     private final EventPolicyService policyService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SalesRollupService salesRollupService;
 
     public OrderService(OrderRepo orderRepo, 
                        TierConsumptionRepo tierConsumptionRepo, 
                        EventPolicyService policyService,
-                       SimpMessagingTemplate messagingTemplate) {
+                       ApplicationEventPublisher eventPublisher,
+                       SalesRollupService salesRollupService) {
         this.orderRepo = orderRepo;
         this.tierConsumptionRepo = tierConsumptionRepo;
         this.policyService = policyService;
-        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.salesRollupService = salesRollupService;
     }
 
     @Transactional
     public void markStatus(Long orderId, OrderStatus status) {
-        Order o = orderRepo.findById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        o.setStatus(status);
+        Order o = orderRepo.findWithDetailsById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        OrderStatus previousStatus = o.getStatus();
+        o.transitionTo(status, LocalDateTime.now());
         orderRepo.save(o);
-        
-        // Broadcast order update
-        broadcastOrderUpdate(o);
+
+        publishChange(o, previousStatus);
+    }
+
+    /**
+     * Announces a freshly placed order. Checkout already holds the order graph in memory,
+     * so there is no need to reload it the way {@link #markStatus} does.
+     */
+    public void announceNewOrder(Order order) {
+        publishChange(order, null);
     }
 
     @Transactional
     public void markCompletedByGuest(Long orderId, String deviceHash, String pinLast4) {
-        Order o = orderRepo.findById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Order o = orderRepo.findWithDetailsById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         if (o.getStatus() != OrderStatus.READY) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Order not READY");
         }
-        o.setStatus(OrderStatus.COMPLETED);
+        OrderStatus previousStatus = o.getStatus();
+        o.transitionTo(OrderStatus.COMPLETED, LocalDateTime.now());
         o.setConfirmedByGuest(true);
         if (pinLast4 != null && pinLast4.length() >= 4) {
             o.setConfirmedStaffPinLast4(pinLast4.substring(pinLast4.length()-4));
         }
         orderRepo.save(o);
 
-        // Broadcast order update
-        broadcastOrderUpdate(o);
+        publishChange(o, previousStatus);
 
         // Track tier consumption for limited tiers
         Ticket t = o.getTicket();
-        TierPolicy tierPolicy = policyService.tierPolicy(o.getEvent().getCode(), t.getTierCode());
-        if (tierPolicy.hasLimit()) {
+        var tierLimit = policyService.tierLimit(o.getEvent().getCode(), t.getTierCode());
+        if (tierLimit.hasLimit()) {
             TierConsumption tc = tierConsumptionRepo
                     .findByEventAndTicketAndVendor(o.getEvent(), t, o.getVendor())
                     .orElseGet(() -> {
@@ -75,18 +85,14 @@ public class OrderService {
         }
     }
 
-    private void broadcastOrderUpdate(Order order) {
-        OrderUpdateMessage message = new OrderUpdateMessage(
-            order.getId(),
-            order.getEvent().getCode(),
-            order.getStatus().toString(),
-            order.getTicket().getHolderName(),
-            order.getVendor().getName(),
-            order.getItems().stream()
-                .map(item -> item.getQty() + "x " + item.getMenuItem().getName())
-                .collect(Collectors.joining(", "))
-        );
-        
-        messagingTemplate.convertAndSend("/topic/orders/" + order.getEvent().getCode(), message);
+    /**
+     * Sales counters are updated in the surrounding transaction. The usher board and
+     * {@link OrderBroadcastDispatcher} pick the event up after it commits, so nothing is sent
+     * for a rolled-back change.
+     */
+    private void publishChange(Order order, OrderStatus previous) {
+        salesRollupService.record(order, previous);
+        eventPublisher.publishEvent(new OrderChangedEvent(UsherBoardService.BoardCard.of(order), previous,
+                OrderChangedEvent.Timeline.of(order)));
     }
 }
@@ -0,0 +1,190 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live order flow per vendor, built from {@link OrderChangedEvent}s after each commit.
+ * <p>
+ * Each vendor keeps one bucket per wall-clock minute for the last {@code gleo.order-metrics.retention},
+ * holding placed/completed counts and {@link LatencyHistogram}s of queue wait (placed to
+ * preparing), prep time (preparing to ready) and pickup time (ready to completed). Older minutes
+ * are overwritten in place, so memory per vendor is fixed. Nothing is persisted; a restart
+ * starts from empty.
+ * <p>
+ * The figures are this node's own: a node only hears of the order changes committed through it,
+ * so with more than one node each reports part of the throughput and timings. The stage
+ * timestamps on {@code orders} are the complete record.
+ */
+@Service
+public class OrderTimingService {
+
+    public record TimingSummary(long count, long p50Seconds, long p90Seconds, long maxSeconds) {
+        static TimingSummary of(LatencyHistogram histogram) {
+            return new TimingSummary(histogram.count(), histogram.percentile(50), histogram.percentile(90), histogram.max());
+        }
+    }
+
+    public record MinuteStats(Instant minute, long placed, long completed, TimingSummary queueWait,
+                              TimingSummary prep, TimingSummary pickup) { }
+
+    /**
+     * @param minutes the window the figures cover, oldest minute first in {@code perMinute}
+     */
+    public record VendorThroughput(Long vendorId,
+                                   int minutes,
+                                   long placed,
+                                   long completed,
+                                   double ordersPerMinute,
+                                   TimingSummary queueWait,
+                                   TimingSummary prep,
+                                   TimingSummary pickup,
+                                   List<MinuteStats> perMinute) { }
+
+    private final int retentionMinutes;
+    private final ConcurrentMap<Long, VendorTimings> vendors = new ConcurrentHashMap<>();
+
+    public OrderTimingService(@Value("${gleo.order-metrics.retention:60m}") Duration retention) {
+        this.retentionMinutes = (int) Math.max(1, Math.min(24 * 60, retention.toMinutes()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        UsherBoardService.BoardCard card = event.card();
+        OrderStatus status = card.status();
+        if (event.previousStatus() == status) {
+            return;
+        }
+        VendorTimings timings = vendors.computeIfAbsent(card.vendorId(), id -> new VendorTimings(retentionMinutes));
+        timings.eventCode = card.eventCode();
+        OrderChangedEvent.Timeline timeline = event.timeline();
+        synchronized (timings) {
+            MinuteBucket bucket = timings.bucket(currentMinute());
+            if (event.previousStatus() == null) {
+                bucket.placed++;
+            }
+            switch (status) {
+                case PREPARING -> record(bucket.queueWait, timeline.createdAt(), timeline.preparingAt());
+                case READY -> record(bucket.prep, timeline.preparingAt(), timeline.readyAt());
+                case COMPLETED -> {
+                    record(bucket.pickup, timeline.readyAt(), timeline.completedAt());
+                    bucket.completed++;
+                }
+                default -> { }
+            }
+        }
+    }
+
+    /** Flow for every vendor of the event seen within the retention window, by vendor id. */
+    public Map<Long, VendorThroughput> throughput(String eventCode, int minutes) {
+        int window = Math.max(1, Math.min(retentionMinutes, minutes));
+        long now = currentMinute();
+        Map<Long, VendorThroughput> result = new LinkedHashMap<>();
+        vendors.forEach((vendorId, timings) -> {
+            if (eventCode.equals(timings.eventCode)) {
+                synchronized (timings) {
+                    result.put(vendorId, timings.summarize(vendorId, now, window));
+                }
+            }
+        });
+        return result;
+    }
+
+    public int retentionMinutes() {
+        return retentionMinutes;
+    }
+
+    /** Drops the figures of every vendor belonging to the deleted event. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        vendors.values().removeIf(timings -> event.eventCode().equals(timings.eventCode));
+    }
+
+    long currentMinute() {
+        return System.currentTimeMillis() / 60_000L;
+    }
+
+    private static void record(LatencyHistogram histogram, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            histogram.record(Duration.between(from, to).getSeconds());
+        }
+    }
+
+    private static final class MinuteBucket {
+        private long minute = -1;
+        private long placed;
+        private long completed;
+        private LatencyHistogram queueWait = new LatencyHistogram();
+        private LatencyHistogram prep = new LatencyHistogram();
+        private LatencyHistogram pickup = new LatencyHistogram();
+
+        void reset(long minute) {
+            this.minute = minute;
+            placed = 0;
+            completed = 0;
+            queueWait = new LatencyHistogram();
+            prep = new LatencyHistogram();
+            pickup = new LatencyHistogram();
+        }
+    }
+
+    private static final class VendorTimings {
+        private volatile String eventCode;
+        private final MinuteBucket[] ring;
+
+        VendorTimings(int minutes) {
+            ring = new MinuteBucket[minutes];
+            for (int i = 0; i < minutes; i++) {
+                ring[i] = new MinuteBucket();
+            }
+        }
+
+        MinuteBucket bucket(long minute) {
+            MinuteBucket bucket = ring[Math.floorMod(minute, ring.length)];
+            if (bucket.minute != minute) {
+                bucket.reset(minute);
+            }
+            return bucket;
+        }
+
+        VendorThroughput summarize(Long vendorId, long now, int window) {
+            LatencyHistogram queueWait = new LatencyHistogram();
+            LatencyHistogram prep = new LatencyHistogram();
+            LatencyHistogram pickup = new LatencyHistogram();
+            long placed = 0;
+            long completed = 0;
+            List<MinuteStats> perMinute = new ArrayList<>(window);
+            for (long minute = now - window + 1; minute <= now; minute++) {
+                MinuteBucket bucket = ring[Math.floorMod(minute, ring.length)];
+                Instant start = Instant.ofEpochSecond(minute * 60);
+                if (bucket.minute != minute) {
+                    TimingSummary none = new TimingSummary(0, 0, 0, 0);
+                    perMinute.add(new MinuteStats(start, 0, 0, none, none, none));
+                    continue;
+                }
+                placed += bucket.placed;
+                completed += bucket.completed;
+                queueWait.add(bucket.queueWait);
+                prep.add(bucket.prep);
+                pickup.add(bucket.pickup);
+                perMinute.add(new MinuteStats(start, bucket.placed, bucket.completed,
+                        TimingSummary.of(bucket.queueWait), TimingSummary.of(bucket.prep), TimingSummary.of(bucket.pickup)));
+            }
+            double ordersPerMinute = Math.round(completed * 100.0 / window) / 100.0;
+            return new VendorThroughput(vendorId, window, placed, completed, ordersPerMinute,
+                    TimingSummary.of(queueWait), TimingSummary.of(prep), TimingSummary.of(pickup), List.copyOf(perMinute));
+        }
+    }
+}
@@ -1,26 +1,27 @@
 package com.fbcorp.gleo.service;
 
 import com.fbcorp.gleo.domain.Event;
-import com.fbcorp.gleo.domain.Order;
-import com.fbcorp.gleo.domain.OrderItem;
-import com.fbcorp.gleo.domain.OrderStatus;
 import com.fbcorp.gleo.domain.Vendor;
-import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.domain.VendorSalesRollup;
+import com.fbcorp.gleo.repo.VendorRepo;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class OrganizerAnalyticsService {
 
-    private final OrderRepo orderRepo;
+    private final SalesRollupService salesRollupService;
+    private final VendorRepo vendorRepo;
 
-    public OrganizerAnalyticsService(OrderRepo orderRepo) {
-        this.orderRepo = orderRepo;
+    public OrganizerAnalyticsService(SalesRollupService salesRollupService, VendorRepo vendorRepo) {
+        this.salesRollupService = salesRollupService;
+        this.vendorRepo = vendorRepo;
     }
 
     public record VendorStats(Vendor vendor,
@@ -29,66 +30,34 @@ public class OrganizerAnalyticsService {
                               long itemsServed,
                               BigDecimal revenue) { }
 
+    /**
+     * Per-vendor order and sales totals for the event, read from the running
+     * {@link VendorSalesRollup} rows: one row per vendor, however many orders the event has.
+     * Every vendor passed in gets an entry, zeroed if it has no orders.
+     */
     public Map<Long, VendorStats> computeVendorStats(Event event, List<Vendor> vendors) {
-        Map<Long, VendorStatsAccumulator> accumulators = new LinkedHashMap<>();
+        Map<Long, Vendor> vendorsById = new LinkedHashMap<>();
         for (Vendor vendor : vendors) {
-            accumulators.put(vendor.getId(), new VendorStatsAccumulator(vendor));
+            vendorsById.put(vendor.getId(), vendor);
         }
-
-        List<Order> orders = orderRepo.findByEvent(event);
-        for (Order order : orders) {
-            Vendor vendor = order.getVendor();
-            if (vendor == null) {
-                continue;
-            }
-            VendorStatsAccumulator accumulator = accumulators.computeIfAbsent(
-                    vendor.getId(), id -> new VendorStatsAccumulator(vendor));
-            accumulator.registerOrder(order);
-        }
-        return accumulators.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().toSummary(),
-                        (a, b) -> a,
-                        LinkedHashMap::new));
-    }
-
-    private static class VendorStatsAccumulator {
-        private final Vendor vendor;
-        private long totalOrders = 0L;
-        private long completedOrders = 0L;
-        private long itemsServed = 0L;
-        private BigDecimal revenue = BigDecimal.ZERO;
-
-        VendorStatsAccumulator(Vendor vendor) {
-            this.vendor = vendor;
-        }
-
-        void registerOrder(Order order) {
-            totalOrders++;
-            if (order.getStatus() == OrderStatus.COMPLETED) {
-                completedOrders++;
-                for (OrderItem item : order.getItems()) {
-                    int qty = Math.max(0, item.getQty());
-                    itemsServed += qty;
-                    BigDecimal price = BigDecimal.ZERO;
-                    if (item.getMenuItem() != null && item.getMenuItem().getPrice() != null) {
-                        price = item.getMenuItem().getPrice();
-                    }
-                    revenue = revenue.add(price.multiply(BigDecimal.valueOf(qty)));
-                }
-            }
+        Map<Long, VendorSalesRollup> rollups = salesRollupService.rollups(event, vendors);
+
+        // Orders can only belong to the event's vendors, but keep stats for any the caller left out
+        Set<Long> unknown = rollups.keySet().stream()
+                .filter(id -> !vendorsById.containsKey(id) && rollups.get(id).getTotalOrders() > 0)
+                .collect(Collectors.toSet());
+        if (!unknown.isEmpty()) {
+            vendorRepo.findAllById(unknown).forEach(vendor -> vendorsById.put(vendor.getId(), vendor));
         }
 
-        VendorStats toSummary() {
-            return new VendorStats(
-                    vendor,
-                    totalOrders,
-                    completedOrders,
-                    itemsServed,
-                    revenue
-            );
+        Map<Long, VendorStats> stats = new LinkedHashMap<>();
+        for (Vendor vendor : vendorsById.values()) {
+            VendorSalesRollup rollup = rollups.get(vendor.getId());
+            stats.put(vendor.getId(), rollup == null
+                    ? new VendorStats(vendor, 0L, 0L, 0L, BigDecimal.ZERO)
+                    : new VendorStats(vendor, rollup.getTotalOrders(), rollup.getCompletedOrders(),
+                            rollup.getItemsServed(), rollup.getRevenue()));
         }
+        return stats;
     }
 }
-
@@ -0,0 +1,98 @@
+package com.fbcorp.gleo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Service fee and promo code rules, compiled once per event into an immutable {@link PricingTable}.
+ * <p>
+ * Defaults come from {@code gleo.pricing.service-fee-rate} and {@code gleo.pricing.promos}; an
+ * event can override either under {@code gleo.pricing.events.<CODE>.*}. Promos are written as
+ * {@code CODE=percent:10} or {@code CODE=amount:5}, comma separated.
+ */
+@Service
+public class PricingRuleService {
+
+    public enum PromoKind { PERCENT, AMOUNT }
+
+    public record PromoRule(String code, PromoKind kind, BigDecimal value) {
+        BigDecimal discountOn(BigDecimal subtotal) {
+            return kind == PromoKind.PERCENT ? subtotal.multiply(value.movePointLeft(2)) : value;
+        }
+    }
+
+    public record Pricing(BigDecimal serviceFee, BigDecimal discount, String promoCode, BigDecimal total) { }
+
+    public record PricingTable(String eventCode, BigDecimal serviceFeeRate, Map<String, PromoRule> promos) {
+
+        public Pricing apply(BigDecimal subtotal, String promoCode) {
+            BigDecimal serviceFee = subtotal.multiply(serviceFeeRate).setScale(2, RoundingMode.HALF_UP);
+            PromoRule promo = promoCode != null ? promos.get(promoCode.toUpperCase(Locale.ROOT)) : null;
+            BigDecimal discount = promo != null ? promo.discountOn(subtotal) : BigDecimal.ZERO;
+            if (discount.compareTo(subtotal) > 0) {
+                discount = subtotal; // cap
+            }
+            return new Pricing(serviceFee, discount, promo != null ? promo.code() : null,
+                    subtotal.add(serviceFee).subtract(discount));
+        }
+
+        /** The fee rate as a percentage for display, e.g. 5 for 0.05. */
+        public BigDecimal serviceFeePercent() {
+            return serviceFeeRate.movePointRight(2).stripTrailingZeros();
+        }
+    }
+
+    private final Environment environment;
+    private final String defaultFeeRate;
+    private final String defaultPromos;
+    private final ConcurrentMap<String, PricingTable> tables = new ConcurrentHashMap<>();
+
+    public PricingRuleService(Environment environment,
+                              @Value("${gleo.pricing.service-fee-rate:0.05}") String defaultFeeRate,
+                              @Value("${gleo.pricing.promos:SAVE10=percent:10,FLAT5=amount:5}") String defaultPromos) {
+        this.environment = environment;
+        this.defaultFeeRate = defaultFeeRate;
+        this.defaultPromos = defaultPromos;
+    }
+
+    public PricingTable table(String eventCode) {
+        return tables.computeIfAbsent(eventCode, this::compile);
+    }
+
+    private PricingTable compile(String eventCode) {
+        String prefix = "gleo.pricing.events." + eventCode + ".";
+        String feeRate = environment.getProperty(prefix + "service-fee-rate", defaultFeeRate);
+        String promos = environment.getProperty(prefix + "promos", defaultPromos);
+        return new PricingTable(eventCode, new BigDecimal(feeRate.trim()), parsePromos(promos));
+    }
+
+    static Map<String, PromoRule> parsePromos(String spec) {
+        Map<String, PromoRule> rules = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return Map.of();
+        }
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] codeAndRule = entry.split("=", 2);
+            String[] kindAndValue = codeAndRule.length == 2 ? codeAndRule[1].split(":", 2) : new String[0];
+            if (kindAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid promo rule '" + entry.trim() + "'; expected CODE=percent:N or CODE=amount:N");
+            }
+            String code = codeAndRule[0].trim().toUpperCase(Locale.ROOT);
+            PromoKind kind = PromoKind.valueOf(kindAndValue[0].trim().toUpperCase(Locale.ROOT));
+            rules.put(code, new PromoRule(code, kind, new BigDecimal(kindAndValue[1].trim())));
+        }
+        return Map.copyOf(rules);
+    }
+}
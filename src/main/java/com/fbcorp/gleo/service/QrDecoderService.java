@@ -3,43 +3,188 @@ package com.fbcorp.gleo.service;
 import com.google.zxing.*;
 import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
 import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.time.Duration;
 import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Decodes ticket QR codes from uploaded photos on a bounded pool of
+ * {@code gleo.qr-decode.workers} threads, so a burst of scans at the gate queues here instead of
+ * holding request threads.
+ * <p>
+ * Photos are subsampled while they are read, to at most {@code gleo.qr-decode.max-dimension}
+ * pixels a side, and decoded in up to three passes that stop at the first hit: the whole frame,
+ * its centre (where guests aim the camera) and finally the whole frame with {@code TRY_HARDER}.
+ * Each worker keeps its own reader since ZXing readers are not thread-safe. A caller waits at
+ * most {@code gleo.qr-decode.timeout}; when {@code gleo.qr-decode.queue-capacity} scans are
+ * already waiting the upload is turned away with a 503. Outcomes, latency and the queue depth are
+ * published through {@link HotPathMetrics}.
+ */
 @Service
 public class QrDecoderService {
 
-    private final MultiFormatReader reader;
+    private static final Map<DecodeHintType, Object> FAST_HINTS = hints(false);
+    private static final Map<DecodeHintType, Object> THOROUGH_HINTS = hints(true);
 
-    public QrDecoderService() {
-        reader = new MultiFormatReader();
-        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
-        hints.put(DecodeHintType.POSSIBLE_FORMATS, java.util.List.of(BarcodeFormat.QR_CODE));
-        reader.setHints(hints);
+    private final ThreadLocal<QRCodeReader> readers = ThreadLocal.withInitial(QRCodeReader::new);
+    private final ThreadPoolExecutor workers;
+    private final int maxDimension;
+    private final long timeoutMillis;
+
+    private final HotPathMetrics.Timer decodeTimer;
+
+    public QrDecoderService(HotPathMetrics metrics,
+                            @Value("${gleo.qr-decode.workers:0}") int workerCount,
+                            @Value("${gleo.qr-decode.queue-capacity:32}") int queueCapacity,
+                            @Value("${gleo.qr-decode.max-dimension:1280}") int maxDimension,
+                            @Value("${gleo.qr-decode.timeout:3s}") Duration timeout) {
+        int threads = workerCount > 0 ? workerCount : Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.maxDimension = Math.max(256, maxDimension);
+        this.timeoutMillis = Math.max(1, timeout.toMillis());
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gleo-qr-decode");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.decodeTimer = metrics.timer("gleo_qr_decode_seconds",
+                "QR photo decodes including the wait for a worker, by outcome", "outcome");
+        metrics.gauge("gleo_qr_decode_queue_depth", "QR photos waiting for a decode worker",
+                () -> workers.getQueue().size());
     }
 
     public Optional<String> decode(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return Optional.empty();
         }
-        try (InputStream in = file.getInputStream()) {
-            BufferedImage image = ImageIO.read(in);
-            if (image == null) return Optional.empty();
-            LuminanceSource source = new BufferedImageLuminanceSource(image);
-            BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-            Result result = reader.decode(bitmap);
+        byte[] bytes;
+        try {
+            // Read on the request thread: the upload's temp file is gone once the request ends
+            bytes = file.getBytes();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        Future<Optional<String>> task;
+        try {
+            task = workers.submit(() -> decode(bytes));
+        } catch (RejectedExecutionException e) {
+            decodeTimer.record(started, "rejected");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The scanner is busy right now; please try again in a moment.");
+        }
+        String outcome = "unreadable";
+        try {
+            Optional<String> result = task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            outcome = result.isPresent() ? "decoded" : "unreadable";
+            return result;
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            outcome = "timeout";
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } finally {
+            decodeTimer.record(started, outcome);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Optional<String> decode(byte[] bytes) throws IOException {
+        BufferedImage image = read(bytes);
+        if (image == null) {
+            return Optional.empty();
+        }
+        LuminanceSource whole = new BufferedImageLuminanceSource(image);
+        int width = whole.getWidth();
+        int height = whole.getHeight();
+        List<LuminanceSource> sources = List.of(
+                whole,
+                whole.crop(width / 6, height / 6, width * 2 / 3, height * 2 / 3));
+        for (LuminanceSource source : sources) {
+            Optional<String> text = attempt(source, FAST_HINTS);
+            if (text.isPresent() || Thread.currentThread().isInterrupted()) {
+                return text;
+            }
+        }
+        return attempt(whole, THOROUGH_HINTS);
+    }
+
+    private Optional<String> attempt(LuminanceSource source, Map<DecodeHintType, Object> hints) {
+        QRCodeReader reader = readers.get();
+        try {
+            Result result = reader.decode(new BinaryBitmap(new HybridBinarizer(source)), hints);
             return Optional.ofNullable(result.getText());
-        } catch (IOException | NotFoundException e) {
+        } catch (NotFoundException | ChecksumException | FormatException e) {
             return Optional.empty();
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /** Decodes the image, skipping rows and columns so neither side exceeds the max dimension. */
+    private BufferedImage read(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> candidates = in != null ? ImageIO.getImageReaders(in) : null;
+            if (candidates == null || !candidates.hasNext()) {
+                return null;
+            }
+            ImageReader reader = candidates.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (longest + maxDimension - 1) / maxDimension;
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static Map<DecodeHintType, Object> hints(boolean tryHarder) {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, List.of(BarcodeFormat.QR_CODE));
+        if (tryHarder) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
         }
+        return Map.copyOf(hints);
     }
 }
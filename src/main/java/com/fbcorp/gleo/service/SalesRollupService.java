@@ -0,0 +1,330 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.Order;
+import com.fbcorp.gleo.domain.OrderItem;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.domain.VendorSalesRollup;
+import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.repo.VendorSalesRollupRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains {@link VendorSalesRollup} rows so dashboards read one row per vendor instead of
+ * aggregating the event's orders.
+ * <p>
+ * {@link #record} adds an order's change to its vendor's row inside the order's transaction, so
+ * the counters commit or roll back with it. Missing rows are seeded from {@code orders} in the
+ * caller's transaction, with two grouped queries and one batch insert however many vendors are
+ * missing; a concurrent seed of the same rows only rolls back to a savepoint.
+ * <p>
+ * Every {@code gleo.sales-rollup.reconcile-interval} (a positive ISO-8601 duration, as
+ * {@code @Scheduled} reads it; zero fails startup) each row not reconciled within that interval
+ * is recomputed from {@code orders} under a row lock, which repairs drift such as revenue counted
+ * before a menu price change. Every node runs the schedule, but a row another node has just
+ * reconciled is skipped once its lock is acquired.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final String INSERT_IF_ABSENT = "INSERT INTO vendor_sales_rollups (vendor_id, event_id, "
+            + "total_orders, new_orders, preparing_orders, ready_orders, completed_orders, cancelled_orders, "
+            + "items_served, revenue, reconciled_at) SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM vendor_sales_rollups WHERE vendor_id = ?)";
+
+    private final VendorSalesRollupRepo rollupRepo;
+    private final OrderRepo orderRepo;
+    private final VendorRepo vendorRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate reconcileTx;
+    private final Duration reconcileInterval;
+
+    public SalesRollupService(VendorSalesRollupRepo rollupRepo,
+                              OrderRepo orderRepo,
+                              VendorRepo vendorRepo,
+                              JdbcTemplate jdbc,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${gleo.sales-rollup.reconcile-interval:PT5M}") Duration reconcileInterval) {
+        this.rollupRepo = rollupRepo;
+        this.orderRepo = orderRepo;
+        this.vendorRepo = vendorRepo;
+        this.jdbc = jdbc;
+        // Joins a caller's transaction; on the scheduler thread each vendor gets its own
+        this.reconcileTx = new TransactionTemplate(transactionManager);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * Adds a placed order ({@code previous == null}) or a status change to the vendor's counters.
+     * Callers that touch several vendors in one transaction should go in vendor id order, since
+     * each call holds the vendor's row lock until commit.
+     */
+    @Transactional
+    public void record(Order order, OrderStatus previous) {
+        OrderStatus current = order.getStatus();
+        if (previous == current) {
+            return;
+        }
+        long[] counts = new long[OrderStatus.values().length];
+        if (previous != null) {
+            counts[previous.ordinal()]--;
+        }
+        counts[current.ordinal()]++;
+
+        long items = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        int sign = current == OrderStatus.COMPLETED ? 1 : previous == OrderStatus.COMPLETED ? -1 : 0;
+        if (sign != 0) {
+            for (OrderItem item : order.getItems()) {
+                int qty = Math.max(0, item.getQty());
+                items += qty;
+                if (item.getMenuItem() != null && item.getMenuItem().getPrice() != null) {
+                    revenue = revenue.add(item.getMenuItem().getPrice().multiply(BigDecimal.valueOf(qty)));
+                }
+            }
+            if (sign < 0) {
+                items = -items;
+                revenue = revenue.negate();
+            }
+        }
+
+        Long vendorId = order.getVendor().getId();
+        // No row yet: seed it from orders as this transaction sees them, which already includes this
+        // change. Only if another transaction seeded it first, without our change, is it applied.
+        if (increment(vendorId, previous == null ? 1 : 0, counts, items, revenue) == 0
+                && !seed(order.getEvent(), List.of(vendorId)).contains(vendorId)
+                && increment(vendorId, previous == null ? 1 : 0, counts, items, revenue) == 0) {
+            log.warn("Sales rollup for vendor {} is missing; it will be rebuilt on reconciliation", vendorId);
+        }
+    }
+
+    /** Rollup rows for the given vendors, seeding any that do not exist yet. */
+    @Transactional
+    public Map<Long, VendorSalesRollup> rollups(Event event, List<Vendor> vendors) {
+        Map<Long, VendorSalesRollup> byVendor = new LinkedHashMap<>();
+        rollupRepo.findByEventId(event.getId()).forEach(row -> byVendor.put(row.getVendorId(), row));
+        List<Long> missing = vendors.stream()
+                .map(Vendor::getId)
+                .filter(id -> !byVendor.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            seed(event, missing);
+            rollupRepo.findAllById(missing).forEach(row -> byVendor.put(row.getVendorId(), row));
+        }
+        return byVendor;
+    }
+
+    /**
+     * Recomputes from {@code orders} every row not reconciled within the interval; returns how many
+     * had drifted.
+     */
+    @Scheduled(initialDelayString = "${gleo.sales-rollup.reconcile-interval:PT5M}",
+               fixedDelayString = "${gleo.sales-rollup.reconcile-interval:PT5M}")
+    public int reconcileAll() {
+        int corrected = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(reconcileInterval);
+            for (Long vendorId : rollupRepo.findVendorIdsReconciledBefore(cutoff)) {
+                Boolean drifted = reconcileTx.execute(status -> reconcileVendor(vendorId, cutoff));
+                if (Boolean.TRUE.equals(drifted)) {
+                    corrected++;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Sales rollup reconciliation failed; retrying next cycle", ex);
+        }
+        if (corrected > 0) {
+            log.info("Sales rollup reconciliation corrected {} vendor row(s)", corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Recomputes the event's rows from {@code orders} with the same grouped queries as seeding,
+     * seeding any vendor that has no row; returns how many existing rows had drifted. The event's
+     * rows stay locked until commit, so orders for it wait on the two queries.
+     */
+    @Transactional
+    public int reconcile(Event event) {
+        Map<Long, VendorSalesRollup> rows = new LinkedHashMap<>();
+        rollupRepo.findByEventIdForUpdate(event.getId()).forEach(row -> rows.put(row.getVendorId(), row));
+        Map<Long, List<Object>> before = new HashMap<>();
+        rows.forEach((vendorId, row) -> before.put(vendorId, snapshot(row)));
+        List<Long> missing = vendorRepo.findByEvent(event).stream()
+                .map(Vendor::getId)
+                .filter(id -> !rows.containsKey(id))
+                .toList();
+
+        // Locked rows are managed, so changed ones are written back as one batch at commit
+        recompute(event, rows);
+        if (!missing.isEmpty()) {
+            seed(event, missing);
+        }
+        return (int) rows.values().stream()
+                .filter(row -> !before.get(row.getVendorId()).equals(snapshot(row)))
+                .count();
+    }
+
+    private int increment(Long vendorId, long total, long[] counts, long items, BigDecimal revenue) {
+        return rollupRepo.increment(vendorId, total,
+                counts[OrderStatus.NEW.ordinal()],
+                counts[OrderStatus.PREPARING.ordinal()],
+                counts[OrderStatus.READY.ordinal()],
+                counts[OrderStatus.COMPLETED.ordinal()],
+                counts[OrderStatus.CANCELLED.ordinal()],
+                items, revenue);
+    }
+
+    /**
+     * Inserts rows for the given vendors, computed from {@code orders} as the current transaction
+     * sees them (the queries flush its pending order changes first). Returns the vendors whose row
+     * this call inserted; the rest were inserted first by another transaction.
+     */
+    private Set<Long> seed(Event event, Collection<Long> vendorIds) {
+        Map<Long, VendorSalesRollup> rows = new LinkedHashMap<>();
+        for (Long vendorId : vendorIds) {
+            VendorSalesRollup row = new VendorSalesRollup();
+            row.setVendorId(vendorId);
+            row.setEventId(event.getId());
+            rows.put(vendorId, row);
+        }
+        recompute(event, rows);
+        List<Object[]> args = rows.values().stream().map(SalesRollupService::insertArgs).toList();
+        // Runs on the transaction's own connection. Losing the race to a concurrent seed fails the
+        // insert, so it runs under a savepoint that keeps the caller's transaction usable; the JPA
+        // provider is bypassed so it does not mark the transaction rollback-only.
+        return jdbc.execute((ConnectionCallback<Set<Long>>) con -> {
+            Set<Long> inserted = new HashSet<>();
+            Savepoint savepoint = con.setSavepoint();
+            try {
+                int[] counts = jdbc.batchUpdate(INSERT_IF_ABSENT, args);
+                con.releaseSavepoint(savepoint);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 1) {
+                        inserted.add((Long) args.get(i)[0]);
+                    }
+                }
+                return inserted;
+            } catch (DataIntegrityViolationException ex) {
+                con.rollback(savepoint);
+            }
+            // Some row was inserted concurrently: go one row at a time so the others still land
+            for (Object[] row : args) {
+                Savepoint single = con.setSavepoint();
+                try {
+                    if (jdbc.update(INSERT_IF_ABSENT, row) == 1) {
+                        inserted.add((Long) row[0]);
+                    }
+                    con.releaseSavepoint(single);
+                } catch (DataIntegrityViolationException ex) {
+                    con.rollback(single);
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private static Object[] insertArgs(VendorSalesRollup row) {
+        return new Object[]{row.getVendorId(), row.getEventId(), row.getTotalOrders(), row.getNewOrders(),
+                row.getPreparingOrders(), row.getReadyOrders(), row.getCompletedOrders(),
+                row.getCancelledOrders(), row.getItemsServed(), row.getRevenue(), row.getReconciledAt(),
+                row.getVendorId()};
+    }
+
+    /** Recomputes the row unless it was reconciled after the cutoff, e.g. by another node. */
+    private boolean reconcileVendor(Long vendorId, LocalDateTime cutoff) {
+        VendorSalesRollup row = rollupRepo.findForUpdate(vendorId).orElse(null);
+        if (row == null || row.getReconciledAt() != null && row.getReconciledAt().isAfter(cutoff)) {
+            return false;
+        }
+        List<Object> before = snapshot(row);
+        recompute(row);
+        rollupRepo.save(row);
+        return !before.equals(snapshot(row));
+    }
+
+    private void recompute(VendorSalesRollup row) {
+        long[] counts = new long[OrderStatus.values().length];
+        long total = 0;
+        for (OrderRepo.StatusCount count : orderRepo.countByStatusForVendor(row.getVendorId())) {
+            counts[count.getStatus().ordinal()] = count.getOrders();
+            total += count.getOrders();
+        }
+        row.setTotalOrders(total);
+        row.setNewOrders(counts[OrderStatus.NEW.ordinal()]);
+        row.setPreparingOrders(counts[OrderStatus.PREPARING.ordinal()]);
+        row.setReadyOrders(counts[OrderStatus.READY.ordinal()]);
+        row.setCompletedOrders(counts[OrderStatus.COMPLETED.ordinal()]);
+        row.setCancelledOrders(counts[OrderStatus.CANCELLED.ordinal()]);
+        var totals = orderRepo.sumCompletedItemsForVendor(row.getVendorId());
+        row.setItemsServed(totals.map(OrderRepo.VendorItemTotals::getItemsServed).orElse(0L));
+        row.setRevenue(totals.map(OrderRepo.VendorItemTotals::getRevenue).filter(Objects::nonNull).orElse(BigDecimal.ZERO));
+        row.setReconciledAt(LocalDateTime.now());
+    }
+
+    /** Recomputes the given vendors' rows of the event with one status-count and one item query. */
+    private void recompute(Event event, Map<Long, VendorSalesRollup> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (VendorSalesRollup row : rows.values()) {
+            row.setTotalOrders(0);
+            row.setNewOrders(0);
+            row.setPreparingOrders(0);
+            row.setReadyOrders(0);
+            row.setCompletedOrders(0);
+            row.setCancelledOrders(0);
+            row.setItemsServed(0);
+            row.setRevenue(BigDecimal.ZERO);
+            row.setReconciledAt(now);
+        }
+        for (OrderRepo.VendorOrderCounts counts : orderRepo.countOrdersByVendor(event, rows.keySet())) {
+            VendorSalesRollup row = rows.get(counts.getVendorId());
+            row.setTotalOrders(counts.getTotalOrders());
+            row.setNewOrders(counts.getNewOrders());
+            row.setPreparingOrders(counts.getPreparingOrders());
+            row.setReadyOrders(counts.getReadyOrders());
+            row.setCompletedOrders(counts.getCompletedOrders());
+            row.setCancelledOrders(counts.getCancelledOrders());
+        }
+        for (OrderRepo.VendorItemTotals totals : orderRepo.sumCompletedItemsByVendor(event, rows.keySet())) {
+            VendorSalesRollup row = rows.get(totals.getVendorId());
+            row.setItemsServed(totals.getItemsServed());
+            row.setRevenue(totals.getRevenue() == null ? BigDecimal.ZERO : totals.getRevenue());
+        }
+    }
+
+    private static List<Object> snapshot(VendorSalesRollup row) {
+        return List.of(row.getTotalOrders(), row.getNewOrders(), row.getPreparingOrders(), row.getReadyOrders(),
+                row.getCompletedOrders(), row.getCancelledOrders(), row.getItemsServed(),
+                row.getRevenue().stripTrailingZeros());
+    }
+}
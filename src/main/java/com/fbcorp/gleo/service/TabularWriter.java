@@ -0,0 +1,133 @@
+package com.fbcorp.gleo.service;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes rows of a single table as they are produced, so an export never holds more than a
+ * small window of rows in memory. Values may be strings, numbers, booleans, {@link LocalDateTime}s
+ * or {@code null}.
+ */
+abstract class TabularWriter implements AutoCloseable {
+
+    abstract void row(List<?> values) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    static TabularWriter open(ExportFormat format, OutputStream out, String sheetName) {
+        return format == ExportFormat.XLSX ? new Xlsx(out, sheetName) : new Csv(out);
+    }
+
+    private static final class Csv extends TabularWriter {
+        private final Writer writer;
+
+        Csv(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        }
+
+        @Override
+        void row(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            // The response stream belongs to the container; only push out what is buffered
+            writer.flush();
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private static final class Xlsx extends TabularWriter {
+        // Rows beyond this window are flushed to a temp file and can no longer be touched
+        private static final int ROW_WINDOW = 200;
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook;
+        private final SXSSFSheet sheet;
+        private final CellStyle headerStyle;
+        private final CellStyle dateStyle;
+        private int rowIndex;
+
+        Xlsx(OutputStream out, String sheetName) {
+            this.out = out;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            this.workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(sheetName);
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            this.headerStyle = workbook.createCellStyle();
+            this.headerStyle.setFont(bold);
+            this.dateStyle = workbook.createCellStyle();
+            this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        }
+
+        @Override
+        void row(List<?> values) {
+            Row row = sheet.createRow(rowIndex);
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (value instanceof Number number) {
+                    cell.setCellValue(number.doubleValue());
+                } else if (value instanceof Boolean flag) {
+                    cell.setCellValue(flag);
+                } else if (value instanceof LocalDateTime time) {
+                    cell.setCellValue(time);
+                    cell.setCellStyle(dateStyle);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+                if (rowIndex == 0) {
+                    cell.setCellStyle(headerStyle);
+                }
+            }
+            rowIndex++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                workbook.close();
+                workbook.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.TicketImportLog;
+import com.fbcorp.gleo.repo.TicketImportLogRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs ticket imports in the background.
+ * <p>
+ * An upload is spooled to {@code gleo.ticket-import.spool-dir} and queued as a
+ * {@link TicketImportLog}; a pool of {@code gleo.ticket-import.workers} threads with room for
+ * {@code gleo.ticket-import.queue-capacity} waiting jobs imports it chunk by chunk. Each chunk
+ * commits together with the log's counts, so after a crash or restart an unfinished job
+ * continues after its last committed chunk as long as its spool file is still there.
+ * <p>
+ * A worker only starts a job after claiming it with a conditional update, so a job is never
+ * imported by two nodes at once. Every {@code gleo.ticket-import.heartbeat-interval} (an ISO-8601
+ * duration) this node touches the jobs it holds, queued or running, and sweeps for jobs to resume
+ * or fail; a job is treated as abandoned once it has not been touched for
+ * {@code gleo.ticket-import.stale-after}. A job cut off by a crash rather than a shutdown is
+ * therefore picked up again only after that long.
+ */
+@Service
+public class TicketImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketImportJobService.class);
+
+    public record ImportProgress(Long id,
+                                 TicketImportLog.Status status,
+                                 int totalRows,
+                                 int importedRows,
+                                 int duplicateRows,
+                                 int invalidRows,
+                                 int errorCount,
+                                 String errorSample,
+                                 boolean done) {
+        static ImportProgress of(TicketImportLog log) {
+            TicketImportLog.Status status = log.getStatus() != null ? log.getStatus() : TicketImportLog.Status.COMPLETED;
+            return new ImportProgress(log.getId(), status, log.getTotalRows(), log.getImportedRows(),
+                    log.getDuplicateRows(), log.getInvalidRows(), log.getErrorCount(), log.getErrorSample(),
+                    !log.isInProgress());
+        }
+    }
+
+    private final TicketImportService importService;
+    private final TicketImportLogService importLogService;
+    private final TicketImportLogRepo logRepo;
+    private final TicketQrIndex qrIndex;
+    private final Path spoolDir;
+    private final Duration staleAfter;
+    private final ThreadPoolExecutor workers;
+    // Jobs queued or running on this node; the heartbeat keeps them from looking abandoned
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    public TicketImportJobService(TicketImportService importService,
+                                  TicketImportLogService importLogService,
+                                  TicketImportLogRepo logRepo,
+                                  TicketQrIndex qrIndex,
+                                  @Value("${gleo.ticket-import.spool-dir:${java.io.tmpdir}/gleo-imports}") Path spoolDir,
+                                  @Value("${gleo.ticket-import.workers:2}") int workerCount,
+                                  @Value("${gleo.ticket-import.queue-capacity:20}") int queueCapacity,
+                                  @Value("${gleo.ticket-import.stale-after:15m}") Duration staleAfter) {
+        this.importService = importService;
+        this.importLogService = importLogService;
+        this.logRepo = logRepo;
+        this.qrIndex = qrIndex;
+        this.spoolDir = spoolDir;
+        this.staleAfter = staleAfter;
+        int threads = Math.max(1, workerCount);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gleo-ticket-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** Spools the upload and queues it; the returned log tracks the job's progress. */
+    public TicketImportLog submit(Event event, MultipartFile file, String username) throws IOException {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports are waiting; try again in a few minutes.");
+        }
+        Files.createDirectories(spoolDir);
+        Path spool = spoolDir.resolve(UUID.randomUUID() + extension(file.getOriginalFilename()));
+        file.transferTo(spool);
+        TicketImportLog job = importLogService.queue(event, username, file.getOriginalFilename(), spool.toString());
+        held.add(job.getId());
+        try {
+            workers.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException ex) {
+            held.remove(job.getId());
+            importLogService.fail(job.getId(), "the import queue is full");
+            deleteQuietly(spool);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports are waiting; try again in a few minutes.");
+        }
+        return job;
+    }
+
+    public Optional<ImportProgress> progress(Event event, Long logId) {
+        return logRepo.findByIdAndEvent(logId, event).map(ImportProgress::of);
+    }
+
+    /**
+     * Requeues unfinished jobs whose spool file is on this node. Jobs whose file is not here may
+     * belong to another node; they are only failed once nobody has touched them for
+     * {@code stale-after}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        LocalDateTime staleBefore = staleBefore();
+        List<TicketImportLog> unfinished = logRepo.findByStatusIn(
+                EnumSet.of(TicketImportLog.Status.QUEUED, TicketImportLog.Status.RUNNING));
+        for (TicketImportLog job : unfinished) {
+            if (held.contains(job.getId())) {
+                continue;
+            }
+            boolean stale = job.getUpdatedAt() == null || job.getUpdatedAt().isBefore(staleBefore);
+            if (job.getSpoolPath() != null && Files.isRegularFile(Path.of(job.getSpoolPath()))) {
+                // A fresh RUNNING job is being imported elsewhere; the claim would only turn it away
+                if (job.getStatus() == TicketImportLog.Status.RUNNING && !stale) {
+                    continue;
+                }
+                held.add(job.getId());
+                try {
+                    workers.execute(() -> run(job.getId()));
+                    log.info("Resuming ticket import {} after row {}", job.getId(), job.getTotalRows());
+                } catch (RejectedExecutionException ex) {
+                    held.remove(job.getId());
+                    log.warn("Import queue full; ticket import {} stays queued until the next sweep", job.getId());
+                }
+            } else if (stale && importLogService.failIfStale(job.getId(), "the uploaded file is no longer available", staleBefore)) {
+                log.warn("Ticket import {} failed: its spool file is gone and no node reported on it", job.getId());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${gleo.ticket-import.heartbeat-interval:PT1M}",
+               fixedDelayString = "${gleo.ticket-import.heartbeat-interval:PT1M}")
+    public void heartbeat() {
+        importLogService.heartbeat(Set.copyOf(held));
+        resumeInterrupted();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs keep their spool file and checkpoint and resume on the next start
+        workers.shutdownNow();
+        try {
+            // Gives interrupted workers the moment they need to hand their jobs back to the queue
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void run(Long logId) {
+        try {
+            if (importLogService.claim(logId, staleBefore())) {
+                logRepo.findById(logId).ifPresent(this::importClaimed);
+            }
+        } finally {
+            held.remove(logId);
+        }
+    }
+
+    private void importClaimed(TicketImportLog job) {
+        Long logId = job.getId();
+        if (job.getSpoolPath() == null) {
+            return;
+        }
+        Path spool = Path.of(job.getSpoolPath());
+        TicketImportService.ImportResult resumeFrom = job.getTotalRows() > 0
+                ? new TicketImportService.ImportResult(job.getImportedRows(), job.getDuplicateRows(),
+                        job.getInvalidRows(), job.getTotalRows(), importLogService.errors(job))
+                : null;
+        qrIndex.beginBulkChange(job.getEvent());
+        try {
+            TicketImportService.ImportResult result = importService.importFile(job.getEvent(), spool, job.getFileName(),
+                    resumeFrom, soFar -> importLogService.progress(logId, soFar));
+            importLogService.finish(logId, job.getUsername(), result);
+            deleteQuietly(spool);
+        } catch (Exception ex) {
+            if (workers.isShutdown()) {
+                log.info("Ticket import {} interrupted by shutdown; it resumes on the next start", logId);
+                releaseQuietly(logId);
+                return;
+            }
+            log.warn("Ticket import {} failed: {}", logId, ex.getMessage());
+            importLogService.fail(logId, ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+            deleteQuietly(spool);
+        } finally {
+            qrIndex.endBulkChange(job.getEvent());
+        }
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(staleAfter);
+    }
+
+    private void releaseQuietly(Long logId) {
+        try {
+            importLogService.release(logId);
+        } catch (RuntimeException ex) {
+            // Still RUNNING; the next start takes it over once it is stale
+            log.warn("Could not requeue ticket import {}: {}", logId, ex.getMessage());
+        }
+    }
+
+    private static String extension(String filename) {
+        String lowercase = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        int dot = lowercase.lastIndexOf('.');
+        String extension = dot >= 0 ? lowercase.substring(dot) : "";
+        return extension.matches("\\.[a-z0-9]{1,5}") ? extension : ".csv";
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete spooled import {}: {}", path, ex.getMessage());
+        }
+    }
+}
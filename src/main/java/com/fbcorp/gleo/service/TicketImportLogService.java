@@ -5,12 +5,19 @@ import com.fbcorp.gleo.domain.TicketImportLog;
 import com.fbcorp.gleo.domain.AuditLogEntry;
 import com.fbcorp.gleo.repo.TicketImportLogRepo;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Service
 public class TicketImportLogService {
 
+    private static final String ERROR_SEPARATOR = " | ";
+    private static final int ERROR_SAMPLE_LENGTH = 2000;
+
     private final TicketImportLogRepo logRepo;
     private final AuditLogService auditLogService;
 
@@ -19,22 +26,109 @@ public class TicketImportLogService {
         this.auditLogService = auditLogService;
     }
 
-    public void record(Event event, String username, TicketImportService.ImportResult result) {
+    /** Opens a QUEUED log for an upload spooled at {@code spoolPath}. */
+    public TicketImportLog queue(Event event, String username, String fileName, String spoolPath) {
         TicketImportLog log = new TicketImportLog();
         log.setEvent(event);
         log.setUsername(username);
+        log.setFileName(fileName);
+        log.setSpoolPath(spoolPath);
+        log.setStatus(TicketImportLog.Status.QUEUED);
+        return logRepo.save(log);
+    }
+
+    /**
+     * Takes a job for this node: true if it was QUEUED, or RUNNING without a report since
+     * {@code staleBefore}. The single conditional update is what keeps two nodes off one job.
+     */
+    @Transactional
+    public boolean claim(Long logId, LocalDateTime staleBefore) {
+        return logRepo.claim(logId, LocalDateTime.now(), staleBefore) == 1;
+    }
+
+    /** Marks jobs this node still holds as alive so other nodes do not fail or take them over. */
+    @Transactional
+    public void heartbeat(Collection<Long> logIds) {
+        if (!logIds.isEmpty()) {
+            logRepo.touch(logIds, LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    public void release(Long logId) {
+        logRepo.release(logId, LocalDateTime.now());
+    }
+
+    /** Fails a job nobody has reported on since {@code staleBefore}; false if it moved on meanwhile. */
+    @Transactional
+    public boolean failIfStale(Long logId, String message, LocalDateTime staleBefore) {
+        return logRepo.failIfStale(logId, truncate("Import failed: " + message), LocalDateTime.now(), staleBefore) == 1;
+    }
+
+    /**
+     * Records the running totals. Called inside each chunk's transaction, so the counts, which
+     * are also the resume checkpoint, commit together with the tickets they describe.
+     */
+    public void progress(Long logId, TicketImportService.ImportResult soFar) {
+        logRepo.findById(logId).ifPresent(log -> {
+            apply(log, soFar);
+            logRepo.save(log);
+        });
+    }
+
+    public void finish(Long logId, String username, TicketImportService.ImportResult result) {
+        logRepo.findById(logId).ifPresent(log -> {
+            apply(log, result);
+            log.setStatus(TicketImportLog.Status.COMPLETED);
+            log.setSpoolPath(null);
+            logRepo.save(log);
+        });
+        auditLogService.record(AuditLogEntry.Category.TICKET,
+                "Imported tickets: " + result.summaryMessage(),
+                username);
+    }
+
+    /** Marks the import as failed; counts already reported stay, as their chunks were committed. */
+    public void fail(Long logId, String message) {
+        logRepo.findById(logId).ifPresent(log -> {
+            log.setStatus(TicketImportLog.Status.FAILED);
+            log.setSpoolPath(null);
+            log.setErrorCount(log.getErrorCount() + 1);
+            log.setErrorSample(truncate("Import failed: " + message));
+            logRepo.save(log);
+        });
+    }
+
+    private void apply(TicketImportLog log, TicketImportService.ImportResult result) {
         log.setTotalRows(result.total());
         log.setImportedRows(result.created());
         log.setDuplicateRows(result.duplicates());
         log.setInvalidRows(result.invalid());
         log.setErrorCount(result.errors() != null ? result.errors().size() : 0);
         if (result.errors() != null && !result.errors().isEmpty()) {
-            log.setErrorSample(String.join(" | ", result.errors().size() > 3 ? result.errors().subList(0, 3) : result.errors()));
+            // Every message that fits, not just a preview: a resumed job reads them back through errors()
+            StringBuilder sample = new StringBuilder();
+            for (String error : result.errors()) {
+                int separator = sample.isEmpty() ? 0 : ERROR_SEPARATOR.length();
+                if (sample.length() + separator + error.length() > ERROR_SAMPLE_LENGTH) {
+                    break;
+                }
+                sample.append(separator > 0 ? ERROR_SEPARATOR : "").append(error);
+            }
+            log.setErrorSample(sample.isEmpty() ? truncate(result.errors().get(0)) : sample.toString());
         }
-        logRepo.save(log);
-        auditLogService.record(AuditLogEntry.Category.TICKET,
-                "Imported tickets: " + result.summaryMessage(),
-                username);
+    }
+
+    /** The error messages a job has recorded so far, as written by {@link #progress}. */
+    public List<String> errors(TicketImportLog log) {
+        if (log.getErrorSample() == null || log.getErrorSample().isEmpty()) {
+            return List.of();
+        }
+        return List.of(log.getErrorSample().split(Pattern.quote(ERROR_SEPARATOR)));
+    }
+
+    private static String truncate(String sample) {
+        return sample.length() > ERROR_SAMPLE_LENGTH ? sample.substring(0, ERROR_SAMPLE_LENGTH) : sample;
     }
 
     public List<TicketImportLog> recent(Event event, int limit) {
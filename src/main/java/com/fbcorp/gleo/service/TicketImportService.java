@@ -4,27 +4,48 @@ import com.fbcorp.gleo.domain.Event;
 import com.fbcorp.gleo.domain.Ticket;
 import com.fbcorp.gleo.domain.TierCode;
 import com.fbcorp.gleo.repo.TicketRepo;
+import com.fbcorp.gleo.service.TicketSheetRows.TicketRow;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
-import java.io.BufferedReader;
+import javax.sql.DataSource;
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class TicketImportService {
@@ -52,12 +73,46 @@ public class TicketImportService {
         }
     }
 
+    /**
+     * Called once per chunk with the running totals, inside the chunk's transaction: work done
+     * here commits or rolls back together with the chunk's tickets.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        ProgressListener NONE = soFar -> { };
+
+        void onChunk(ImportResult soFar);
+    }
+
     private static final int MAX_ERROR_MESSAGES = 10;
 
+    private static final String INSERT_TICKET_SQL =
+            "INSERT INTO tickets (id, event_id, qr_code, tier_code, holder_name, holder_phone, serial, active, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final TicketRepo ticketRepo;
+    private final SequenceIdAllocator idAllocator;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+    private final HotPathMetrics.Timer chunkTimer;
+    private final HotPathMetrics.Counter rowCounter;
 
-    public TicketImportService(TicketRepo ticketRepo) {
+    public TicketImportService(TicketRepo ticketRepo,
+                               SequenceIdAllocator idAllocator,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               HotPathMetrics metrics,
+                               @Value("${gleo.ticket-import.chunk-size:1000}") int chunkSize) {
         this.ticketRepo = ticketRepo;
+        this.idAllocator = idAllocator;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkTimer = metrics.timer("gleo_ticket_import_chunk_seconds",
+                "Import chunks checked and inserted, each in its own transaction");
+        this.rowCounter = metrics.counter("gleo_ticket_import_rows_total",
+                "Imported sheet rows by result", "result");
     }
 
     public byte[] generateCsvTemplate() {
@@ -68,68 +123,188 @@ public class TicketImportService {
         return template.getBytes(StandardCharsets.UTF_8);
     }
 
-    @Transactional
     public ImportResult importSheet(Event event, MultipartFile file) throws IOException {
-        List<RowValues> rows = extractRows(file);
-        if (rows.isEmpty()) {
-            return new ImportResult(0, 0, 0, 0, List.of("The uploaded file does not contain any data rows."));
+        try (InputStream in = file.getInputStream()) {
+            return importSheet(event, file.getOriginalFilename(), in, null, ProgressListener.NONE);
         }
+    }
 
-        Set<String> existingQrCodes = ticketRepo.findByEvent(event).stream()
-                .map(ticket -> ticket.getQrCode() != null ? ticket.getQrCode().trim() : "")
-                .filter(code -> !code.isBlank())
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<String> seenInUpload = new HashSet<>();
-        List<Ticket> toPersist = new ArrayList<>();
-        int duplicates = 0;
-        int invalid = 0;
-        List<String> errors = new ArrayList<>();
-
-        for (RowValues row : rows) {
-            String qr = trimToNull(row.qrCode());
-            if (qr == null) {
-                invalid++;
-                appendError(errors, row.index(), "Missing QR code.");
-                continue;
+    /**
+     * Imports rows as they are read, {@code gleo.ticket-import.chunk-size} at a time. Each chunk
+     * is checked against existing QR codes and batch-inserted in its own transaction, so a
+     * failure part-way keeps the chunks before it.
+     *
+     * @param resumeFrom totals reported for the last committed chunk of an earlier, interrupted
+     *                   run over the same file; its rows are skipped. {@code null} to start fresh.
+     */
+    public ImportResult importSheet(Event event, String filename, InputStream in,
+                                    ImportResult resumeFrom, ProgressListener listener) throws IOException {
+        return run(event, resumeFrom, listener, sink -> {
+            if (isXlsx(filename)) {
+                readXlsx(OPCPackage.open(in), sink);
+            } else {
+                readStream(filename, in, sink);
             }
-            if (!seenInUpload.add(qr)) {
-                duplicates++;
-                appendError(errors, row.index(), "Duplicate QR code inside file: " + qr);
-                continue;
+        });
+    }
+
+    /** As {@link #importSheet(Event, String, InputStream, ImportResult, ProgressListener)}, reading a file on disk. */
+    public ImportResult importFile(Event event, Path file, String filename,
+                                   ImportResult resumeFrom, ProgressListener listener) throws IOException {
+        return run(event, resumeFrom, listener, sink -> {
+            if (isXlsx(filename)) {
+                // Opening from a file lets POI read zip entries in place instead of buffering them
+                readXlsx(OPCPackage.open(file.toFile(), PackageAccess.READ), sink);
+            } else {
+                try (InputStream in = Files.newInputStream(file)) {
+                    readStream(filename, in, sink);
+                }
             }
-            if (existingQrCodes.contains(qr)) {
-                duplicates++;
-                continue;
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void read(Consumer<TicketRow> sink) throws IOException, InvalidFormatException;
+    }
+
+    private ImportResult run(Event event, ImportResult resumeFrom, ProgressListener listener, RowSource source) throws IOException {
+        ChunkedImport run = new ChunkedImport(event, resumeFrom, listener);
+        try {
+            source.read(run::accept);
+        } catch (InvalidFormatException ex) {
+            throw new IOException("Unreadable workbook: " + ex.getMessage(), ex);
+        }
+        run.flush();
+        if (run.total == 0) {
+            return new ImportResult(0, 0, 0, 0, List.of("The uploaded file does not contain any data rows."));
+        }
+        return run.result();
+    }
+
+    private static boolean isXlsx(String filename) {
+        return filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    private void readStream(String filename, InputStream in, Consumer<TicketRow> sink) throws IOException {
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".xls")) {
+            readXls(in, sink);
+        } else {
+            TicketSheetRows.readCsv(in, sink);
+        }
+    }
+
+    private final class ChunkedImport {
+        private final Event event;
+        private final ProgressListener listener;
+        // Every QR seen so far; needed to catch duplicates that land in different chunks
+        private final Set<String> seenInUpload = new HashSet<>();
+        private final List<TicketRow> pending = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int created;
+        private int duplicates;
+        private int invalid;
+        private int total;
+        private int toSkip;
+
+        ChunkedImport(Event event, ImportResult resumeFrom, ProgressListener listener) {
+            this.event = event;
+            this.listener = listener;
+            if (resumeFrom != null) {
+                created = resumeFrom.created();
+                duplicates = resumeFrom.duplicates();
+                invalid = resumeFrom.invalid();
+                total = resumeFrom.total();
+                toSkip = resumeFrom.total();
+                errors.addAll(resumeFrom.errors());
             }
+        }
 
-            TierCode tierCode;
-            try {
-                tierCode = parseTier(row.tier());
-            } catch (IllegalArgumentException ex) {
-                invalid++;
-                appendError(errors, row.index(), "Unknown tier '" + row.tier() + "'. Expected one of " + java.util.Arrays.toString(TierCode.values()));
-                continue;
+        void accept(TicketRow row) {
+            if (toSkip > 0) {
+                // Already imported; only remember its QR for in-file duplicate checks
+                toSkip--;
+                String qr = trimToNull(row.qrCode());
+                if (qr != null) {
+                    seenInUpload.add(qr);
+                }
+                return;
+            }
+            total++;
+            pending.add(row);
+            if (pending.size() >= chunkSize) {
+                flush();
             }
+        }
 
-            Ticket ticket = new Ticket();
-            ticket.setEvent(event);
-            ticket.setQrCode(qr);
-            ticket.setTierCode(tierCode);
-            ticket.setHolderName(trimToNull(row.holderName()));
-            ticket.setHolderPhone(trimToNull(row.phone()));
-            ticket.setSerial(trimToNull(row.serial()));
-            ticket.setActive(true);
-
-            toPersist.add(ticket);
-            existingQrCodes.add(qr);
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            int createdBefore = created;
+            int duplicatesBefore = duplicates;
+            int invalidBefore = invalid;
+            List<TicketRow> candidates = new ArrayList<>(pending.size());
+            for (TicketRow row : pending) {
+                String qr = trimToNull(row.qrCode());
+                if (qr == null) {
+                    invalid++;
+                    appendError(errors, row.index(), "Missing QR code.");
+                } else if (!seenInUpload.add(qr)) {
+                    duplicates++;
+                    appendError(errors, row.index(), "Duplicate QR code inside file: " + qr);
+                } else {
+                    candidates.add(row);
+                }
+            }
+            pending.clear();
+            chunkTx.executeWithoutResult(status -> {
+                if (!candidates.isEmpty()) {
+                    created += insertNew(candidates);
+                }
+                listener.onChunk(result());
+            });
+            chunkTimer.record(started);
+            rowCounter.add(created - createdBefore, "created");
+            rowCounter.add(duplicates - duplicatesBefore, "duplicate");
+            rowCounter.add(invalid - invalidBefore, "invalid");
         }
 
-        if (!toPersist.isEmpty()) {
-            ticketRepo.saveAll(toPersist);
+        private int insertNew(List<TicketRow> candidates) {
+            Set<String> existing = new HashSet<>(ticketRepo.findExistingQrCodes(
+                    candidates.stream().map(row -> row.qrCode().trim()).toList()));
+            List<Object[]> batch = new ArrayList<>(candidates.size());
+            for (TicketRow row : candidates) {
+                String qr = row.qrCode().trim();
+                if (existing.contains(qr)) {
+                    duplicates++;
+                    continue;
+                }
+                TierCode tierCode;
+                try {
+                    tierCode = parseTier(row.tier());
+                } catch (IllegalArgumentException ex) {
+                    invalid++;
+                    appendError(errors, row.index(), "Unknown tier '" + row.tier() + "'. Expected one of " + java.util.Arrays.toString(TierCode.values()));
+                    continue;
+                }
+                batch.add(new Object[]{null, event.getId(), qr, tierCode.name(), trimToNull(row.holderName()),
+                        trimToNull(row.phone()), trimToNull(row.serial()), true, LocalDateTime.now()});
+            }
+            if (!batch.isEmpty()) {
+                long[] ids = idAllocator.allocate(Ticket.class, batch.size());
+                for (int i = 0; i < ids.length; i++) {
+                    batch.get(i)[0] = ids[i];
+                }
+                jdbc.batchUpdate(INSERT_TICKET_SQL, batch);
+            }
+            return batch.size();
         }
 
-        return new ImportResult(toPersist.size(), duplicates, invalid, rows.size(), errors);
+        ImportResult result() {
+            return new ImportResult(created, duplicates, invalid, total, List.copyOf(errors));
+        }
     }
 
     private TierCode parseTier(String tierRaw) {
@@ -147,130 +322,77 @@ public class TicketImportService {
         errors.add("Row " + row + ": " + message);
     }
 
-    private List<RowValues> extractRows(MultipartFile file) throws IOException {
-        String filename = file.getOriginalFilename();
-        String lowercase = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
-        if (lowercase.endsWith(".xlsx") || lowercase.endsWith(".xls")) {
-            return extractFromWorkbook(file.getInputStream());
-        }
-        return extractFromCsv(file.getInputStream());
-    }
-
-    private List<RowValues> extractFromCsv(InputStream inputStream) throws IOException {
-        List<RowValues> rows = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            String line;
-            int index = 0;
-            while ((line = reader.readLine()) != null) {
-                index++;
-                if (line.isBlank()) {
-                    continue;
-                }
-                if (line.trim().startsWith("#")) {
-                    continue;
-                }
-                List<String> cells = splitCsvLine(line);
-                if (isHeaderRow(cells)) {
-                    continue;
-                }
-                rows.add(toRowValues(index, cells));
+    /** Reads the first sheet with POI's SAX event API, so rows are never all held in memory. */
+    private void readXlsx(OPCPackage pkg, Consumer<TicketRow> sink) throws IOException {
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
             }
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                    new ReadOnlySharedStringsTable(pkg), new SheetRows(sink), new DataFormatter(), false));
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException ex) {
+            throw new IOException("Unreadable workbook: " + ex.getMessage(), ex);
+        } finally {
+            // Read-only use: close without writing anything back
+            pkg.revert();
         }
-        return rows;
     }
 
-    private List<RowValues> extractFromWorkbook(InputStream inputStream) throws IOException {
-        List<RowValues> rows = new ArrayList<>();
+    /** Legacy .xls files have no streaming reader worth the complexity; they are small in practice. */
+    private void readXls(InputStream inputStream, Consumer<TicketRow> sink) throws IOException {
         try (Workbook workbook = WorkbookFactory.create(inputStream)) {
             if (workbook.getNumberOfSheets() == 0) {
-                return rows;
+                return;
             }
             Sheet sheet = workbook.getSheetAt(0);
             DataFormatter formatter = new DataFormatter();
-            int index = 0;
             for (Row row : sheet) {
-                index++;
                 List<String> cells = new ArrayList<>();
                 int cellCount = Math.max(5, row.getLastCellNum());
                 for (int i = 0; i < cellCount; i++) {
                     var cell = row.getCell(i);
-                    String value = cell != null ? formatter.formatCellValue(cell) : "";
-                    cells.add(value);
-                }
-                if (cells.stream().allMatch(String::isBlank)) {
-                    continue;
-                }
-                if (isHeaderRow(cells)) {
-                    continue;
+                    cells.add(cell != null ? formatter.formatCellValue(cell) : "");
                 }
-                rows.add(toRowValues(index, cells));
+                TicketSheetRows.acceptCells(row.getRowNum() + 1, cells, sink);
             }
         }
-        return rows;
     }
 
-    private boolean isHeaderRow(List<String> cells) {
-        if (cells.isEmpty()) {
-            return false;
-        }
-        String first = cells.get(0);
-        if (first == null) {
-            return false;
-        }
-        String normalized = first.trim().replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
-        if (normalized.equals("qr") || normalized.equals("qrcode")) {
-            return true;
-        }
-        if (cells.size() > 1) {
-            String second = cells.get(1);
-            if (second != null) {
-                String secondNorm = second.trim().replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
-                return secondNorm.equals("tier") || secondNorm.equals("tiercode");
-            }
-        }
-        return false;
-    }
+    private final class SheetRows implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Consumer<TicketRow> sink;
+        private final List<String> cells = new ArrayList<>();
 
-    private RowValues toRowValues(int index, List<String> cells) {
-        String qr = getCell(cells, 0);
-        String tier = getCell(cells, 1);
-        String name = getCell(cells, 2);
-        String phone = getCell(cells, 3);
-        String serial = getCell(cells, 4);
-        return new RowValues(index, qr, tier, name, phone, serial);
-    }
+        SheetRows(Consumer<TicketRow> sink) {
+            this.sink = sink;
+        }
 
-    private String getCell(List<String> cells, int idx) {
-        if (idx < 0 || idx >= cells.size()) {
-            return "";
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
         }
-        return Objects.toString(cells.get(idx), "");
-    }
 
-    private List<String> splitCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean insideQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (insideQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    current.append('"');
-                    i++;
-                } else {
-                    insideQuotes = !insideQuotes;
-                }
-            } else if (c == ',' && !insideQuotes) {
-                result.add(current.toString());
-                current.setLength(0);
-            } else {
-                current.append(c);
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() <= column) {
+                cells.add("");
             }
+            cells.set(column, formattedValue != null ? formattedValue : "");
         }
-        result.add(current.toString());
 
-        return result.stream().map(String::trim).toList();
+        @Override
+        public void endRow(int rowNum) {
+            while (cells.size() < 5) {
+                cells.add("");
+            }
+            TicketSheetRows.acceptCells(rowNum + 1, List.copyOf(cells), sink);
+        }
     }
 
     private String trimToNull(String value) {
@@ -280,6 +402,4 @@ public class TicketImportService {
         String trimmed = value.trim();
         return trimmed.isEmpty() ? null : trimmed;
     }
-
-    private record RowValues(int index, String qrCode, String tier, String holderName, String phone, String serial) {}
 }
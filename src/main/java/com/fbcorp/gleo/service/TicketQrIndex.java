@@ -0,0 +1,344 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.Ticket;
+import com.fbcorp.gleo.domain.TierCode;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.TicketRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of every ticket's QR code, so a scan of a known code costs a single primary-key
+ * load instead of a lookup by code.
+ * <p>
+ * Each event's codes live in an open-addressing table of 64-bit fingerprints next to the ticket
+ * id and a byte of tier and active flags: 17 bytes a slot at no more than half load, instead of a
+ * map entry and a string per ticket. Tickets added since the table was built sit in a small
+ * overlay that is folded in by the next rebuild. A fingerprint match is only a candidate: callers confirm it against the loaded
+ * ticket and fall back to {@link TicketRepo#findByQrCode} when it does not match.
+ * <p>
+ * All events are indexed once the application is ready and every
+ * {@code gleo.ticket-index.refresh-interval} the index picks up tickets other nodes inserted or
+ * changed, by {@code updated_at}. Writers on this node keep it current in between through
+ * {@link #put}, {@link #onEventDeleted} and {@link #beginBulkChange}/{@link #endBulkChange}. Another
+ * node's writes can still be a refresh away, so a miss is reported as {@link Verdict#UNKNOWN} and
+ * callers look the code up in the database before rejecting it.
+ */
+@Service
+public class TicketQrIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketQrIndex.class);
+
+    public enum Verdict { FOUND, UNKNOWN }
+
+    public record Entry(long ticketId, long eventId, TierCode tierCode, boolean active) {
+    }
+
+    public record Lookup(Verdict verdict, Entry entry) {
+        static final Lookup UNKNOWN = new Lookup(Verdict.UNKNOWN, null);
+    }
+
+    // Overlay marker for a code whose ticket turned out not to exist (e.g. a rolled-back insert)
+    private static final Entry REMOVED = new Entry(-1, -1, null, false);
+
+    // Catch-ups reread this much before the newest change seen, for writers' clock skew and commit lag
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    private final TicketRepo ticketRepo;
+    private final EventRepo eventRepo;
+    private final ConcurrentMap<Long, EventIndex> events = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicInteger> bulkChanges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final long refreshMillis;
+    private volatile boolean loaded;
+
+    public TicketQrIndex(TicketRepo ticketRepo,
+                         EventRepo eventRepo,
+                         @Value("${gleo.ticket-index.refresh-interval:1m}") Duration refreshInterval) {
+        this.ticketRepo = ticketRepo;
+        this.eventRepo = eventRepo;
+        this.refreshMillis = refreshInterval.isNegative() ? 0 : refreshInterval.toMillis();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gleo-ticket-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresher.execute(this::refreshQuietly);
+        if (refreshMillis > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /** Looks the code up in the event's index first, then in the other events'. */
+    public Lookup lookup(Event event, String qrCode) {
+        long key = fingerprint(qrCode);
+        EventIndex own = indexFor(event);
+        Entry entry = own.get(key);
+        if (entry == null) {
+            for (EventIndex other : events.values()) {
+                if (other != own && (entry = other.get(key)) != null) {
+                    break;
+                }
+            }
+        }
+        return entry != null ? new Lookup(Verdict.FOUND, entry) : Lookup.UNKNOWN;
+    }
+
+    /** Records a ticket written on this node; call again after deactivating it. */
+    public void put(Ticket ticket) {
+        EventIndex index = events.get(ticket.getEvent().getId());
+        if (index != null && ticket.getId() != null) {
+            index.recent.put(fingerprint(ticket.getQrCode()),
+                    new Entry(ticket.getId(), index.eventId, ticket.getTierCode(), ticket.isActive()));
+        }
+    }
+
+    /** Drops a candidate whose ticket no longer exists, so the code reads as absent. */
+    public void discard(String qrCode) {
+        long key = fingerprint(qrCode);
+        for (EventIndex index : events.values()) {
+            if (index.table.get(key, index.eventId) != null) {
+                index.recent.put(key, REMOVED);
+            } else {
+                index.recent.remove(key);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        events.remove(event.eventId());
+    }
+
+    /** Marks the start of an import whose tickets are written without going through {@link #put}. */
+    public void beginBulkChange(Event event) {
+        bulkChanges.computeIfAbsent(event.getId(), id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /** Rebuilds the event's index once its last running bulk change has ended. */
+    public void endBulkChange(Event event) {
+        EventIndex index = events.get(event.getId());
+        try {
+            if (index != null) {
+                rebuild(index);
+            }
+        } catch (Exception ex) {
+            // Dropping the index makes the next lookup for the event rebuild it
+            events.remove(event.getId(), index);
+            log.warn("Could not rebuild the QR index of event {}: {}", event.getCode(), ex.getMessage());
+        } finally {
+            // Misses stay UNKNOWN until the rebuild above has the imported tickets
+            AtomicInteger running = bulkChanges.get(event.getId());
+            if (running != null && running.decrementAndGet() <= 0) {
+                bulkChanges.remove(event.getId(), running);
+            }
+        }
+    }
+
+    void refresh() {
+        Map<Long, String> codes = new HashMap<>();
+        eventRepo.findAll().forEach(event -> codes.put(event.getId(), event.getCode()));
+        events.keySet().retainAll(codes.keySet());
+        codes.forEach((eventId, code) -> {
+            EventIndex index = events.get(eventId);
+            if (index == null) {
+                indexFor(eventId, code);
+            } else if (!bulkChanges.containsKey(eventId)) {
+                catchUp(index);
+            }
+        });
+        if (!loaded) {
+            loaded = true;
+            log.info("Indexed {} ticket QR codes across {} events",
+                    events.values().stream().mapToInt(index -> index.table.size).sum(), events.size());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception ex) {
+            log.warn("Ticket QR index refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    private EventIndex indexFor(Event event) {
+        return indexFor(event.getId(), event.getCode());
+    }
+
+    private EventIndex indexFor(Long eventId, String eventCode) {
+        EventIndex index = events.get(eventId);
+        if (index != null) {
+            return index;
+        }
+        synchronized (events) {
+            index = events.get(eventId);
+            if (index == null) {
+                index = new EventIndex(eventId, eventCode);
+                rebuild(index);
+                events.put(eventId, index);
+            }
+            return index;
+        }
+    }
+
+    private void rebuild(EventIndex index) {
+        synchronized (index) {
+            LocalDateTime readAt = LocalDateTime.now();
+            List<TicketRepo.QrIndexRow> rows = ticketRepo.findQrIndexRows(index.eventId);
+            QrTable table = QrTable.of(rows);
+            index.table = table;
+            // Keep overlay entries for codes the table lacks; they may not be committed yet
+            index.recent.entrySet().removeIf(overlay -> overlay.getValue() == REMOVED
+                    || table.get(overlay.getKey(), index.eventId) != null);
+            rows.forEach(row -> index.advanceTo(row.getUpdatedAt()));
+            if (index.changedThrough == null) {
+                index.changedThrough = readAt;
+            }
+        }
+    }
+
+    private void catchUp(EventIndex index) {
+        synchronized (index) {
+            List<TicketRepo.QrIndexRow> rows = ticketRepo.findQrIndexRowsUpdatedAfter(
+                    index.eventId, index.changedThrough.minus(CATCH_UP_OVERLAP));
+            for (TicketRepo.QrIndexRow row : rows) {
+                index.recent.put(fingerprint(row.getQrCode()),
+                        new Entry(row.getId(), index.eventId, row.getTierCode(), row.isActive()));
+                index.advanceTo(row.getUpdatedAt());
+            }
+            if (index.recent.size() > Math.max(256, index.table.size / 8)) {
+                rebuild(index);
+            }
+        }
+    }
+
+    /** FNV-1a over the UTF-16 chars with a murmur3 finalizer; zero marks an empty slot. */
+    static long fingerprint(String qrCode) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < qrCode.length(); i++) {
+            hash ^= qrCode.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash != 0 ? hash : 1;
+    }
+
+    private static final class EventIndex {
+        final long eventId;
+        final String eventCode;
+        final ConcurrentMap<Long, Entry> recent = new ConcurrentHashMap<>();
+        volatile QrTable table = QrTable.EMPTY;
+        // Newest updated_at read so far; guarded by the index's monitor
+        LocalDateTime changedThrough;
+
+        EventIndex(long eventId, String eventCode) {
+            this.eventId = eventId;
+            this.eventCode = eventCode;
+        }
+
+        void advanceTo(LocalDateTime updatedAt) {
+            if (updatedAt != null && (changedThrough == null || updatedAt.isAfter(changedThrough))) {
+                changedThrough = updatedAt;
+            }
+        }
+
+        Entry get(long key) {
+            Entry entry = recent.get(key);
+            if (entry != null) {
+                return entry == REMOVED ? null : entry;
+            }
+            return table.get(key, eventId);
+        }
+    }
+
+    /** Immutable linear-probing table kept at most half full. */
+    static final class QrTable {
+        static final QrTable EMPTY = new QrTable(0, new long[1], new long[1], new byte[1]);
+
+        private static final int ACTIVE = 1;
+        private static final TierCode[] TIERS = TierCode.values();
+
+        final int size;
+        private final long[] keys;
+        private final long[] ticketIds;
+        private final byte[] flags;
+        private final int mask;
+
+        private QrTable(int size, long[] keys, long[] ticketIds, byte[] flags) {
+            this.size = size;
+            this.keys = keys;
+            this.ticketIds = ticketIds;
+            this.flags = flags;
+            this.mask = keys.length - 1;
+        }
+
+        static QrTable of(List<TicketRepo.QrIndexRow> rows) {
+            if (rows.isEmpty()) {
+                return EMPTY;
+            }
+            int capacity = Integer.highestOneBit(Math.max(2, rows.size() * 2 - 1)) << 1;
+            long[] keys = new long[capacity];
+            long[] ticketIds = new long[capacity];
+            byte[] flags = new byte[capacity];
+            int size = 0;
+            for (TicketRepo.QrIndexRow row : rows) {
+                long key = fingerprint(row.getQrCode());
+                int slot = (int) key & (capacity - 1);
+                while (keys[slot] != 0 && keys[slot] != key) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                if (keys[slot] == 0) {
+                    keys[slot] = key;
+                    ticketIds[slot] = row.getId();
+                    int tier = row.getTierCode() != null ? row.getTierCode().ordinal() + 1 : 0;
+                    flags[slot] = (byte) ((tier << 1) | (row.isActive() ? ACTIVE : 0));
+                    size++;
+                }
+            }
+            return new QrTable(size, keys, ticketIds, flags);
+        }
+
+        Entry get(long key, long eventId) {
+            for (int slot = (int) key & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    int tier = flags[slot] >> 1;
+                    return new Entry(ticketIds[slot], eventId, tier > 0 ? TIERS[tier - 1] : null, (flags[slot] & ACTIVE) != 0);
+                }
+            }
+            return null;
+        }
+    }
+}
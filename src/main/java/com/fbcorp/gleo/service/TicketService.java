@@ -4,31 +4,98 @@ import com.fbcorp.gleo.domain.Event;
 import com.fbcorp.gleo.domain.Ticket;
 import com.fbcorp.gleo.domain.TierCode;
 import com.fbcorp.gleo.repo.TicketRepo;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Resolves and binds guest tickets.
+ * <p>
+ * Device hashes are normalized once, when a ticket is bound, so a device resolves to its active
+ * ticket with a single lookup on {@code (event_id, bound_device_hash)}. Bindings never move to
+ * another device, so the last {@code gleo.ticket.device-cache-size} device→ticket pairs are cached
+ * as they are bound or looked up. A cached pair is only a hint: tickets can be deactivated or
+ * deleted on any node, so a hit is confirmed by primary key before it is trusted.
+ */
 @Service
 public class TicketService {
     private final TicketRepo ticketRepo;
     private final EventPolicyService policyService;
+    private final TicketQrIndex qrIndex;
+    private final Map<String, Long> deviceTickets;
+    private final HotPathMetrics.Timer bindTimer;
 
-    public TicketService(TicketRepo ticketRepo, EventPolicyService policyService) {
+    public TicketService(TicketRepo ticketRepo,
+                         EventPolicyService policyService,
+                         TicketQrIndex qrIndex,
+                         HotPathMetrics metrics,
+                         @Value("${gleo.ticket.device-cache-size:50000}") int deviceCacheSize) {
         this.ticketRepo = ticketRepo;
         this.policyService = policyService;
+        this.qrIndex = qrIndex;
+        int capacity = Math.max(1, deviceCacheSize);
+        this.deviceTickets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.bindTimer = metrics.timer("gleo_ticket_bind_seconds",
+                "Ticket validations and device bindings by outcome", "outcome");
+    }
+
+    /** Id of the ticket bound to the device, answered from the cache when possible. */
+    public Optional<Long> findTicketIdForDevice(String eventCode, String deviceHash){
+        String device = normalizeDeviceHash(deviceHash);
+        if (device == null) {
+            return Optional.empty();
+        }
+        Long cached = cachedTicketId(eventCode, device);
+        if (cached != null) {
+            if (ticketRepo.existsByIdAndBoundDeviceHashAndActiveTrue(cached, device)) {
+                return Optional.of(cached);
+            }
+            evictDevice(eventCode, device);
+        }
+        return lookupDevice(eventCode, device).map(Ticket::getId);
     }
 
     public Optional<Ticket> findTicketForDevice(String eventCode, String deviceHash){
-        if (deviceHash == null || deviceHash.isBlank()) {
+        String device = normalizeDeviceHash(deviceHash);
+        if (device == null) {
             return Optional.empty();
         }
-        String normalized = sanitizeDeviceHash(deviceHash);
-        return ticketRepo.findByEvent_CodeAndBoundDeviceHash(eventCode, deviceHash)
-                .or(() -> ticketRepo.findByEvent_CodeAndBoundDeviceHash(eventCode, normalized));
+        Long cached = cachedTicketId(eventCode, device);
+        if (cached != null) {
+            Optional<Ticket> ticket = ticketRepo.findById(cached)
+                    .filter(t -> t.isActive() && device.equals(t.getBoundDeviceHash())
+                            && eventCode.equals(t.getEvent().getCode()));
+            if (ticket.isPresent()) {
+                return ticket;
+            }
+            evictDevice(eventCode, device);
+        }
+        return lookupDevice(eventCode, device);
+    }
+
+    /** Drops cached bindings of a deleted event. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        String prefix = event.eventCode() + '/';
+        synchronized (deviceTickets) {
+            deviceTickets.keySet().removeIf(key -> key.startsWith(prefix));
+        }
     }
 
     public Optional<Ticket> findTicketByIdAndEvent(Long ticketId, String eventCode) {
@@ -39,20 +106,46 @@ public class TicketService {
     }
 
     public Ticket validateAndBind(String eventCode, String qrCode, String deviceHash){
-        Ticket t = ticketRepo.findByQrCode(qrCode)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket not found"));
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            Ticket ticket = bind(eventCode, qrCode, deviceHash);
+            outcome = "bound";
+            return ticket;
+        } catch (ResponseStatusException ex) {
+            outcome = ex.getStatusCode().value() == HttpStatus.NOT_FOUND.value() ? "not_found" : "refused";
+            throw ex;
+        } finally {
+            bindTimer.record(started, outcome);
+        }
+    }
+
+    private Ticket bind(String eventCode, String qrCode, String deviceHash){
         Event e = policyService.get(eventCode);
+        Ticket t = findByQrCode(e, qrCode)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket not found"));
         if (!t.getEvent().getId().equals(e.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Ticket not for this event");
         }
         if (!t.isActive()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Ticket inactive");
         }
-        if (t.getBoundDeviceHash() == null) {
-            t.setBoundDeviceHash(deviceHash);
-            ticketRepo.save(t);
-        } else if (!t.getBoundDeviceHash().equals(deviceHash)) {
+        String device = normalizeDeviceHash(deviceHash);
+        String bound = t.getBoundDeviceHash();
+        if (bound == null) {
+            if (device != null) {
+                t.setBoundDeviceHash(device);
+                ticketRepo.save(t);
+            }
+        } else if (!bound.equals(device) && !Objects.equals(normalizeDeviceHash(bound), device)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Ticket bound to another device");
+        } else if (!bound.equals(device)) {
+            // Bound before hashes were normalized; store the normalized form so device lookups find it
+            t.setBoundDeviceHash(device);
+            ticketRepo.save(t);
+        }
+        if (device != null) {
+            cacheDevice(eventCode, device, t.getId());
         }
         return t;
     }
@@ -68,7 +161,7 @@ public class TicketService {
         Event event = policyService.get(eventCode);
         String safeHash = sanitizeDeviceHash(deviceHash);
         String qrCode = ("WALKIN-" + event.getCode() + "-" + safeHash).toUpperCase(Locale.ROOT);
-        return ticketRepo.findByQrCode(qrCode).orElseGet(() -> {
+        return findByQrCode(event, qrCode).orElseGet(() -> {
             Ticket t = new Ticket();
             t.setEvent(event);
             t.setQrCode(qrCode);
@@ -77,13 +170,77 @@ public class TicketService {
             t.setSerial(("WALKIN-" + safeHash).toUpperCase(Locale.ROOT));
             t.setActive(true);
             t.setBoundDeviceHash(safeHash);
-            return ticketRepo.save(t);
+            Ticket saved = ticketRepo.save(t);
+            qrIndex.put(saved);
+            cacheDevice(eventCode, safeHash, saved.getId());
+            return saved;
         });
     }
 
-    private String sanitizeDeviceHash(String deviceHash){
+    /** Resolves a QR code through the index, loading a candidate by id and anything else by code. */
+    private Optional<Ticket> findByQrCode(Event event, String qrCode){
+        TicketQrIndex.Lookup lookup = qrIndex.lookup(event, qrCode);
+        if (lookup.verdict() == TicketQrIndex.Verdict.FOUND) {
+            Optional<Ticket> candidate = ticketRepo.findById(lookup.entry().ticketId());
+            if (candidate.isPresent() && qrCode.equals(candidate.get().getQrCode())) {
+                return candidate;
+            }
+            if (candidate.isEmpty()) {
+                qrIndex.discard(qrCode);
+            }
+        }
+        Optional<Ticket> ticket = ticketRepo.findByQrCode(qrCode);
+        ticket.ifPresent(qrIndex::put);
+        return ticket;
+    }
+
+    private Optional<Ticket> lookupDevice(String eventCode, String device){
+        Long eventId = policyService.snapshot(eventCode).eventId();
+        Optional<Ticket> ticket = ticketRepo.findByEvent_IdAndBoundDeviceHashAndActiveTrue(eventId, device);
+        ticket.ifPresent(t -> cacheDevice(eventCode, device, t.getId()));
+        return ticket;
+    }
+
+    private Long cachedTicketId(String eventCode, String device){
+        synchronized (deviceTickets) {
+            return deviceTickets.get(eventCode + '/' + device);
+        }
+    }
+
+    private void evictDevice(String eventCode, String device){
+        synchronized (deviceTickets) {
+            deviceTickets.remove(eventCode + '/' + device);
+        }
+    }
+
+    /** Caches the binding once the surrounding transaction, if any, has committed it. */
+    private void cacheDevice(String eventCode, String device, Long ticketId){
+        Runnable put = () -> {
+            synchronized (deviceTickets) {
+                deviceTickets.put(eventCode + '/' + device, ticketId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put.run();
+                }
+            });
+        } else {
+            put.run();
+        }
+    }
+
+    /** Lower-case alphanumerics of the hash, or {@code null} when nothing is left. */
+    private static String normalizeDeviceHash(String deviceHash){
         String normalized = deviceHash != null ? deviceHash.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "") : "";
-        if (normalized.isEmpty()) {
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private String sanitizeDeviceHash(String deviceHash){
+        String normalized = normalizeDeviceHash(deviceHash);
+        if (normalized == null) {
             normalized = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
         }
         return normalized;
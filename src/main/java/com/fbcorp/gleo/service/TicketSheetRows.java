@@ -0,0 +1,122 @@
+package com.fbcorp.gleo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Turns the cells of an uploaded ticket sheet into {@link TicketRow}s, whatever format they came
+ * from: columns are QR, tier, holder name, phone and serial, and blank and header rows are
+ * skipped. Reads CSV itself; {@link TicketImportService} feeds it cells from Excel workbooks.
+ */
+final class TicketSheetRows {
+
+    /** One data row; {@code index} is its 1-based line or row number in the sheet, for error messages. */
+    record TicketRow(int index, String qrCode, String tier, String holderName, String phone, String serial) {}
+
+    private TicketSheetRows() {}
+
+    /** Streams a UTF-8 CSV sheet; lines starting with {@code #} are comments, as in the template. */
+    static void readCsv(InputStream inputStream, Consumer<TicketRow> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        int index = 0;
+        while ((line = reader.readLine()) != null) {
+            index++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.trim().startsWith("#")) {
+                continue;
+            }
+            List<String> cells = splitCsvLine(line);
+            if (isHeaderRow(cells)) {
+                continue;
+            }
+            sink.accept(toRow(index, cells));
+        }
+    }
+
+    /** Passes on a spreadsheet row unless it is blank or a header. */
+    static void acceptCells(int index, List<String> cells, Consumer<TicketRow> sink) {
+        if (cells.stream().allMatch(String::isBlank)) {
+            return;
+        }
+        if (isHeaderRow(cells)) {
+            return;
+        }
+        sink.accept(toRow(index, cells));
+    }
+
+    /** Splits one CSV line on commas outside double quotes; {@code ""} inside quotes is a quote. */
+    static List<String> splitCsvLine(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean insideQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (insideQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    insideQuotes = !insideQuotes;
+                }
+            } else if (c == ',' && !insideQuotes) {
+                result.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        result.add(current.toString());
+
+        return result.stream().map(String::trim).toList();
+    }
+
+    private static boolean isHeaderRow(List<String> cells) {
+        if (cells.isEmpty()) {
+            return false;
+        }
+        String first = cells.get(0);
+        if (first == null) {
+            return false;
+        }
+        String normalized = first.trim().replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+        if (normalized.equals("qr") || normalized.equals("qrcode")) {
+            return true;
+        }
+        if (cells.size() > 1) {
+            String second = cells.get(1);
+            if (second != null) {
+                String secondNorm = second.trim().replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+                return secondNorm.equals("tier") || secondNorm.equals("tiercode");
+            }
+        }
+        return false;
+    }
+
+    private static TicketRow toRow(int index, List<String> cells) {
+        String qr = getCell(cells, 0);
+        String tier = getCell(cells, 1);
+        String name = getCell(cells, 2);
+        String phone = getCell(cells, 3);
+        String serial = getCell(cells, 4);
+        return new TicketRow(index, qr, tier, name, phone, serial);
+    }
+
+    private static String getCell(List<String> cells, int idx) {
+        if (idx < 0 || idx >= cells.size()) {
+            return "";
+        }
+        return Objects.toString(cells.get(idx), "");
+    }
+}
@@ -0,0 +1,447 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Order;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.domain.VendorBoardVersion;
+import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.repo.VendorBoardVersionRepo;
+import com.fbcorp.gleo.websocket.BoardDeltaMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory usher board state, one board per vendor.
+ * <p>
+ * A board is loaded from the database the first time it is viewed and is then kept current
+ * from {@link OrderChangedEvent}s after each commit. Every change is pushed to the vendor's
+ * topic and the event-wide topic as a {@link BoardDeltaMessage}, so tablets only fetch
+ * the card that changed instead of re-querying and re-rendering the whole board.
+ * Completed and cancelled columns keep the most recent cards only.
+ * <p>
+ * The after-commit listener only queues the card, so a committing request never waits on a board
+ * or opens another connection. A single worker thread applies queued cards every
+ * {@code gleo.usher-board.apply-interval} and then, outside any board's lock, reserves versions
+ * for all of them in one transaction. Deltas that cannot be numbered yet wait on their board and
+ * are retried; none are sent unnumbered.
+ * <p>
+ * Events only reach the node that made the change, so delta versions come from the shared
+ * {@link VendorBoardVersion} row. A node that gets versions other than the ones after its own
+ * knows another node moved the board on; so does a view that finds the stored version ahead of
+ * the board. Either way the board is reloaded from the database on the next view, which is also
+ * what a tablet asks for when it sees a gap in the versions. A change dropped on a full queue
+ * leaves such a gap on purpose.
+ */
+@Service
+public class UsherBoardService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsherBoardService.class);
+
+    public record BoardItem(String name, int qty) { }
+
+    /** Immutable, render-ready copy of an order for the usher board. */
+    public record BoardCard(Long orderId,
+                            String eventCode,
+                            Long vendorId,
+                            String vendorName,
+                            String vendorImagePath,
+                            Integer vendorOrderNumber,
+                            LocalDateTime createdAt,
+                            OrderStatus status,
+                            String guestName,
+                            Long ticketId,
+                            String ticketQr,
+                            String ticketSerial,
+                            List<BoardItem> items) {
+
+        /** Must be called while the order's items and ticket can still be loaded. */
+        public static BoardCard of(Order order) {
+            var vendor = order.getVendor();
+            var ticket = order.getTicket();
+            List<BoardItem> items = order.getItems().stream()
+                    .map(item -> new BoardItem(item.getMenuItem().getName(), item.getQty()))
+                    .toList();
+            return new BoardCard(
+                    order.getId(),
+                    order.getEvent().getCode(),
+                    vendor.getId(),
+                    vendor.getName(),
+                    vendor.getImagePath(),
+                    order.getVendorOrderNumber(),
+                    order.getCreatedAt(),
+                    order.getStatus(),
+                    ticket != null ? ticket.getHolderName() : null,
+                    ticket != null ? ticket.getId() : null,
+                    ticket != null ? ticket.getQrCode() : null,
+                    ticket != null ? ticket.getSerial() : null,
+                    items);
+        }
+    }
+
+    /** Point-in-time copy of one vendor's board. */
+    public record BoardView(Long vendorId, long version, Map<OrderStatus, List<BoardCard>> buckets) { }
+
+    private static final Comparator<BoardCard> BY_CREATED_AT = Comparator
+            .comparing(BoardCard::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BoardCard::orderId);
+
+    // Past this many deltas waiting for versions a board gives them up and leaves a gap instead
+    private static final int MAX_UNVERSIONED_DELTAS = 1_000;
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final OrderRepo orderRepo;
+    private final VendorBoardVersionRepo versionRepo;
+    private final OrderBroadcastDispatcher broadcastDispatcher;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate versionTx;
+    private final int terminalRetention;
+    private final ConcurrentMap<Long, VendorBoard> boards = new ConcurrentHashMap<>();
+    private final BlockingQueue<BoardCard> changes;
+    private final ScheduledExecutorService worker;
+    private final HotPathMetrics.Counter discarded;
+
+    // Worker state, guarded by this service's lock
+    private final Set<VendorBoard> awaitingVersions = new LinkedHashSet<>();
+    private long retryAfterNanos;
+
+    public UsherBoardService(OrderRepo orderRepo,
+                             VendorBoardVersionRepo versionRepo,
+                             OrderBroadcastDispatcher broadcastDispatcher,
+                             HotPathMetrics metrics,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${gleo.usher-board.terminal-retention:200}") int terminalRetention,
+                             @Value("${gleo.usher-board.queue-capacity:10000}") int queueCapacity,
+                             @Value("${gleo.usher-board.apply-interval:20ms}") Duration applyInterval) {
+        this.orderRepo = orderRepo;
+        this.versionRepo = versionRepo;
+        this.broadcastDispatcher = broadcastDispatcher;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        // Only ever runs on the worker thread, which holds no other connection
+        this.versionTx = new TransactionTemplate(transactionManager);
+        this.terminalRetention = Math.max(1, terminalRetention);
+        this.changes = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.discarded = metrics.counter("gleo_usher_board_discarded_total",
+                "Usher board changes never sent as deltas, dropped on a full queue or a backlog of unversioned deltas",
+                "reason");
+        metrics.gauge("gleo_usher_board_queue_depth", "Usher board changes waiting for the worker", changes::size);
+        long intervalMillis = Math.max(1, applyInterval.toMillis());
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gleo-usher-board");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker.scheduleWithFixedDelay(this::applyPendingQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public BoardView view(Vendor vendor) {
+        return views(List.of(vendor)).get(0);
+    }
+
+    /** The vendors' boards, reading the shared versions in one query. */
+    public List<BoardView> views(List<Vendor> vendors) {
+        if (vendors.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> sharedVersions = versionRepo.findByVendorIdIn(vendors.stream().map(Vendor::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(VendorBoardVersion::getVendorId, VendorBoardVersion::getVersion));
+        List<BoardView> views = new ArrayList<>(vendors.size());
+        for (Vendor vendor : vendors) {
+            VendorBoard board = boards.computeIfAbsent(vendor.getId(), VendorBoard::new);
+            board.eventCode = vendor.getEvent().getCode();
+            ensureCurrent(board, vendor, sharedVersions.getOrDefault(vendor.getId(), 0L));
+            views.add(board.snapshot());
+        }
+        return views;
+    }
+
+    public BoardCard card(Long vendorId, Long orderId) {
+        VendorBoard board = boards.get(vendorId);
+        return board != null ? board.find(orderId) : null;
+    }
+
+    /** Drops every board belonging to the event. */
+    public void forgetEvent(String eventCode) {
+        boards.values().removeIf(board -> eventCode.equals(board.eventCode));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        forgetEvent(event.eventCode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        BoardCard card = event.card();
+        if (!changes.offer(card)) {
+            discarded.increment("queue_full");
+            VendorBoard board = boards.get(card.vendorId());
+            if (board != null) {
+                board.skip(1);
+            }
+        }
+    }
+
+    /**
+     * Applies every queued change, then numbers the deltas of every board waiting for versions
+     * and hands them to the dispatcher. Runs on the worker thread; exposed for tests and shutdown.
+     */
+    synchronized void applyPending() {
+        List<BoardCard> batch = new ArrayList<>();
+        changes.drainTo(batch);
+        for (BoardCard card : batch) {
+            VendorBoard board = boards.computeIfAbsent(card.vendorId(), VendorBoard::new);
+            board.eventCode = card.eventCode();
+            int dropped = board.apply(card, terminalRetention);
+            if (dropped > 0) {
+                discarded.add(dropped, "unversioned_backlog");
+            }
+            awaitingVersions.add(board);
+        }
+        if (awaitingVersions.isEmpty() || System.nanoTime() - retryAfterNanos < 0) {
+            return;
+        }
+
+        // Vendor id order, so nodes reserving for the same vendors lock their rows in the same order
+        Map<Long, VendorBoard> byVendor = new TreeMap<>();
+        Map<Long, Reservation> reservations = new TreeMap<>();
+        for (VendorBoard board : awaitingVersions) {
+            Reservation reservation = board.pendingReservation();
+            if (reservation.count() > 0) {
+                byVendor.put(board.vendorId, board);
+                reservations.put(board.vendorId, reservation);
+            }
+        }
+        Map<Long, Long> lastVersions;
+        try {
+            lastVersions = reservations.isEmpty() ? Map.of() : reserveVersions(reservations);
+        } catch (RuntimeException ex) {
+            // The deltas stay on their boards and are numbered on a later pass
+            log.warn("Could not version usher board changes for vendors {}; retrying: {}",
+                    reservations.keySet(), ex.getMessage());
+            retryAfterNanos = System.nanoTime() + RETRY_DELAY_NANOS;
+            return;
+        }
+        awaitingVersions.clear();
+        byVendor.forEach((vendorId, board) -> {
+            Long last = lastVersions.get(vendorId);
+            if (last == null) {
+                awaitingVersions.add(board);
+                return;
+            }
+            for (BoardDeltaMessage delta : board.number(reservations.get(vendorId), last)) {
+                broadcastDispatcher.enqueue(OrderBroadcastDispatcher.vendorTopic(delta.getEventCode(), vendorId), delta);
+                broadcastDispatcher.enqueue(OrderBroadcastDispatcher.eventTopic(delta.getEventCode()), delta);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdown();
+        applyPendingQuietly();
+    }
+
+    private void applyPendingQuietly() {
+        try {
+            applyPending();
+        } catch (RuntimeException ex) {
+            log.warn("Applying usher board changes failed", ex);
+        }
+    }
+
+    /** Reloads the board unless it has been loaded and has seen every version up to {@code sharedVersion}. */
+    private void ensureCurrent(VendorBoard board, Vendor vendor, long sharedVersion) {
+        // Loading under the board's lock keeps events from being applied to a board about to be replaced
+        synchronized (board) {
+            if (board.loaded && board.version >= sharedVersion) {
+                return;
+            }
+            List<BoardCard> cards = readTx.execute(status -> orderRepo.findWithDetailsByVendor(vendor).stream()
+                    .map(BoardCard::of)
+                    .toList());
+            board.load(cards, sharedVersion, terminalRetention);
+        }
+    }
+
+    /** Bumps each vendor's shared version by its reservation in one transaction; returns the last version reserved per vendor. */
+    private Map<Long, Long> reserveVersions(Map<Long, Reservation> reservations) {
+        try {
+            return bumpVersions(reservations);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created one of the vendors' rows first
+            return bumpVersions(reservations);
+        }
+    }
+
+    private Map<Long, Long> bumpVersions(Map<Long, Reservation> reservations) {
+        return versionTx.execute(status -> {
+            reservations.forEach((vendorId, reservation) -> {
+                if (versionRepo.increment(vendorId, reservation.count()) == 0
+                        && versionRepo.insertIfAbsent(vendorId, reservation.count()) == 0) {
+                    versionRepo.increment(vendorId, reservation.count());
+                }
+            });
+            return versionRepo.findByVendorIdIn(reservations.keySet()).stream()
+                    .collect(Collectors.toMap(VendorBoardVersion::getVendorId, VendorBoardVersion::getVersion));
+        });
+    }
+
+    /** Versions a board needs: {@code skipped} left as a gap, then one per waiting delta. */
+    private record Reservation(int skipped, int deltas) {
+        int count() {
+            return skipped + deltas;
+        }
+    }
+
+    private static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
+    }
+
+    private static final class VendorBoard {
+        private final Long vendorId;
+        private volatile String eventCode;
+        // All guarded by the board's lock
+        private boolean loaded;
+        private long version;
+        // Deltas applied but not yet numbered, and changes dropped before they could be
+        private final List<BoardDeltaMessage> unversioned = new ArrayList<>();
+        private int skipped;
+        private final Map<Long, BoardCard> byId = new HashMap<>();
+        private final Map<OrderStatus, TreeMap<BoardCard, Boolean>> buckets = new EnumMap<>(OrderStatus.class);
+
+        VendorBoard(Long vendorId) {
+            this.vendorId = vendorId;
+            for (OrderStatus status : OrderStatus.values()) {
+                buckets.put(status, new TreeMap<>(BY_CREATED_AT));
+            }
+        }
+
+        synchronized BoardCard find(Long orderId) {
+            return byId.get(orderId);
+        }
+
+        /**
+         * Replaces the board with the database view. Changes applied here while the caller read
+         * {@code sharedVersion} are in that view too, as their orders committed before they were applied.
+         */
+        synchronized void load(List<BoardCard> cards, long sharedVersion, int retention) {
+            byId.clear();
+            buckets.values().forEach(TreeMap::clear);
+            for (BoardCard card : cards) {
+                byId.put(card.orderId(), card);
+                buckets.get(card.status()).put(card, Boolean.TRUE);
+            }
+            trim(OrderStatus.COMPLETED, retention, null);
+            trim(OrderStatus.CANCELLED, retention, null);
+            version = Math.max(version, sharedVersion);
+            loaded = true;
+        }
+
+        /** Applies a change, leaving its deltas to be numbered; returns how many waiting deltas were given up. */
+        synchronized int apply(BoardCard card, int retention) {
+            BoardCard previous = byId.put(card.orderId(), card);
+            if (previous != null) {
+                buckets.get(previous.status()).remove(previous);
+            }
+            buckets.get(card.status()).put(card, Boolean.TRUE);
+
+            if (previous == null) {
+                unversioned.add(delta(card, "added", null, card.status()));
+            } else if (previous.status() != card.status()) {
+                unversioned.add(delta(card, "moved", previous.status(), card.status()));
+            }
+            if (isTerminal(card.status())) {
+                trim(card.status(), retention, unversioned);
+            }
+            if (unversioned.size() <= MAX_UNVERSIONED_DELTAS) {
+                return 0;
+            }
+            int dropped = unversioned.size();
+            unversioned.clear();
+            skip(dropped);
+            return dropped;
+        }
+
+        /** Records changes this board never saw: it is reloaded on the next view and its next deltas leave a gap. */
+        synchronized void skip(int changes) {
+            skipped += changes;
+            loaded = false;
+        }
+
+        synchronized Reservation pendingReservation() {
+            return new Reservation(skipped, unversioned.size());
+        }
+
+        /** Numbers the reserved deltas, which end at {@code last}; returns them in order. */
+        synchronized List<BoardDeltaMessage> number(Reservation reservation, long last) {
+            if (last - reservation.count() != version) {
+                // Another node changed this vendor's orders since this board last saw a version
+                loaded = false;
+            }
+            List<BoardDeltaMessage> numbered = new ArrayList<>(unversioned.subList(0, reservation.deltas()));
+            unversioned.subList(0, reservation.deltas()).clear();
+            skipped -= reservation.skipped();
+            long first = last - numbered.size() + 1;
+            for (int i = 0; i < numbered.size(); i++) {
+                numbered.get(i).setVersion(first + i);
+            }
+            version = Math.max(version, last);
+            return numbered;
+        }
+
+        private void trim(OrderStatus status, int retention, List<BoardDeltaMessage> deltas) {
+            TreeMap<BoardCard, Boolean> bucket = buckets.get(status);
+            Iterator<BoardCard> oldestFirst = bucket.keySet().iterator();
+            while (bucket.size() > retention && oldestFirst.hasNext()) {
+                BoardCard evicted = oldestFirst.next();
+                oldestFirst.remove();
+                byId.remove(evicted.orderId());
+                if (deltas != null) {
+                    deltas.add(delta(evicted, "removed", status, null));
+                }
+            }
+        }
+
+        private BoardDeltaMessage delta(BoardCard card, String change, OrderStatus from, OrderStatus to) {
+            return new BoardDeltaMessage(card.eventCode(), vendorId, 0, change, card.orderId(),
+                    from != null ? from.name() : null,
+                    to != null ? to.name() : null);
+        }
+
+        synchronized BoardView snapshot() {
+            Map<OrderStatus, List<BoardCard>> copy = new EnumMap<>(OrderStatus.class);
+            buckets.forEach((status, cards) -> copy.put(status, List.copyOf(cards.keySet())));
+            return new BoardView(vendorId, version, copy);
+        }
+    }
+}
@@ -11,7 +11,7 @@ public class VendorAuthService {
 
     // Demo: check last 4 of vendor pin (stored plain in vendor entity via order.vendor)
     public boolean isValidPinForOrder(Long orderId, String pin){
-        Order o = orderRepo.findById(orderId).orElse(null);
+        Order o = orderRepo.findWithVendorById(orderId).orElse(null);
         if (o == null || o.getVendor().getPinPlain() == null) return false;
         String vpin = o.getVendor().getPinPlain();
         return vpin.equals(pin);
@@ -0,0 +1,181 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.VendorOrderSequence;
+import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.repo.VendorOrderSequenceRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out per-vendor order numbers (#1, #2, ...) without scanning the orders table.
+ * <p>
+ * Numbers are served from an in-memory block per vendor; only the vendor being ordered from
+ * is locked, so a busy stall never blocks checkouts at another one. When a block runs out the
+ * next one is reserved from {@link VendorOrderSequence} in its own short transaction, which keeps
+ * numbers unique across nodes and restarts. Unused numbers from a block are simply skipped
+ * (e.g. after a restart), so numbering is increasing and unique but may contain gaps.
+ * <p>
+ * Reservations run on a small pool of their own, never on the caller's thread: a checkout holds
+ * a pooled connection, and reserving inline would need a second one. The next block is requested
+ * once half the current one is used, so callers normally never wait. When they do, they wait
+ * without holding the vendor's lock, and a reservation that fails or takes longer than
+ * {@value #RESERVE_WAIT_SECONDS}s fails the checkout rather than being retried inline.
+ */
+@Service
+public class VendorOrderNumberAllocator {
+    private static final Logger log = LoggerFactory.getLogger(VendorOrderNumberAllocator.class);
+
+    static final long RESERVE_WAIT_SECONDS = 10;
+    private static final int RESERVER_THREADS = 4;
+
+    private final VendorOrderSequenceRepo sequenceRepo;
+    private final OrderRepo orderRepo;
+    private final TransactionTemplate reserveTx;
+    private final int blockSize;
+    private final ConcurrentMap<Long, Block> blocks = new ConcurrentHashMap<>();
+    private final ExecutorService reserver;
+
+    public VendorOrderNumberAllocator(VendorOrderSequenceRepo sequenceRepo,
+                                      OrderRepo orderRepo,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${gleo.orders.number-block-size:10}") int blockSize) {
+        this.sequenceRepo = sequenceRepo;
+        this.orderRepo = orderRepo;
+        this.reserveTx = new TransactionTemplate(transactionManager);
+        this.reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+        AtomicInteger threads = new AtomicInteger();
+        this.reserver = Executors.newFixedThreadPool(RESERVER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "gleo-order-numbers-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int next(Long vendorId) {
+        Block block = blocks.computeIfAbsent(vendorId, id -> new Block());
+        while (true) {
+            CompletableFuture<Integer> pending;
+            synchronized (block) {
+                if (block.next > block.limit && block.standby != null
+                        && block.standby.isDone() && !block.standby.isCompletedExceptionally()) {
+                    int reservedUpTo = block.standby.join();
+                    block.standby = null;
+                    block.next = reservedUpTo - blockSize + 1;
+                    block.limit = reservedUpTo;
+                }
+                if (block.standby == null && block.limit - block.next < blockSize / 2) {
+                    block.standby = reserveAsync(vendorId);
+                }
+                if (block.next <= block.limit) {
+                    return block.next++;
+                }
+                pending = block.standby;
+            }
+            await(block, pending, vendorId);
+        }
+    }
+
+    /**
+     * Drops the in-memory block for a vendor, e.g. after the vendor was deleted.
+     * The remaining numbers of the block become a gap.
+     */
+    public void forget(Long vendorId) {
+        blocks.remove(vendorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventDeleted(EventDeletedEvent event) {
+        event.vendorIds().forEach(this::forget);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // A block reserved but not yet handed out becomes a gap
+        reserver.shutdownNow();
+    }
+
+    private CompletableFuture<Integer> reserveAsync(Long vendorId) {
+        try {
+            return CompletableFuture.supplyAsync(() -> reserveBlock(vendorId), reserver);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /** Waits, outside the vendor's lock, for the reservation the caller needs. */
+    private void await(Block block, CompletableFuture<Integer> pending, Long vendorId) {
+        try {
+            pending.get(RESERVE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw unavailable(vendorId, ex);
+        } catch (ExecutionException | TimeoutException | CancellationException ex) {
+            synchronized (block) {
+                // The next caller asks for a fresh block; a late result of this one becomes a gap
+                if (block.standby == pending) {
+                    block.standby = null;
+                }
+            }
+            throw unavailable(vendorId, ex);
+        }
+    }
+
+    private static ResponseStatusException unavailable(Long vendorId, Exception cause) {
+        Throwable reason = cause instanceof ExecutionException && cause.getCause() != null ? cause.getCause() : cause;
+        log.warn("Could not reserve order numbers for vendor {}: {}", vendorId, reason.toString());
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Order numbers are briefly unavailable, please try again", reason);
+    }
+
+    private int reserveBlock(Long vendorId) {
+        try {
+            return reserveTx.execute(status -> bump(vendorId));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node seeded the row first; it exists now, so retry against it.
+            return reserveTx.execute(status -> bump(vendorId));
+        }
+    }
+
+    private int bump(Long vendorId) {
+        VendorOrderSequence sequence = sequenceRepo.findForUpdate(vendorId).orElseGet(() -> {
+            // First reservation for this vendor: seed once from the numbers already in use. The row
+            // is inserted, never merged, so a concurrent seed fails instead of overwriting this one.
+            Integer max = orderRepo.findMaxVendorOrderNumber(vendorId);
+            sequenceRepo.insertIfAbsent(vendorId, max != null ? max : 0);
+            return sequenceRepo.findForUpdate(vendorId).orElseThrow();
+        });
+        sequence.setLastReserved(sequence.getLastReserved() + blockSize);
+        sequenceRepo.saveAndFlush(sequence);
+        return sequence.getLastReserved();
+    }
+
+    private static final class Block {
+        private int next = 1;
+        private int limit = 0;
+        // The next block, requested ahead of need; guarded by the block's monitor
+        private CompletableFuture<Integer> standby;
+    }
+}
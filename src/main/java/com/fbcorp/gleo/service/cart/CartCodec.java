@@ -0,0 +1,115 @@
+package com.fbcorp.gleo.service.cart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link CartSession}: ids and quantities are varints and lines are
+ * grouped by vendor, so a three-line cart encodes to roughly 15 bytes.
+ * <pre>
+ * format(2) revision(varlong) groups(varint) [vendorId(varlong) lines(varint) [itemId(varlong) qty(varint)]*]*
+ * notes(varint) [vendorId(varlong) note(utf)]* promo(bool) [promo(utf)]
+ * </pre>
+ * Format 1 is the same without the revision and still decodes, with revision 0.
+ */
+public final class CartCodec {
+
+    private static final int FORMAT = 2;
+
+    private CartCodec() {
+    }
+
+    public static byte[] encode(CartSession cart) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            writeVarLong(out, cart.getRevision());
+            List<Long> vendorIds = cart.vendorIds();
+            writeVarLong(out, vendorIds.size());
+            for (Long vendorId : vendorIds) {
+                writeVarLong(out, vendorId);
+                List<long[]> lines = new ArrayList<>();
+                cart.forEachLine(vendorId, (itemId, qty) -> lines.add(new long[] {itemId, qty}));
+                writeVarLong(out, lines.size());
+                for (long[] line : lines) {
+                    writeVarLong(out, line[0]);
+                    writeVarLong(out, line[1]);
+                }
+            }
+            Map<Long, String> notes = cart.getAllVendorNotes();
+            writeVarLong(out, notes.size());
+            for (var note : notes.entrySet()) {
+                writeVarLong(out, note.getKey());
+                out.writeUTF(note.getValue());
+            }
+            out.writeBoolean(cart.getPromoCode() != null);
+            if (cart.getPromoCode() != null) {
+                out.writeUTF(cart.getPromoCode());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static CartSession decode(byte[] data) {
+        CartSession cart = new CartSession();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int format = in.readUnsignedByte();
+            if (format != 1 && format != FORMAT) {
+                throw new IllegalArgumentException("Unsupported cart format " + format);
+            }
+            long revision = format >= 2 ? readVarLong(in) : 0;
+            long groups = readVarLong(in);
+            for (long g = 0; g < groups; g++) {
+                long vendorId = readVarLong(in);
+                long lines = readVarLong(in);
+                for (long l = 0; l < lines; l++) {
+                    long itemId = readVarLong(in);
+                    cart.setQty(vendorId, itemId, (int) readVarLong(in));
+                }
+            }
+            long notes = readVarLong(in);
+            for (long n = 0; n < notes; n++) {
+                long vendorId = readVarLong(in);
+                cart.setVendorNote(vendorId, in.readUTF());
+            }
+            if (in.readBoolean()) {
+                cart.setPromoCode(in.readUTF());
+            }
+            // The setters above bump the revision; put back the stored one
+            cart.setRevision(revision);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return cart;
+    }
+
+    // Unsigned LEB128; ids and quantities are never negative
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
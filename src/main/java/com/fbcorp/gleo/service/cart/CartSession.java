@@ -0,0 +1,172 @@
+package com.fbcorp.gleo.service.cart;
+
+import java.util.*;
+
+/**
+ * A guest's cart. Lines live in parallel primitive arrays (vendor, item, qty) in the order they
+ * were added, so a typical cart of a handful of lines costs a few dozen bytes instead of a
+ * nested map of boxed Longs. Carts are persisted through {@link CartStore}.
+ * <p>
+ * Every mutation bumps {@link #getRevision()}, so derived views (the cart summary) can be reused
+ * while the revision is unchanged.
+ */
+public class CartSession {
+
+    @FunctionalInterface
+    public interface LineVisitor {
+        void visit(long itemId, int qty);
+    }
+
+    private long[] vendorIds = new long[4];
+    private long[] itemIds = new long[4];
+    private int[] qtys = new int[4];
+    private int size;
+    // Optional notes per vendor (special instructions)
+    private final Map<Long, String> vendorNotes = new LinkedHashMap<>();
+    // Optional cart-wide promo code
+    private String promoCode;
+    private long revision;
+    // Store key, known only once the cart has been loaded from or saved to the CartStore
+    private String cartId;
+
+    public void add(Long vendorId, Long itemId, int qty){
+        revision++;
+        int index = indexOf(vendorId, itemId);
+        if (index >= 0) {
+            qtys[index] += qty;
+        } else {
+            append(vendorId, itemId, qty);
+        }
+    }
+
+    public void setQty(Long vendorId, Long itemId, int qty){
+        revision++;
+        int index = indexOf(vendorId, itemId);
+        if (index >= 0) {
+            qtys[index] = qty;
+        } else {
+            append(vendorId, itemId, qty);
+        }
+    }
+
+    public void removeItem(Long vendorId, Long itemId){
+        revision++;
+        int index = indexOf(vendorId, itemId);
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    public void removeVendorGroup(Long vendorId){
+        revision++;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (vendorIds[i] != vendorId) {
+                vendorIds[kept] = vendorIds[i];
+                itemIds[kept] = itemIds[i];
+                qtys[kept] = qtys[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    /** Vendors in the order they were first added. */
+    public List<Long> vendorIds(){
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (!result.contains(vendorIds[i])) {
+                result.add(vendorIds[i]);
+            }
+        }
+        return result;
+    }
+
+    public boolean hasVendor(Long vendorId){
+        for (int i = 0; i < size; i++) {
+            if (vendorIds[i] == vendorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Visits the vendor's lines in the order they were added. */
+    public void forEachLine(Long vendorId, LineVisitor visitor){
+        for (int i = 0; i < size; i++) {
+            if (vendorIds[i] == vendorId) {
+                visitor.visit(itemIds[i], qtys[i]);
+            }
+        }
+    }
+
+    public int lineCount(){ return size; }
+
+    public void clear(){
+        revision++;
+        size = 0;
+        vendorNotes.clear();
+        promoCode = null;
+    }
+
+    public boolean isEmpty(){ return size == 0; }
+
+    // Notes API
+    public void setVendorNote(Long vendorId, String note){
+        revision++;
+        if (note == null || note.trim().isEmpty()) {
+            vendorNotes.remove(vendorId);
+        } else {
+            vendorNotes.put(vendorId, note.trim());
+        }
+    }
+    public String getVendorNote(Long vendorId){
+        return vendorNotes.get(vendorId);
+    }
+    public Map<Long, String> getAllVendorNotes(){
+        return vendorNotes;
+    }
+
+    // Promo API
+    public String getPromoCode() { return promoCode; }
+    public void setPromoCode(String promoCode) { revision++; this.promoCode = (promoCode == null || promoCode.isBlank()) ? null : promoCode.trim(); }
+
+    public long getRevision() { return revision; }
+
+    /** Restores the persisted revision; for {@link CartStore} codecs only. */
+    public void setRevision(long revision) { this.revision = revision; }
+
+    /** The key the cart is stored under, or null for a cart that has never been saved. */
+    public String getCartId() { return cartId; }
+    public void setCartId(String cartId) { this.cartId = cartId; }
+
+    private int indexOf(long vendorId, long itemId){
+        for (int i = 0; i < size; i++) {
+            if (vendorIds[i] == vendorId && itemIds[i] == itemId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(long vendorId, long itemId, int qty){
+        if (size == vendorIds.length) {
+            int capacity = size * 2;
+            vendorIds = Arrays.copyOf(vendorIds, capacity);
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            qtys = Arrays.copyOf(qtys, capacity);
+        }
+        vendorIds[size] = vendorId;
+        itemIds[size] = itemId;
+        qtys[size] = qty;
+        size++;
+    }
+
+    private void removeAt(int index){
+        int tail = size - index - 1;
+        System.arraycopy(vendorIds, index + 1, vendorIds, index, tail);
+        System.arraycopy(itemIds, index + 1, itemIds, index, tail);
+        System.arraycopy(qtys, index + 1, qtys, index, tail);
+        size--;
+    }
+}
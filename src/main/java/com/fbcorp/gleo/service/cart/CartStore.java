@@ -0,0 +1,18 @@
+package com.fbcorp.gleo.service.cart;
+
+import java.util.Optional;
+
+/**
+ * Where guest carts live between requests, keyed by an opaque cart id from the guest's cookie.
+ * Callers load a cart, change it, and save it back; implementations keep only the
+ * {@link CartCodec} form so they can be backed by memory or by a store shared between nodes.
+ */
+public interface CartStore {
+
+    /** Returns the cart and extends its lifetime, or empty if it does not exist or has expired. */
+    Optional<CartSession> load(String cartId);
+
+    void save(String cartId, CartSession cart);
+
+    void remove(String cartId);
+}
@@ -0,0 +1,74 @@
+package com.fbcorp.gleo.service.cart;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-node {@link CartStore}. Carts are held in their encoded form, so each idle cart costs
+ * one small byte array, and carts untouched for {@code gleo.cart.ttl} are evicted. Expired
+ * entries are dropped when read and swept periodically as carts are saved.
+ */
+@Service
+public class InMemoryCartStore implements CartStore {
+
+    private record Entry(byte[] data, long touchedAtMillis) { }
+
+    private final ConcurrentMap<String, Entry> carts = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final long ttlMillis;
+    private final long sweepIntervalMillis;
+    private volatile long lastSweepMillis;
+
+    @Autowired
+    public InMemoryCartStore(@Value("${gleo.cart.ttl:6h}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    InMemoryCartStore(Duration ttl, Clock clock) {
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.sweepIntervalMillis = Math.max(60_000L, ttlMillis / 12);
+        this.lastSweepMillis = clock.millis();
+    }
+
+    @Override
+    public Optional<CartSession> load(String cartId) {
+        long now = clock.millis();
+        Entry entry = carts.get(cartId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (isExpired(entry, now)) {
+            carts.remove(cartId, entry);
+            return Optional.empty();
+        }
+        carts.replace(cartId, entry, new Entry(entry.data(), now));
+        return Optional.of(CartCodec.decode(entry.data()));
+    }
+
+    @Override
+    public void save(String cartId, CartSession cart) {
+        long now = clock.millis();
+        carts.put(cartId, new Entry(CartCodec.encode(cart), now));
+        if (now - lastSweepMillis > sweepIntervalMillis) {
+            lastSweepMillis = now;
+            carts.values().removeIf(entry -> isExpired(entry, now));
+        }
+    }
+
+    @Override
+    public void remove(String cartId) {
+        carts.remove(cartId);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.touchedAtMillis() > ttlMillis;
+    }
+}
@@ -313,6 +313,7 @@ public class AdminEventController {
         e.setBlockAddWhenOpenOrder(form.containsKey("blockAddWhenOpenOrder"));
         e.setRegularOneItemPerVendor(form.containsKey("regularOneItemPerVendor"));
         eventRepo.save(e);
+        policyService.invalidate(eventCode);
 
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     String username = auth != null ? auth.getName() : "anonymous";
@@ -364,6 +365,13 @@ public class AdminEventController {
         return "redirect:/dashboard";
     }
 
+    @PreAuthorize("@permissionService.isAdmin(authentication)")
+    @GetMapping(value = "/policy-cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public EventPolicyService.CacheStats policyCacheStats(){
+        return policyService.cacheStats();
+    }
+
     private static class WizardEventRequest {
         public String code;
         public String name;
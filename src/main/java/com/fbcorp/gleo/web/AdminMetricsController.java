@@ -0,0 +1,29 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.service.HotPathMetrics;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Hot-path timers and counters in the Prometheus text format, for scraping with basic auth.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminMetricsController {
+
+    static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final HotPathMetrics metrics;
+
+    public AdminMetricsController(HotPathMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @PreAuthorize("@permissionService.isAdmin(authentication)")
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_TEXT)
+    public String metrics() {
+        return metrics.scrape();
+    }
+}
@@ -5,6 +5,7 @@ import com.fbcorp.gleo.domain.Ticket;
 import com.fbcorp.gleo.domain.TierCode;
 import com.fbcorp.gleo.repo.TicketRepo;
 import com.fbcorp.gleo.service.EventPolicyService;
+import com.fbcorp.gleo.service.TicketQrIndex;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,11 +20,14 @@ public class AdminTicketController {
 
     private final EventPolicyService policyService;
     private final TicketRepo ticketRepo;
+    private final TicketQrIndex ticketQrIndex;
 
     public AdminTicketController(EventPolicyService policyService,
-                                 TicketRepo ticketRepo) {
+                                 TicketRepo ticketRepo,
+                                 TicketQrIndex ticketQrIndex) {
         this.policyService = policyService;
         this.ticketRepo = ticketRepo;
+        this.ticketQrIndex = ticketQrIndex;
     }
 
     @GetMapping("/new")
@@ -56,7 +60,7 @@ public class AdminTicketController {
             ticket.setTierCode(tierCode);
             ticket.setHolderName(StringUtils.hasText(holderName) ? holderName.trim() : null);
             ticket.setActive(true);
-            ticketRepo.save(ticket);
+            ticketQrIndex.put(ticketRepo.save(ticket));
             created++;
         }
         redirectAttributes.addFlashAttribute("toastMessage",
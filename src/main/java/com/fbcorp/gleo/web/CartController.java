@@ -5,8 +5,9 @@ import com.fbcorp.gleo.domain.Vendor;
 import com.fbcorp.gleo.repo.MenuItemRepo;
 import com.fbcorp.gleo.service.CartViewService;
 import com.fbcorp.gleo.service.EventPolicyService;
+import com.fbcorp.gleo.service.cart.CartSession;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,8 +15,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.Map;
-
 @Controller
 @RequestMapping("/e/{eventCode}/cart")
 public class CartController {
@@ -25,22 +24,16 @@ public class CartController {
     private final MenuItemRepo menuItemRepo;
     private final EventPolicyService policyService;
     private final CartViewService cartViewService;
+    private final GuestCarts guestCarts;
 
     public CartController(MenuItemRepo menuItemRepo,
                           EventPolicyService policyService,
-                          CartViewService cartViewService){
+                          CartViewService cartViewService,
+                          GuestCarts guestCarts){
         this.menuItemRepo = menuItemRepo;
         this.policyService = policyService;
         this.cartViewService = cartViewService;
-    }
-
-    private CartSession cart(HttpSession session){
-        CartSession c = (CartSession) session.getAttribute("CART");
-        if (c == null){
-            c = new CartSession();
-            session.setAttribute("CART", c);
-        }
-        return c;
+        this.guestCarts = guestCarts;
     }
 
     private boolean isHx(HttpServletRequest request){
@@ -51,7 +44,7 @@ public class CartController {
         var event = policyService.get(eventCode);
         model.addAttribute("event", event);
         model.addAttribute("isMultiVendor", policyService.multiVendorCart(eventCode));
-        model.addAttribute("cartSummary", cartViewService.summarize(cartSession));
+        model.addAttribute("cartSummary", cartViewService.summarize(eventCode, cartSession));
     }
 
     // --- New endpoints for quantity, notes, and promo code updates ---
@@ -61,15 +54,16 @@ public class CartController {
                          @RequestParam Long vendorId,
                          @RequestParam Long itemId,
                          @RequestParam int qty,
-                         HttpSession session,
                          HttpServletRequest request,
+                         HttpServletResponse response,
                          Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         if (qty <= 0){
             cart.removeItem(vendorId, itemId);
         } else {
             cart.setQty(vendorId, itemId, Math.min(qty, 99));
         }
+        guestCarts.save(request, response, cart);
         populateCartModel(eventCode, cart, model);
         // For HTMX from cart page, return full cart page; for sidebar, return fragment
         if (isHx(request)) {
@@ -86,11 +80,12 @@ public class CartController {
     public String setVendorNote(@PathVariable String eventCode,
                                 @RequestParam Long vendorId,
                                 @RequestParam(required=false) String note,
-                                HttpSession session,
                                 HttpServletRequest request,
+                                HttpServletResponse response,
                                 Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         cart.setVendorNote(vendorId, note);
+        guestCarts.save(request, response, cart);
         populateCartModel(eventCode, cart, model);
         model.addAttribute("successMessage", "Note updated.");
         return isHx(request) ? CART_FRAGMENT : "redirect:/e/" + eventCode + "/cart";
@@ -99,11 +94,12 @@ public class CartController {
     @PostMapping("/promo")
     public String applyPromo(@PathVariable String eventCode,
                              @RequestParam String code,
-                             HttpSession session,
                              HttpServletRequest request,
+                             HttpServletResponse response,
                              Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         cart.setPromoCode(code);
+        guestCarts.save(request, response, cart);
         populateCartModel(eventCode, cart, model);
         model.addAttribute("successMessage", "Promo applied (if valid).");
         return isHx(request) ? CART_FRAGMENT : "redirect:/e/" + eventCode + "/cart";
@@ -113,8 +109,8 @@ public class CartController {
     public String add(@PathVariable String eventCode,
                       @RequestParam Long itemId,
                       @RequestParam(defaultValue = "1") int qty,
-                      HttpSession session,
                       HttpServletRequest request,
+                      HttpServletResponse response,
                       Model model,
                       RedirectAttributes redirectAttributes){
         MenuItem item = menuItemRepo.findById(itemId)
@@ -124,10 +120,9 @@ public class CartController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
 
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         if (!policyService.multiVendorCart(eventCode)) {
-            Map<Long, Map<Long, Integer>> lines = cart.getAll();
-            if (!lines.isEmpty() && !lines.containsKey(vendor.getId())) {
+            if (!cart.isEmpty() && !cart.hasVendor(vendor.getId())) {
                 // Single-vendor policy violation
                 if (isHx(request)) {
                     populateCartModel(eventCode, cart, model);
@@ -142,6 +137,7 @@ public class CartController {
         }
 
         cart.add(vendor.getId(), item.getId(), Math.max(1, qty));
+        guestCarts.save(request, response, cart);
         
         // If HTMX request, return cart fragment for sidebar
         if (isHx(request)) {
@@ -157,10 +153,9 @@ public class CartController {
 
     @GetMapping
     public String view(@PathVariable String eventCode,
-                       HttpSession session,
                        HttpServletRequest request,
                        Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         populateCartModel(eventCode, cart, model);
         return isHx(request) ? CART_FRAGMENT : "cart";
     }
@@ -168,11 +163,12 @@ public class CartController {
     @PostMapping("/remove-group")
     public String removeGroup(@PathVariable String eventCode,
                               @RequestParam Long vendorId,
-                              HttpSession session,
                               HttpServletRequest request,
+                              HttpServletResponse response,
                               Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         cart.removeVendorGroup(vendorId);
+        guestCarts.save(request, response, cart);
         populateCartModel(eventCode, cart, model);
         model.addAttribute("successMessage", "Vendor removed from cart.");
         return isHx(request) ? CART_FRAGMENT : "redirect:/e/" + eventCode + "/cart";
@@ -180,11 +176,12 @@ public class CartController {
 
     @PostMapping("/clear")
     public String clear(@PathVariable String eventCode,
-                        HttpSession session,
                         HttpServletRequest request,
+                        HttpServletResponse response,
                         Model model){
-        CartSession cart = cart(session);
+        CartSession cart = guestCarts.load(request);
         cart.clear();
+        guestCarts.save(request, response, cart);
         populateCartModel(eventCode, cart, model);
         model.addAttribute("successMessage", "Cart cleared.");
         return isHx(request) ? CART_FRAGMENT : "redirect:/e/" + eventCode + "/cart";
@@ -6,8 +6,10 @@ import com.fbcorp.gleo.domain.Ticket;
 import com.fbcorp.gleo.service.CheckoutService;
 import com.fbcorp.gleo.service.QrDecoderService;
 import com.fbcorp.gleo.service.TicketService;
+import com.fbcorp.gleo.service.cart.CartSession;
 import com.fbcorp.gleo.web.util.DeviceFingerprint;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -26,13 +28,16 @@ public class CheckoutController {
     private final CheckoutService checkoutService;
     private final TicketService ticketService;
     private final QrDecoderService qrDecoderService;
+    private final GuestCarts guestCarts;
 
     public CheckoutController(CheckoutService checkoutService,
                               TicketService ticketService,
-                              QrDecoderService qrDecoderService){
+                              QrDecoderService qrDecoderService,
+                              GuestCarts guestCarts){
         this.checkoutService = checkoutService;
         this.ticketService = ticketService;
         this.qrDecoderService = qrDecoderService;
+        this.guestCarts = guestCarts;
     }
 
     @GetMapping("/checkout")
@@ -56,19 +61,20 @@ public class CheckoutController {
     public String checkout(@PathVariable String eventCode,
                            @RequestParam(name = "qr", required = false) String qr,
                            HttpServletRequest request,
+                           HttpServletResponse response,
                            HttpSession session,
                            Model model){
-        CartSession cart = (CartSession) session.getAttribute("CART");
-        if (cart == null || cart.isEmpty()){
+        CartSession cart = guestCarts.load(request);
+        if (cart.isEmpty()){
             return "redirect:/e/" + eventCode + "/cart";
         }
 
         Map<Long, List<CheckoutService.CartLine>> groups = new LinkedHashMap<>();
-        cart.getAll().forEach((vendorId, itemsMap) -> {
+        for (Long vendorId : cart.vendorIds()) {
             List<CheckoutService.CartLine> lines = new ArrayList<>();
-            itemsMap.forEach((itemId, qty) -> lines.add(new CheckoutService.CartLine(itemId, qty)));
+            cart.forEachLine(vendorId, (itemId, qty) -> lines.add(new CheckoutService.CartLine(itemId, qty)));
             groups.put(vendorId, lines);
-        });
+        }
 
         var normalizedQr = (qr != null && !qr.isBlank()) ? qr.trim() : null;
         var result = checkoutService.checkout(eventCode, normalizedQr, DeviceFingerprint.from(request), groups);
@@ -77,6 +83,7 @@ public class CheckoutController {
         }
         // remove accepted groups from cart
         result.orders.forEach(o -> cart.removeVendorGroup(o.getVendor().getId()));
+        guestCarts.save(request, response, cart);
 
         // Use PRG pattern: redirect to GET /checkout so refresh doesn't resubmit the form
         // Summary page will load recent orders for this device via checkoutSummary()
@@ -99,7 +106,13 @@ public class CheckoutController {
                                     HttpServletRequest request,
                                     HttpSession session,
                                     RedirectAttributes redirectAttributes) {
-        String decoded = qrDecoderService.decode(qrFile).orElse(null);
+        String decoded;
+        try {
+            decoded = qrDecoderService.decode(qrFile).orElse(null);
+        } catch (ResponseStatusException ex) {
+            redirectAttributes.addFlashAttribute("toastError", ex.getReason());
+            return "redirect:/e/" + eventCode + "/ticket";
+        }
         if (!StringUtils.hasText(decoded)) {
             redirectAttributes.addFlashAttribute("toastError", "Please upload a clear QR code image.");
             return "redirect:/e/" + eventCode + "/ticket";
@@ -11,6 +11,7 @@ import com.fbcorp.gleo.repo.UserAccountRepo;
 import com.fbcorp.gleo.service.AuditLogService;
 import com.fbcorp.gleo.service.EventPolicyService;
 import com.fbcorp.gleo.service.OrganizerAnalyticsService;
+import com.fbcorp.gleo.service.OrderTimingService;
 import com.fbcorp.gleo.service.TicketImportLogService;
 import com.fbcorp.gleo.service.AdminPreferenceService;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -46,6 +47,7 @@ public class DashboardController {
     private final TicketImportLogService importLogService;
     private final AdminPreferenceService adminPreferenceService;
     private final AuditLogService auditLogService;
+    private final OrderTimingService orderTimingService;
 
     public DashboardController(UserAccountRepo userAccountRepo,
                                EventPolicyService policyService,
@@ -56,7 +58,8 @@ public class DashboardController {
                                OrganizerAnalyticsService analyticsService,
                                TicketImportLogService importLogService,
                                AuditLogService auditLogService,
-                               AdminPreferenceService adminPreferenceService) {
+                               AdminPreferenceService adminPreferenceService,
+                               OrderTimingService orderTimingService) {
         this.userAccountRepo = userAccountRepo;
         this.policyService = policyService;
         this.orderRepo = orderRepo;
@@ -67,6 +70,7 @@ public class DashboardController {
         this.importLogService = importLogService;
         this.auditLogService = auditLogService;
         this.adminPreferenceService = adminPreferenceService;
+        this.orderTimingService = orderTimingService;
     }
 
     @GetMapping("/dashboard")
@@ -182,6 +186,7 @@ public class DashboardController {
                         .collect(Collectors.toList());
 
                 model.addAttribute("vendorSales", vendorSales);
+                model.addAttribute("vendorThroughput", orderTimingService.throughput(event.getCode(), 15));
                 model.addAttribute("vendorQuery", normalizedQuery);
                 model.addAttribute("vendorStatus", normalizedStatus);
                 model.addAttribute("vendorSort", normalizedSort);
@@ -202,7 +207,7 @@ public class DashboardController {
 
         if (isVendor){
             if (account != null && account.getVendor() != null){
-                model.addAttribute("orders", orderRepo.findByVendor(account.getVendor()));
+                model.addAttribute("orders", orderRepo.findWithDetailsByVendor(account.getVendor()));
             }
             return "dashboard/vendor_dashboard";
         }
@@ -0,0 +1,102 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.service.cart.CartSession;
+import com.fbcorp.gleo.service.cart.CartStore;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Finds the guest's cart through the {@value #COOKIE} cookie instead of the HTTP session, so a
+ * guest can be served by any node that shares the {@link CartStore}.
+ */
+@Component
+public class GuestCarts {
+
+    static final String COOKIE = "GLEO_CART";
+    private static final String REQUEST_ATTR = GuestCarts.class.getName() + ".cartId";
+
+    private final CartStore cartStore;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public GuestCarts(CartStore cartStore, @Value("${gleo.cart.ttl:6h}") Duration ttl) {
+        this.cartStore = cartStore;
+        this.ttl = ttl;
+    }
+
+    /** The guest's current cart, or a new empty one. Nothing is stored until {@link #save}. */
+    public CartSession load(HttpServletRequest request) {
+        String cartId = cartId(request);
+        if (cartId == null) {
+            return new CartSession();
+        }
+        CartSession cart = cartStore.load(cartId).orElseGet(CartSession::new);
+        cart.setCartId(cartId);
+        return cart;
+    }
+
+    public void save(HttpServletRequest request, HttpServletResponse response, CartSession cart) {
+        String cartId = cartId(request);
+        if (cart.isEmpty() && cart.getAllVendorNotes().isEmpty() && cart.getPromoCode() == null) {
+            if (cartId != null) {
+                cartStore.remove(cartId);
+                // A fresh cart gets a fresh id, so its revisions never collide with the old cart's
+                request.setAttribute(REQUEST_ATTR, "");
+                response.addHeader("Set-Cookie", cookie(request, "", Duration.ZERO));
+            }
+            cart.setCartId(null);
+            return;
+        }
+        if (cartId == null) {
+            cartId = newCartId();
+            request.setAttribute(REQUEST_ATTR, cartId);
+        }
+        // Re-issue the cookie each time so its lifetime tracks the store's idle timeout
+        response.addHeader("Set-Cookie", cookie(request, cartId, ttl));
+        cartStore.save(cartId, cart);
+        cart.setCartId(cartId);
+    }
+
+    private String cookie(HttpServletRequest request, String value, Duration maxAge) {
+        return ResponseCookie.from(COOKIE, value)
+                .path("/")
+                .httpOnly(true)
+                // Behind a TLS-terminating proxy this needs server.forward-headers-strategy
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build()
+                .toString();
+    }
+
+    private String cartId(HttpServletRequest request) {
+        Object assigned = request.getAttribute(REQUEST_ATTR);
+        if (assigned instanceof String id) {
+            return id.isEmpty() ? null : id;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName()) && cookie.getValue() != null && !cookie.getValue().isBlank()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String newCartId() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 @Controller
@@ -18,36 +19,31 @@ public class HomeController {
     private final VendorRepo vendorRepo;
     private final EventPolicyService policyService;
     private final CartViewService cartViewService;
+    private final GuestCarts guestCarts;
 
     public HomeController(VendorRepo vendorRepo,
                           EventPolicyService policyService,
-                          CartViewService cartViewService) {
+                          CartViewService cartViewService,
+                          GuestCarts guestCarts) {
         this.vendorRepo = vendorRepo;
         this.policyService = policyService;
         this.cartViewService = cartViewService;
+        this.guestCarts = guestCarts;
     }
 
     @GetMapping
     public String landing(@PathVariable String eventCode,
                           Model model,
+                          HttpServletRequest request,
                           HttpSession session){
         var event = policyService.get(eventCode);
         model.addAttribute("event", event);
         model.addAttribute("vendors", vendorRepo.findByEventAndActiveTrue(event));
-        model.addAttribute("cartSummary", cartViewService.summarize(getOrCreateCart(session)));
+        model.addAttribute("cartSummary", cartViewService.summarize(eventCode, guestCarts.load(request)));
         boolean needsTicket = session.getAttribute(com.fbcorp.gleo.config.TicketSessionInterceptor.SESSION_TICKET_ATTR) == null;
         model.addAttribute("needsTicket", needsTicket);
         model.addAttribute("ticketPostUrl", "/e/" + eventCode + "/ticket");
         return "index";
     }
-
-    private CartSession getOrCreateCart(HttpSession session) {
-        CartSession cart = (CartSession) session.getAttribute("CART");
-        if (cart == null) {
-            cart = new CartSession();
-            session.setAttribute("CART", cart);
-        }
-        return cart;
-    }
 }
 
@@ -31,7 +31,7 @@ public class OrderController {
     @GetMapping("/{orderId}")
     public String track(@PathVariable String eventCode, @PathVariable Long orderId, Model model){
         var event = policyService.get(eventCode);
-        var order = orderRepo.findById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        var order = orderRepo.findWithVendorById(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         if (!order.getEvent().getId().equals(event.getId())) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         model.addAttribute("event", event);
         model.addAttribute("order", order);
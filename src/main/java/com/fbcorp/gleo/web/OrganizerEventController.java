@@ -9,12 +9,18 @@ import com.fbcorp.gleo.repo.UserAccountRepo;
 import com.fbcorp.gleo.repo.VendorRepo;
 import com.fbcorp.gleo.service.AssetStorageService;
 import com.fbcorp.gleo.service.AuditLogService;
+import com.fbcorp.gleo.service.EventExportService;
+import com.fbcorp.gleo.service.ExportFormat;
 import com.fbcorp.gleo.service.EventPolicyService;
-import com.fbcorp.gleo.service.TicketImportLogService;
+import com.fbcorp.gleo.service.MenuSnapshotService;
+import com.fbcorp.gleo.service.OrderTimingService;
+import com.fbcorp.gleo.service.TicketImportJobService;
 import com.fbcorp.gleo.service.TicketImportService;
 import com.fbcorp.gleo.service.OrganizerAnalyticsService;
+import com.fbcorp.gleo.service.VendorOrderNumberAllocator;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -27,12 +33,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -48,29 +55,41 @@ public class OrganizerEventController {
     private final EventPolicyService policyService;
     private final TicketImportService ticketImportService;
     private final AssetStorageService assetStorageService;
-    private final TicketImportLogService importLogService;
     private final OrganizerAnalyticsService analyticsService;
     private final AuditLogService auditLogService;
     private final UserAccountRepo userAccountRepo;
+    private final MenuSnapshotService menuSnapshotService;
+    private final OrderTimingService orderTimingService;
+    private final EventExportService eventExportService;
+    private final TicketImportJobService importJobService;
+    private final VendorOrderNumberAllocator orderNumberAllocator;
 
     public OrganizerEventController(VendorRepo vendorRepo,
                                     MenuItemRepo menuItemRepo,
                                     EventPolicyService policyService,
                                     TicketImportService ticketImportService,
                                     AssetStorageService assetStorageService,
-                                    TicketImportLogService importLogService,
                                     OrganizerAnalyticsService analyticsService,
                                     AuditLogService auditLogService,
-                                    UserAccountRepo userAccountRepo) {
+                                    UserAccountRepo userAccountRepo,
+                                    MenuSnapshotService menuSnapshotService,
+                                    OrderTimingService orderTimingService,
+                                    EventExportService eventExportService,
+                                    TicketImportJobService importJobService,
+                                    VendorOrderNumberAllocator orderNumberAllocator) {
         this.vendorRepo = vendorRepo;
         this.menuItemRepo = menuItemRepo;
         this.policyService = policyService;
         this.ticketImportService = ticketImportService;
         this.assetStorageService = assetStorageService;
-        this.importLogService = importLogService;
         this.analyticsService = analyticsService;
         this.auditLogService = auditLogService;
         this.userAccountRepo = userAccountRepo;
+        this.menuSnapshotService = menuSnapshotService;
+        this.orderTimingService = orderTimingService;
+        this.eventExportService = eventExportService;
+        this.importJobService = importJobService;
+        this.orderNumberAllocator = orderNumberAllocator;
     }
 
     @PostMapping("/{eventCode}/vendors")
@@ -120,27 +139,27 @@ public class OrganizerEventController {
             return "redirect:/dashboard";
         }
         Event event = policyService.get(eventCode);
-        TicketImportService.ImportResult result;
         try {
-            result = ticketImportService.importSheet(event, file);
+            importJobService.submit(event, file, currentUsername());
+            redirectAttributes.addFlashAttribute("toastMessage",
+                    "Import of '" + file.getOriginalFilename() + "' started. Progress is shown under Recent imports.");
         } catch (IOException e) {
-            redirectAttributes.addFlashAttribute("toastError", "Failed to read sheet: " + e.getMessage());
-            return "redirect:/dashboard";
-        }
-        redirectAttributes.addFlashAttribute("importResult", result);
-        String summary = result.summaryMessage();
-        if (result.created() > 0) {
-            redirectAttributes.addFlashAttribute("toastMessage", summary);
-        } else {
-            redirectAttributes.addFlashAttribute("toastError", summary);
+            redirectAttributes.addFlashAttribute("toastError", "Failed to store upload: " + e.getMessage());
+        } catch (ResponseStatusException e) {
+            redirectAttributes.addFlashAttribute("toastError", e.getReason());
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth != null ? auth.getName() : "system";
-        importLogService.record(event, username, result);
-
         return "redirect:/dashboard";
     }
 
+    @GetMapping("/{eventCode}/tickets/imports/{importId}")
+    public ResponseEntity<TicketImportJobService.ImportProgress> importProgress(@PathVariable String eventCode,
+                                                                               @PathVariable Long importId) {
+        Event event = policyService.get(eventCode);
+        return importJobService.progress(event, importId)
+                .map(progress -> ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(progress))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{eventCode}/tickets/template")
     public ResponseEntity<ByteArrayResource> downloadTemplate(@PathVariable String eventCode) {
         policyService.get(eventCode);
@@ -154,33 +173,38 @@ public class OrganizerEventController {
     }
 
     @GetMapping("/{eventCode}/vendors/export")
-    public ResponseEntity<ByteArrayResource> exportVendors(@PathVariable String eventCode) {
+    public ResponseEntity<StreamingResponseBody> exportVendors(@PathVariable String eventCode,
+                                                               @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = exportFormat(format);
         Event event = policyService.get(eventCode);
         List<Vendor> vendors = vendorRepo.findByEvent(event);
         Map<Long, OrganizerAnalyticsService.VendorStats> stats = analyticsService.computeVendorStats(event, vendors);
-        StringBuilder csv = new StringBuilder();
-        csv.append("Vendor,Status,Pickup PIN,Total orders,Completed orders,Items served,Revenue (EGP)\n");
-        for (Vendor vendor : vendors) {
-            OrganizerAnalyticsService.VendorStats vendorStats = stats.getOrDefault(
-                    vendor.getId(),
-                    new OrganizerAnalyticsService.VendorStats(vendor, 0, 0, 0, BigDecimal.ZERO));
-            csv.append(escapeCsv(vendor.getName())).append(',');
-            csv.append(escapeCsv(vendor.isActive() ? "Active" : "Archived")).append(',');
-            csv.append(escapeCsv(vendor.getPinPlain() != null ? vendor.getPinPlain() : "")).append(',');
-            csv.append(vendorStats.totalOrders()).append(',');
-            csv.append(vendorStats.completedOrders()).append(',');
-            csv.append(vendorStats.itemsServed()).append(',');
-        csv.append(vendorStats.revenue().setScale(2, RoundingMode.HALF_UP)).append('\n');
-        }
-        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
         auditLogService.record(AuditLogEntry.Category.VENDOR,
                 "Exported vendor roster for '" + (event.getName() != null ? event.getName() : event.getCode()) + "' (" + vendors.size() + " vendors)",
                 currentUsername());
+        return download(exportFormat, "vendor_roster",
+                out -> eventExportService.writeVendorRoster(vendors, stats, exportFormat, out));
+    }
+
+    @GetMapping("/{eventCode}/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@PathVariable String eventCode,
+                                                              @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = exportFormat(format);
+        Event event = policyService.get(eventCode);
+        auditLogService.record(AuditLogEntry.Category.VENDOR,
+                "Exported orders for '" + (event.getName() != null ? event.getName() : event.getCode()) + "'",
+                currentUsername());
+        return download(exportFormat, "orders_" + event.getCode(),
+                out -> eventExportService.writeOrders(event, exportFormat, out));
+    }
+
+    @GetMapping("/{eventCode}/metrics/throughput")
+    public ResponseEntity<Map<Long, OrderTimingService.VendorThroughput>> throughput(@PathVariable String eventCode,
+                                                                                     @RequestParam(defaultValue = "15") int minutes) {
+        Event event = policyService.get(eventCode);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vendor_roster.csv\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .contentLength(bytes.length)
-                .body(new ByteArrayResource(bytes));
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(orderTimingService.throughput(event.getCode(), minutes));
     }
 
     @PostMapping("/{eventCode}/vendors/{vendorId}/menu")
@@ -302,6 +326,7 @@ public class OrganizerEventController {
         }
 
         menuItemRepo.save(menuItem);
+        menuSnapshotService.evict(vendor.getId());
 
         if (isNew) {
             menuItem.setAvailable(true);
@@ -338,6 +363,7 @@ public class OrganizerEventController {
 
         String itemName = menuItem.getName() != null ? menuItem.getName() : "Menu item";
         menuItemRepo.delete(menuItem);
+        menuSnapshotService.evict(vendor.getId());
         auditLogService.record(
                 AuditLogEntry.Category.MENU,
                 "Deleted menu item '" + itemName + "' from vendor '" + vendor.getName() + "'",
@@ -447,6 +473,7 @@ public class OrganizerEventController {
         }
 
         vendorRepo.save(vendor);
+        menuSnapshotService.evict(vendor.getId());
         String auditMessage = changeNotes.isEmpty()
                 ? "Updated vendor '" + vendor.getName() + "'"
                 : "Updated vendor '" + vendor.getName() + "' (" + String.join(", ", changeNotes) + ")";
@@ -494,6 +521,8 @@ public class OrganizerEventController {
         }
         String vendorName = vendor.getName();
         vendorRepo.delete(vendor);
+        menuSnapshotService.evict(vendorId);
+        orderNumberAllocator.forget(vendorId);
         auditLogService.record(AuditLogEntry.Category.VENDOR,
                 "Deleted vendor '" + vendorName + "' permanently",
                 currentUsername());
@@ -563,15 +592,20 @@ public class OrganizerEventController {
         return authentication != null ? authentication.getName() : "system";
     }
 
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
-        }
-        String escaped = value.replace("\"", "\"\"");
-        if (escaped.contains(",")) {
-            return "\"" + escaped + "\"";
+    private ExportFormat exportFormat(String format) {
+        try {
+            return ExportFormat.parse(format);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
         }
-        return escaped;
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(ExportFormat format, String baseName, StreamingResponseBody body) {
+        String fileName = format.fileName(baseName.replaceAll("[^A-Za-z0-9_-]", "_"));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .body(body);
     }
 
     private void archiveVendor(Vendor vendor) {
@@ -584,6 +618,7 @@ public class OrganizerEventController {
             items.forEach(item -> item.setAvailable(false));
             menuItemRepo.saveAll(items);
         }
+        menuSnapshotService.evict(vendor.getId());
     }
 
     private void activateVendor(Vendor vendor) {
@@ -596,5 +631,6 @@ public class OrganizerEventController {
             items.forEach(item -> item.setAvailable(true));
             menuItemRepo.saveAll(items);
         }
+        menuSnapshotService.evict(vendor.getId());
     }
 }
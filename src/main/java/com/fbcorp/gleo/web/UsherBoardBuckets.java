@@ -0,0 +1,92 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.service.UsherBoardService.BoardCard;
+import com.fbcorp.gleo.service.UsherBoardService.BoardView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The usher board's columns: one bucket per status, merged across the vendors being shown and
+ * optionally narrowed to one guest. Kept apart from {@link UsherController} because it is the
+ * part of a board render that grows with the number of orders.
+ */
+public final class UsherBoardBuckets {
+
+    private static final Map<OrderStatus, String> STATUS_LABELS;
+    private static final Comparator<BoardCard> BY_CREATED_AT =
+            Comparator.comparing(BoardCard::createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    static {
+        Map<OrderStatus, String> labels = new LinkedHashMap<>();
+        labels.put(OrderStatus.NEW, "Checked-in");
+        labels.put(OrderStatus.PREPARING, "Being prepared");
+        labels.put(OrderStatus.READY, "Ready for pickup");
+        labels.put(OrderStatus.COMPLETED, "Completed");
+        labels.put(OrderStatus.CANCELLED, "Cancelled");
+        STATUS_LABELS = Collections.unmodifiableMap(labels);
+    }
+
+    public record StatusBucket(OrderStatus status, String label, List<BoardCard> orders) {
+        public boolean hasOrders() {
+            return orders != null && !orders.isEmpty();
+        }
+
+        public OrderStatus getStatus() {
+            return status;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public List<BoardCard> getOrders() {
+            return orders;
+        }
+    }
+
+    private UsherBoardBuckets() {}
+
+    /**
+     * Merges the boards into one bucket per status, oldest first. A non-blank
+     * {@code ticketFilter} keeps the cards whose ticket QR, serial or guest name contains it,
+     * ignoring case. The cancelled column is left out while it is empty.
+     */
+    public static List<StatusBucket> merge(List<BoardView> views, String ticketFilter) {
+        String token = ticketFilter != null ? ticketFilter.trim().toLowerCase(Locale.ROOT) : "";
+        return STATUS_LABELS.entrySet().stream()
+                .map(entry -> {
+                    List<BoardCard> bucketCards = new ArrayList<>();
+                    views.forEach(view -> bucketCards.addAll(view.buckets().get(entry.getKey())));
+                    if (!token.isBlank()) {
+                        bucketCards.removeIf(card -> !matchesTicket(card, token));
+                    }
+                    if (views.size() > 1) {
+                        bucketCards.sort(BY_CREATED_AT);
+                    }
+                    return new StatusBucket(entry.getKey(), entry.getValue(), bucketCards);
+                })
+                .filter(bucket -> bucket.status() != OrderStatus.CANCELLED || bucket.hasOrders())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matchesTicket(BoardCard card, String token) {
+        return containsIgnoreCase(card.ticketQr(), token)
+                || containsIgnoreCase(card.ticketSerial(), token)
+                || containsIgnoreCase(card.guestName(), token);
+    }
+
+    private static boolean containsIgnoreCase(String value, String token) {
+        if (value == null) {
+            return false;
+        }
+        return value.toLowerCase(Locale.ROOT).contains(token);
+    }
+}
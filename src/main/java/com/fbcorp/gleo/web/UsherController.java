@@ -6,9 +6,13 @@ import com.fbcorp.gleo.repo.OrderRepo;
 import com.fbcorp.gleo.domain.UserAccount;
 import com.fbcorp.gleo.repo.UserAccountRepo;
 import com.fbcorp.gleo.service.EventPolicyService;
+import com.fbcorp.gleo.service.HotPathMetrics;
 import com.fbcorp.gleo.service.OrderService;
+import com.fbcorp.gleo.service.UsherBoardService;
+import com.fbcorp.gleo.service.UsherBoardService.BoardCard;
 import com.fbcorp.gleo.service.VendorAuthService;
 import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.web.UsherBoardBuckets.StatusBucket;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,32 +26,19 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/e/{eventCode}/usher")
 public class UsherController {
 
-    private static final Map<OrderStatus, String> STATUS_LABELS;
     private static final Map<OrderStatus, String> ACTION_LABELS;
 
     static {
-        Map<OrderStatus, String> labels = new LinkedHashMap<>();
-        labels.put(OrderStatus.NEW, "Checked-in");
-        labels.put(OrderStatus.PREPARING, "Being prepared");
-        labels.put(OrderStatus.READY, "Ready for pickup");
-        labels.put(OrderStatus.COMPLETED, "Completed");
-        labels.put(OrderStatus.CANCELLED, "Cancelled");
-        STATUS_LABELS = Collections.unmodifiableMap(labels);
-
         EnumMap<OrderStatus, String> actions = new EnumMap<>(OrderStatus.class);
         actions.put(OrderStatus.NEW, "Mark preparing");
         actions.put(OrderStatus.PREPARING, "Mark ready");
@@ -61,37 +52,26 @@ public class UsherController {
     private final VendorAuthService vendorAuthService;
     private final VendorRepo vendorRepo;
     private final UserAccountRepo userAccountRepo;
+    private final UsherBoardService usherBoardService;
+    private final HotPathMetrics.Timer boardBuilds;
 
     public UsherController(EventPolicyService policyService,
                            OrderRepo orderRepo,
                            OrderService orderService,
                            VendorAuthService vendorAuthService,
                            VendorRepo vendorRepo,
-                           UserAccountRepo userAccountRepo) {
+                           UserAccountRepo userAccountRepo,
+                           UsherBoardService usherBoardService,
+                           HotPathMetrics metrics) {
         this.policyService = policyService;
         this.orderRepo = orderRepo;
         this.orderService = orderService;
         this.vendorAuthService = vendorAuthService;
         this.vendorRepo = vendorRepo;
         this.userAccountRepo = userAccountRepo;
-    }
-
-    public record StatusBucket(OrderStatus status, String label, List<Order> orders) {
-        public boolean hasOrders() {
-            return orders != null && !orders.isEmpty();
-        }
-
-        public OrderStatus getStatus() {
-            return status;
-        }
-
-        public String getLabel() {
-            return label;
-        }
-
-        public List<Order> getOrders() {
-            return orders;
-        }
+        this.usherBoardService = usherBoardService;
+        this.boardBuilds = metrics.timer("gleo_usher_board_seconds",
+                "Usher board models built, for one vendor or the whole event", "scope");
     }
 
     @GetMapping
@@ -110,44 +90,56 @@ public class UsherController {
         return "usher_board :: board";
     }
 
+    /**
+     * Renders a single card so the board can apply a pushed delta without reloading every column.
+     */
+    @GetMapping("/cards/{orderId}")
+    public String card(@PathVariable String eventCode,
+                       @PathVariable Long orderId,
+                       @RequestParam("vendor") Long vendorId,
+                       Model model) {
+        var event = policyService.get(eventCode);
+        var account = currentAccount();
+        if (account != null && account.hasRole("ROLE_USHER")
+                && !requireAuthorizedVendor(account, eventCode).getId().equals(vendorId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not authorized to view this order.");
+        }
+        BoardCard card = usherBoardService.card(vendorId, orderId);
+        if (card == null || !card.eventCode().equals(event.getCode())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not on the board");
+        }
+        model.addAttribute("event", event);
+        model.addAttribute("card", card);
+        model.addAttribute("statusActionLabels", ACTION_LABELS);
+        model.addAttribute("requirePin", policyService.requirePin(eventCode));
+        return "usher_board :: card";
+    }
+
     private void buildBoardModel(String eventCode,
                                  String ticketFilter,
                                  Model model) {
+        long started = System.nanoTime();
         var event = policyService.get(eventCode);
         var account = currentAccount();
-        List<Order> baseOrders;
-        if (account != null && account.hasRole("ROLE_USHER")) {
+        boolean singleVendor = account != null && account.hasRole("ROLE_USHER");
+        List<UsherBoardService.BoardView> views;
+        if (singleVendor) {
             var vendor = requireAuthorizedVendor(account, eventCode);
-            baseOrders = new ArrayList<>(orderRepo.findByVendor(vendor));
+            views = List.of(usherBoardService.view(vendor));
             model.addAttribute("activeVendor", vendor);
         } else {
-            baseOrders = new ArrayList<>(orderRepo.findByEvent(event));
+            views = usherBoardService.views(vendorRepo.findByEvent(event));
         }
 
         String normalizedFilter = ticketFilter != null ? ticketFilter.trim() : "";
-        List<Order> filteredOrders = baseOrders;
-        if (!normalizedFilter.isBlank()) {
-            String token = normalizedFilter.toLowerCase(Locale.ROOT);
-            filteredOrders = baseOrders.stream()
-                    .filter(order -> matchesTicket(order, token))
-                    .collect(Collectors.toList());
-        }
+        List<StatusBucket> buckets = UsherBoardBuckets.merge(views, normalizedFilter);
 
-        Comparator<Order> byCreatedAt = Comparator.comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
-        final List<Order> ordersForBuckets = filteredOrders;
-        List<StatusBucket> buckets = STATUS_LABELS.entrySet().stream()
-                .map(entry -> {
-                    List<Order> bucketOrders = ordersForBuckets.stream()
-                            .filter(o -> o.getStatus() == entry.getKey())
-                            .sorted(byCreatedAt)
-                            .collect(Collectors.toList());
-                    return new StatusBucket(entry.getKey(), entry.getValue(), bucketOrders);
-                })
-                .filter(bucket -> bucket.status() != OrderStatus.CANCELLED || bucket.hasOrders())
-                .collect(Collectors.toList());
+        Map<Long, Long> boardVersions = new LinkedHashMap<>();
+        views.forEach(view -> boardVersions.put(view.vendorId(), view.version()));
 
         model.addAttribute("event", event);
         model.addAttribute("statusBuckets", buckets);
+        model.addAttribute("boardVersions", boardVersions);
         model.addAttribute("statusActionLabels", ACTION_LABELS);
         model.addAttribute("requirePin", policyService.requirePin(eventCode));
         model.addAttribute("guestConfirmEnabled", policyService.guestPickupEnabled(eventCode));
@@ -161,6 +153,7 @@ public class UsherController {
         } else {
             model.addAttribute("vendors", vendorRepo.findByEventAndActiveTrue(event));
         }
+        boardBuilds.record(started, singleVendor ? "vendor" : "event");
     }
 
     @PostMapping("/orders/{orderId}/advance")
@@ -226,23 +219,6 @@ public class UsherController {
         return "redirect:/e/" + eventCode + "/usher";
     }
 
-    private boolean matchesTicket(Order order, String token) {
-        if (order.getTicket() == null) {
-            return false;
-        }
-        var ticket = order.getTicket();
-        return containsIgnoreCase(ticket.getQrCode(), token)
-                || containsIgnoreCase(ticket.getSerial(), token)
-                || containsIgnoreCase(ticket.getHolderName(), token);
-    }
-
-    private boolean containsIgnoreCase(String value, String token) {
-        if (value == null) {
-            return false;
-        }
-        return value.toLowerCase(Locale.ROOT).contains(token);
-    }
-
     private UserAccount currentAccount() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
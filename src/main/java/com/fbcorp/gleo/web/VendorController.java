@@ -1,65 +1,68 @@
 package com.fbcorp.gleo.web;
 
-import com.fbcorp.gleo.domain.Vendor;
-import com.fbcorp.gleo.repo.MenuItemRepo;
-import com.fbcorp.gleo.repo.VendorRepo;
 import com.fbcorp.gleo.service.CartViewService;
 import com.fbcorp.gleo.service.EventPolicyService;
+import com.fbcorp.gleo.service.MenuSnapshotService;
+import com.fbcorp.gleo.service.MenuSnapshotService.VendorMenu;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Objects;
 
 @Controller
 @RequestMapping("/e/{eventCode}/v")
 public class VendorController {
-    private final VendorRepo vendorRepo;
-    private final MenuItemRepo menuItemRepo;
+    private final MenuSnapshotService menuSnapshotService;
     private final EventPolicyService policyService;
     private final CartViewService cartViewService;
+    private final GuestCarts guestCarts;
 
-    public VendorController(VendorRepo vendorRepo, MenuItemRepo menuItemRepo, EventPolicyService policyService, CartViewService cartViewService){
-        this.vendorRepo = vendorRepo;
-        this.menuItemRepo = menuItemRepo;
+    public VendorController(MenuSnapshotService menuSnapshotService, EventPolicyService policyService, CartViewService cartViewService, GuestCarts guestCarts){
+        this.menuSnapshotService = menuSnapshotService;
         this.policyService = policyService;
         this.cartViewService = cartViewService;
+        this.guestCarts = guestCarts;
     }
 
+    /**
+     * The public menu, rendered from the vendor's {@link MenuSnapshotService} snapshot. The page
+     * also shows the guest's cart, so the ETag covers the snapshot version and the cart summary;
+     * a repeat visit with nothing changed gets a 304.
+     */
     @GetMapping("/{vendorId}")
-    public String menu(@PathVariable String eventCode, @PathVariable Long vendorId, Model model, HttpSession session){
+    public String menu(@PathVariable String eventCode, @PathVariable Long vendorId, Model model,
+                       HttpServletRequest request, HttpServletResponse response, WebRequest webRequest){
         var event = policyService.get(eventCode);
-        Vendor v = vendorRepo.findById(vendorId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        if (!v.getEvent().getId().equals(event.getId())) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        VendorMenu v = menuSnapshotService.menu(vendorId)
+                .filter(menu -> menu.eventCode().equals(event.getCode()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        boolean multiVendorEnabled = policyService.multiVendorCart(eventCode);
+        var cartSummary = cartViewService.summarize(eventCode, guestCarts.load(request));
+
+        // Flash messages are one-off, so those renders are never answered with a 304
+        var flash = RequestContextUtils.getInputFlashMap(request);
+        if (flash == null || flash.isEmpty()) {
+            String etag = "W/\"" + v.version() + "-"
+                    + Integer.toHexString(Objects.hash(cartSummary, multiVendorEnabled, event.getName())) + "\"";
+            // Per-guest page: browsers may keep it but must revalidate, shared caches must not
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            if (webRequest.checkNotModified(etag, v.builtAt().toEpochMilli())) {
+                return null;
+            }
+        }
+
         model.addAttribute("event", event);
         model.addAttribute("vendor", v);
-    var items = menuItemRepo.findByVendorAndAvailableTrue(v);
-    model.addAttribute("items", items);
-    // group items by category for display; use "Uncategorized" for blanks
-    java.util.Map<String, java.util.List<com.fbcorp.gleo.domain.MenuItem>> grouped = new java.util.HashMap<>();
-    for (com.fbcorp.gleo.domain.MenuItem i : items) {
-        String key = (i.getCategory() == null || i.getCategory().isBlank()) ? "Uncategorized" : i.getCategory();
-        grouped.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(i);
-    }
-    // Determine ordering for categories: use the minimum categoryOrder among items in the category.
-    java.util.List<java.util.Map.Entry<String, java.util.List<com.fbcorp.gleo.domain.MenuItem>>> entries = new java.util.ArrayList<>(grouped.entrySet());
-    entries.sort((e1, e2) -> {
-        int o1 = e1.getValue().stream().map(com.fbcorp.gleo.domain.MenuItem::getCategoryOrder).filter(java.util.Objects::nonNull).min(Integer::compareTo).orElse(0);
-        int o2 = e2.getValue().stream().map(com.fbcorp.gleo.domain.MenuItem::getCategoryOrder).filter(java.util.Objects::nonNull).min(Integer::compareTo).orElse(0);
-        if (o1 != o2) return Integer.compare(o1, o2);
-        return e1.getKey().compareToIgnoreCase(e2.getKey());
-    });
-    java.util.LinkedHashMap<String, java.util.List<com.fbcorp.gleo.domain.MenuItem>> ordered = new java.util.LinkedHashMap<>();
-    for (var e : entries) {
-        // Sort items inside a category alphabetically by name for deterministic order
-        e.getValue().sort(java.util.Comparator.comparing(i -> i.getName() == null ? "" : i.getName()));
-        ordered.put(e.getKey(), e.getValue());
-    }
-    model.addAttribute("itemsByCategory", ordered);
-        model.addAttribute("multiVendorEnabled", policyService.multiVendorCart(eventCode));
-        var cartSummary = cartViewService.summarize(getOrCreateCart(session));
+        model.addAttribute("itemsByCategory", v.categories());
+        model.addAttribute("multiVendorEnabled", multiVendorEnabled);
         model.addAttribute("cartSummary", cartSummary);
         // Derived, safe flags for template (avoid indexing into groups):
         boolean hasCartGroups = cartSummary != null && cartSummary.groups() != null && !cartSummary.groups().isEmpty();
@@ -67,19 +70,10 @@ public class VendorController {
         Long lockedVendorId = hasCartGroups ? cartSummary.groups().get(0).vendorId() : null;
         model.addAttribute("lockedVendorId", lockedVendorId);
         model.addAttribute("lockedVendorName", hasCartGroups ? cartSummary.groups().get(0).vendorName() : null);
-    // Lock only when multi-vendor is DISABLED and cart already has a different vendor
-    boolean singleVendorLocked = !policyService.multiVendorCart(eventCode) && hasCartGroups && !lockedVendorId.equals(v.getId());
+        // Lock only when multi-vendor is DISABLED and cart already has a different vendor
+        boolean singleVendorLocked = !multiVendorEnabled && hasCartGroups && !lockedVendorId.equals(v.id());
         model.addAttribute("singleVendorLocked", singleVendorLocked);
         model.addAttribute("cartLineCount", hasCartGroups ? cartSummary.totalQty() : 0);
         return "vendor_menu";
     }
-
-    private CartSession getOrCreateCart(HttpSession session) {
-        CartSession cart = (CartSession) session.getAttribute("CART");
-        if (cart == null) {
-            cart = new CartSession();
-            session.setAttribute("CART", cart);
-        }
-        return cart;
-    }
 }
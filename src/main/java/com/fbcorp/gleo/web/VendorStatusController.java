@@ -1,6 +1,7 @@
 package com.fbcorp.gleo.web;
 
 import com.fbcorp.gleo.model.VendorStatus;
+import com.fbcorp.gleo.service.MenuSnapshotService;
 import com.fbcorp.gleo.service.VendorService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,9 +11,11 @@ import org.springframework.web.bind.annotation.*;
 public class VendorStatusController {
 
     private final VendorService vendorService;
+    private final MenuSnapshotService menuSnapshotService;
 
-    public VendorStatusController(VendorService vendorService) {
+    public VendorStatusController(VendorService vendorService, MenuSnapshotService menuSnapshotService) {
         this.vendorService = vendorService;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     @PostMapping("/{vendorId}/status")
@@ -20,6 +23,7 @@ public class VendorStatusController {
             @PathVariable Long vendorId,
             @RequestParam VendorStatus status) {
         vendorService.updateVendorStatus(vendorId, status);
+        menuSnapshotService.evict(vendorId);
         return ResponseEntity.ok(status);
     }
     
@@ -0,0 +1,30 @@
+package com.fbcorp.gleo.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Incremental usher board update. Versions are per vendor, shared by all nodes, and increase by
+ * one per delta; a client that sees a gap should reload the board.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardDeltaMessage {
+    public static final String TYPE = "board-delta";
+
+    private String type = TYPE;
+    private String eventCode;
+    private Long vendorId;
+    private long version;
+    private String change; // "added", "moved", "removed"
+    private Long orderId;
+    private String fromStatus;
+    private String toStatus;
+
+    public BoardDeltaMessage(String eventCode, Long vendorId, long version, String change,
+                             Long orderId, String fromStatus, String toStatus) {
+        this(TYPE, eventCode, vendorId, version, change, orderId, fromStatus, toStatus);
+    }
+}
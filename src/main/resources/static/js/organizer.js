@@ -169,8 +169,53 @@
     });
   }
 
+  const IMPORT_POLL_MS = 2000;
+  const IMPORT_STATUS_LABELS = {
+    QUEUED: 'Queued',
+    RUNNING: 'In progress',
+    COMPLETED: 'Completed',
+    FAILED: 'Failed'
+  };
+
+  function pollImportProgress(item) {
+    const url = item.getAttribute('data-import-progress-url');
+    const details = item.querySelector('[data-import-details]');
+    const chip = item.querySelector('[data-import-status]');
+
+    function render(progress) {
+      if (details) {
+        details.textContent = `Total ${progress.totalRows}, Imported ${progress.importedRows}, `
+          + `Duplicates ${progress.duplicateRows}, Invalid ${progress.invalidRows}`;
+      }
+      if (chip) {
+        chip.textContent = IMPORT_STATUS_LABELS[progress.status] || progress.status;
+        chip.classList.toggle('inactive', progress.status === 'FAILED');
+      }
+    }
+
+    function tick() {
+      fetch(url, { headers: { Accept: 'application/json' }, credentials: 'same-origin' })
+        .then((response) => (response.ok ? response.json() : null))
+        .then((progress) => {
+          if (!progress) {
+            return;
+          }
+          render(progress);
+          if (progress.done) {
+            item.removeAttribute('data-import-progress-url');
+            return;
+          }
+          setTimeout(tick, IMPORT_POLL_MS);
+        })
+        .catch(() => setTimeout(tick, IMPORT_POLL_MS * 5));
+    }
+
+    setTimeout(tick, IMPORT_POLL_MS);
+  }
+
   document.addEventListener('DOMContentLoaded', () => {
     document.querySelectorAll('[data-dropzone]').forEach(setupDropzone);
     setupRemovalToggles();
+    document.querySelectorAll('[data-import-progress-url]').forEach(pollImportProgress);
   });
 })();
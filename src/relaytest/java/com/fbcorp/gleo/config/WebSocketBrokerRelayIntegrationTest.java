@@ -0,0 +1,72 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.service.OrderBroadcastDispatcher;
+import com.fbcorp.gleo.support.StompTestClient;
+import com.fbcorp.gleo.websocket.BoardDeltaMessage;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link WebSocketBrokerIntegrationTest} in relay mode: broadcasts go out through an embedded
+ * Artemis broker speaking STOMP, the way several nodes share one broker in production.
+ * Runs with {@code mvn -Pbroker-relay test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketBrokerRelayIntegrationTest {
+
+    private static EmbeddedActiveMQ broker;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderBroadcastDispatcher broadcastDispatcher;
+
+    @DynamicPropertySource
+    static void relayToEmbeddedBroker(DynamicPropertyRegistry registry) throws Exception {
+        int relayPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            relayPort = socket.getLocalPort();
+        }
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + relayPort + "?protocols=STOMP;multicastPrefix=/topic/"));
+        broker.start();
+        registry.add("gleo.websocket.broker.mode", () -> "relay");
+        registry.add("gleo.websocket.broker.relay-port", () -> relayPort);
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void broadcastsReachSubscribedClientsThroughTheRelay() throws Exception {
+        try (StompTestClient organizer = StompTestClient.connect(port, "admin", "Admin@123")) {
+            var deltas = organizer.subscribe(OrderBroadcastDispatcher.eventTopic("G2025"), BoardDeltaMessage.class);
+
+            BoardDeltaMessage delta = organizer.awaitDelivery(deltas, () -> broadcastDispatcher.enqueue(
+                    OrderBroadcastDispatcher.eventTopic("G2025"),
+                    new BoardDeltaMessage("G2025", 1L, 1, "added", 99L, null, "NEW")));
+
+            assertThat(delta).isNotNull();
+            assertThat(delta.getOrderId()).isEqualTo(99L);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.UserAccount;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.UserAccountRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderTopicSubscriptionInterceptorTest {
+
+    private final UserAccountRepo userAccountRepo = mock(UserAccountRepo.class);
+    private final OrderTopicSubscriptionInterceptor interceptor = new OrderTopicSubscriptionInterceptor(userAccountRepo);
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void ushersMaySubscribeOnlyToTheirOwnVendor() {
+        Event event = new Event();
+        event.setCode("G2025");
+        Vendor vendor = new Vendor();
+        vendor.setId(7L);
+        vendor.setEvent(event);
+        UserAccount usher = new UserAccount();
+        usher.setUsername("usher_brgr");
+        usher.setVendor(vendor);
+        when(userAccountRepo.findByUsername("usher_brgr")).thenReturn(Optional.of(usher));
+        var principal = new UsernamePasswordAuthenticationToken("usher_brgr", null,
+                AuthorityUtils.createAuthorityList("ROLE_USHER"));
+
+        assertThatCode(() -> subscribe("/topic/orders/G2025/vendor/7", principal, Map.of()))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> subscribe("/topic/orders/G2025/vendor/8", principal, Map.of()))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> subscribe("/topic/orders/G2025", principal, Map.of()))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void guestsMaySubscribeOnlyToTheTicketInTheirSession() {
+        Map<String, Object> session = Map.of(TicketSessionInterceptor.SESSION_TICKET_ATTR, 42L);
+
+        assertThatCode(() -> subscribe("/topic/orders/G2025/ticket/42", null, session))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> subscribe("/topic/orders/G2025/ticket/43", null, session))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatCode(() -> subscribe("/topic/vendor-status/G2025", null, Map.of()))
+                .doesNotThrowAnyException();
+    }
+
+    private void subscribe(String destination, Principal user, Map<String, Object> sessionAttributes) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setSessionAttributes(new HashMap<>(sessionAttributes));
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, channel);
+    }
+}
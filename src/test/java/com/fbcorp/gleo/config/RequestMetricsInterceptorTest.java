@@ -0,0 +1,54 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.service.HotPathMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class RequestMetricsInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private HotPathMetrics metrics;
+
+    @Test
+    void streamedExportReleasesItsStatementScopeAndIsTimedOnce() throws Exception {
+        MvcResult export = mockMvc.perform(get("/organizer/events/G2025/orders/export")
+                        .with(user("organizer").roles("ORGANIZER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // The first dispatch hands its thread back without leaving a scope open on it
+        assertThat(statementCounter.isCounting()).isFalse();
+
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        assertThat(statementCounter.isCounting()).isFalse();
+
+        // The next request on this thread counts against its own budget only
+        mockMvc.perform(get("/organizer/events/G2025/metrics/throughput")
+                        .with(user("organizer").roles("ORGANIZER")))
+                .andExpect(status().isOk());
+        assertThat(statementCounter.isCounting()).isFalse();
+
+        assertThat(metrics.scrape()).contains("gleo_http_request_seconds_count{method=\"GET\","
+                + "route=\"/organizer/events/{eventCode}/orders/export\",status=\"200\"} 1\n");
+    }
+}
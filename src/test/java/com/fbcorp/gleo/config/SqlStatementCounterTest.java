@@ -0,0 +1,29 @@
+package com.fbcorp.gleo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    void countsIntoEveryOpenScopeAndFailsPastAHardBudget() {
+        counter.begin();
+        counter.inspect("select 1");
+        counter.begin("GET /e/{eventCode}/usher", 2);
+        counter.inspect("select 2");
+        counter.inspect("select 3");
+
+        assertThatThrownBy(() -> counter.inspect("select 4"))
+                .isInstanceOf(SqlStatementBudgetExceededException.class)
+                .hasMessageContaining("GET /e/{eventCode}/usher exceeded its budget of 2")
+                .hasMessageContaining("select 4");
+        assertThat(counter.end()).isEqualTo(3);
+        assertThat(counter.end()).isEqualTo(4);
+        assertThat(counter.current()).isZero();
+        assertThat(counter.inspect("select 5")).isEqualTo("select 5");
+    }
+}
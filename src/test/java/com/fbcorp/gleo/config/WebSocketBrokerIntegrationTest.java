@@ -0,0 +1,50 @@
+package com.fbcorp.gleo.config;
+
+import com.fbcorp.gleo.service.OrderBroadcastDispatcher;
+import com.fbcorp.gleo.support.StompTestClient;
+import com.fbcorp.gleo.websocket.BoardDeltaMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End to end over the default in-process broker: a real STOMP client on {@code /ws}, subscribing
+ * with a logged-in session, receives what {@link OrderBroadcastDispatcher} sends. The relay
+ * variant runs against an embedded broker with {@code -Pbroker-relay}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketBrokerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderBroadcastDispatcher broadcastDispatcher;
+
+    @Test
+    void broadcastsReachSubscribedClients() throws Exception {
+        try (StompTestClient organizer = StompTestClient.connect(port, "admin", "Admin@123")) {
+            var deltas = organizer.subscribe(OrderBroadcastDispatcher.eventTopic("G2025"), BoardDeltaMessage.class);
+
+            BoardDeltaMessage delta = organizer.awaitDelivery(deltas, () -> broadcastDispatcher.enqueue(
+                    OrderBroadcastDispatcher.eventTopic("G2025"),
+                    new BoardDeltaMessage("G2025", 1L, 1, "added", 99L, null, "NEW")));
+
+            assertThat(delta).isNotNull();
+            assertThat(delta.getOrderId()).isEqualTo(99L);
+            assertThat(delta.getToStatus()).isEqualTo("NEW");
+        }
+    }
+
+    @Test
+    void ushersAreRefusedTheEventWideTopic() throws Exception {
+        try (StompTestClient usher = StompTestClient.connect(port, "usher_brgr", "Usher@123")) {
+            usher.subscribe(OrderBroadcastDispatcher.eventTopic("G2025"), BoardDeltaMessage.class);
+
+            assertThat(usher.awaitError()).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.fbcorp.gleo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.mockito.Mockito.mock;
+
+class WebSocketConfigTest {
+
+    private final WebSocketConfig config = new WebSocketConfig(mock(OrderTopicSubscriptionInterceptor.class));
+
+    @Test
+    void relayModeWithoutReactorNettyFailsWithTheProfileToBuildWith() {
+        assumeFalse(ClassUtils.isPresent("reactor.netty.tcp.TcpClient", getClass().getClassLoader()),
+                "built with -Pbroker-relay");
+        ReflectionTestUtils.setField(config, "brokerMode", "relay");
+
+        assertThatThrownBy(() -> config.configureMessageBroker(mock(MessageBrokerRegistry.class)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("-Pbroker-relay");
+    }
+
+    @Test
+    void unknownBrokerModesAreRejected() {
+        ReflectionTestUtils.setField(config, "brokerMode", "rabbit");
+
+        assertThatThrownBy(() -> config.configureMessageBroker(mock(MessageBrokerRegistry.class)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'rabbit'");
+    }
+}
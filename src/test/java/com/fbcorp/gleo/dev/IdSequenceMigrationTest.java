@@ -0,0 +1,53 @@
+package com.fbcorp.gleo.dev;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IdSequenceMigrationTest {
+
+    @Autowired
+    private IdSequenceMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void dropLegacyTable() {
+        jdbc.execute("DROP TABLE IF EXISTS legacy_things");
+        jdbc.execute("DROP SEQUENCE IF EXISTS legacy_things_seq");
+    }
+
+    @Test
+    void movesAnIdentityTableOntoItsSequenceOnce() {
+        // The shape of a table created before ids came from sequences
+        jdbc.execute("CREATE TABLE legacy_things (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(20))");
+        jdbc.execute("CREATE SEQUENCE legacy_things_seq START WITH 1 INCREMENT BY 50");
+        jdbc.update("INSERT INTO legacy_things (name) VALUES ('a'), ('b')");
+        jdbc.update("INSERT INTO legacy_things (id, name) VALUES (120, 'c')");
+
+        migration.migrate("legacy_things", "id", "legacy_things_seq");
+
+        assertThat(jdbc.queryForObject("SELECT is_identity FROM information_schema.columns "
+                + "WHERE LOWER(table_name) = 'legacy_things' AND LOWER(column_name) = 'id'", String.class)).isEqualTo("NO");
+        // An insert without an id, as a node on the old mapping would send, takes the sequence default
+        jdbc.update("INSERT INTO legacy_things (name) VALUES ('d')");
+        long inserted = jdbc.queryForObject("SELECT id FROM legacy_things WHERE name = 'd'", Long.class);
+        assertThat(inserted).isGreaterThan(120);
+        long next = nextValue();
+        assertThat(next).isGreaterThan(inserted);
+
+        // Migrated tables are left alone: no probe, no restart
+        migration.migrate("legacy_things", "id", "legacy_things_seq");
+        assertThat(nextValue()).isEqualTo(next + 50);
+    }
+
+    private long nextValue() {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR legacy_things_seq", Long.class);
+    }
+}
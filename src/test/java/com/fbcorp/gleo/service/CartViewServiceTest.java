@@ -0,0 +1,63 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.model.VendorStatus;
+import com.fbcorp.gleo.service.MenuSnapshotService.MenuEntry;
+import com.fbcorp.gleo.service.MenuSnapshotService.VendorMenu;
+import com.fbcorp.gleo.service.cart.CartSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartViewServiceTest {
+
+    private final MenuSnapshotService menuSnapshotService = mock(MenuSnapshotService.class);
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("gleo.pricing.events.G2025.promos", "HALF=percent:50");
+    private final CartViewService cartViewService = new CartViewService(menuSnapshotService,
+            new PricingRuleService(environment, "0.05", "SAVE10=percent:10,FLAT5=amount:5"), new HotPathMetrics(), 100);
+
+    @Test
+    void reusesTheSummaryUntilTheCartChanges() {
+        MenuEntry burger = new MenuEntry(10L, "Burger", new BigDecimal("100.00"), true, null, null, null, null);
+        when(menuSnapshotService.menus(any())).thenReturn(Map.of(1L,
+                new VendorMenu(1L, "BRGR", "G2025", true, null, VendorStatus.AVAILABLE,
+                        Map.of(10L, burger), List.of(), "v1", Instant.now())));
+        CartSession cart = new CartSession();
+        cart.setCartId("guest");
+        cart.add(1L, 10L, 2);
+
+        var first = cartViewService.summarize("G2025", cart);
+        var second = cartViewService.summarize("G2025", cart);
+        assertThat(second).isSameAs(first);
+        assertThat(first.grandTotal()).isEqualByComparingTo("210.00");
+
+        cart.setPromoCode("half");
+        var discounted = cartViewService.summarize("G2025", cart);
+        assertThat(discounted.discount()).isEqualByComparingTo("100.00");
+        assertThat(discounted.promoCode()).isEqualTo("HALF");
+        verify(menuSnapshotService, times(2)).menus(List.of(1L));
+    }
+
+    @Test
+    void eventsWithoutOverridesUseTheDefaultRules() {
+        var table = new PricingRuleService(environment, "0.05", "SAVE10=percent:10,FLAT5=amount:5").table("OTHER");
+
+        var pricing = table.apply(new BigDecimal("3.00"), "FLAT5");
+
+        assertThat(pricing.serviceFee()).isEqualByComparingTo("0.15");
+        assertThat(pricing.discount()).isEqualByComparingTo("3.00");
+        assertThat(pricing.total()).isEqualByComparingTo("0.15");
+        assertThat(table.serviceFeePercent().toPlainString()).isEqualTo("5");
+    }
+}
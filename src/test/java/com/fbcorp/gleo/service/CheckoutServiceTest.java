@@ -0,0 +1,132 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.config.SqlStatementCounter;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.support.SqlStatements;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionEventListener;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class CheckoutServiceTest {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private EventRepo eventRepo;
+
+    @Autowired
+    private VendorRepo vendorRepo;
+
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Test
+    void placesOneOrderPerVendorGroupAndBlocksOpenOrders() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        List<Vendor> vendors = vendorRepo.findByEventAndActiveTrue(event).subList(0, 2);
+
+        Map<Long, List<CheckoutService.CartLine>> cart = new LinkedHashMap<>();
+        for (Vendor vendor : vendors) {
+            MenuItem item = menuItemRepo.findByVendorAndAvailableTrue(vendor).get(0);
+            cart.put(vendor.getId(), List.of(new CheckoutService.CartLine(item.getId(), 2)));
+        }
+
+        var first = checkoutService.checkout("G2025", null, "checkout-device", cart);
+
+        assertThat(first.rejectedByVendor).isEmpty();
+        assertThat(first.orders).hasSize(2);
+        assertThat(first.orders).allSatisfy(order -> {
+            assertThat(order.getId()).isNotNull();
+            assertThat(order.getStatus()).isEqualTo(OrderStatus.NEW);
+            assertThat(order.getVendorOrderNumber()).isPositive();
+            assertThat(order.getItems()).hasSize(1);
+        });
+
+        var second = checkoutService.checkout("G2025", null, "checkout-device", cart);
+
+        assertThat(second.orders).isEmpty();
+        assertThat(second.rejectedByVendor).containsOnlyKeys(cart.keySet());
+    }
+
+    @Test
+    void checkoutOfThreeVendorsStaysWithinItsStatementBudget() throws Exception {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Map<Long, List<CheckoutService.CartLine>> cart = new LinkedHashMap<>();
+        for (Vendor vendor : vendorRepo.findByEventAndActiveTrue(event).subList(0, 3)) {
+            MenuItem item = menuItemRepo.findByVendorAndAvailableTrue(vendor).get(0);
+            cart.put(vendor.getId(), List.of(new CheckoutService.CartLine(item.getId(), 1)));
+        }
+
+        // Warm the policy and menu caches so only the checkout itself is measured
+        checkoutService.checkout("G2025", null, "budget-warmup", cart);
+
+        var result = SqlStatements.atMost(statementCounter, 14, "checkout of 3 vendors",
+                () -> checkoutService.checkout("G2025", null, "budget-device", cart));
+
+        assertThat(result.orders).hasSize(3);
+    }
+
+    @Test
+    void insertsACheckoutsOrdersAndItemsInJdbcBatches() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Map<Long, List<CheckoutService.CartLine>> cart = new LinkedHashMap<>();
+        int items = 0;
+        for (Vendor vendor : vendorRepo.findByEventAndActiveTrue(event).subList(0, 3)) {
+            List<CheckoutService.CartLine> lines = menuItemRepo.findByVendorAndAvailableTrue(vendor).stream()
+                    .limit(2)
+                    .map(item -> new CheckoutService.CartLine(item.getId(), 1))
+                    .toList();
+            cart.put(vendor.getId(), lines);
+            items += lines.size();
+        }
+        // Create the guest's walk-in ticket first, so only the checkout's own inserts are counted
+        ticketService.resolveTicket("G2025", null, "batch-device");
+        entityManager.flush();
+        BatchCounter batches = new BatchCounter();
+        entityManager.unwrap(SessionImplementor.class).getEventListenerManager().addListener(batches);
+
+        var result = checkoutService.checkout("G2025", null, "batch-device", cart);
+        entityManager.flush();
+
+        assertThat(result.orders).hasSize(3);
+        assertThat(items).isGreaterThan(3);
+        // One batch for the orders and one for their items, rather than a round trip per row
+        assertThat(batches.executed).isEqualTo(2);
+    }
+
+    private static final class BatchCounter implements SessionEventListener {
+        private int executed;
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executed++;
+        }
+    }
+}
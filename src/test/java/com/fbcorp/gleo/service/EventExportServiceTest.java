@@ -0,0 +1,71 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class EventExportServiceTest {
+
+    @Autowired
+    private EventExportService exportService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private EventRepo eventRepo;
+    @Autowired
+    private VendorRepo vendorRepo;
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void writesOneRowPerOrderAsCsvAndXlsx() throws Exception {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Vendor vendor = vendorRepo.findByEventAndActiveTrue(event).get(0);
+        List<MenuItem> items = menuItemRepo.findByVendorAndAvailableTrue(vendor);
+        MenuItem first = items.get(0);
+        var cart = Map.of(vendor.getId(), List.of(new CheckoutService.CartLine(first.getId(), 2)));
+        var order = checkoutService.checkout("G2025", null, "export-device", cart).orders.get(0);
+        entityManager.flush();
+
+        var csv = new ByteArrayOutputStream();
+        exportService.writeOrders(event, ExportFormat.CSV, csv);
+        List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).startsWith("Order ID,Vendor,Vendor order #,Status");
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .startsWith(order.getId() + ",")
+                .contains("2x " + first.getName())
+                .contains(",NEW,"));
+
+        var xlsx = new ByteArrayOutputStream();
+        exportService.writeOrders(event, ExportFormat.XLSX, xlsx);
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(xlsx.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Orders");
+            assertThat(sheet.getLastRowNum()).isEqualTo(lines.size() - 1);
+            Row header = sheet.getRow(0);
+            assertThat(header.getCell(EventExportService.ORDER_COLUMNS.indexOf("Items")).getStringCellValue()).isEqualTo("Items");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.TierCode;
+import com.fbcorp.gleo.repo.EventRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class EventPolicyServiceTest {
+
+    @Autowired
+    private EventPolicyService policyService;
+
+    @Autowired
+    private EventRepo eventRepo;
+
+    @AfterEach
+    void dropSnapshotsFromRolledBackChanges() {
+        policyService.invalidate("G2025");
+    }
+
+    @Test
+    void servesRepeatedChecksFromSnapshotUntilInvalidated() {
+        policyService.invalidate("G2025");
+        var before = policyService.cacheStats();
+
+        boolean requirePin = policyService.requirePin("G2025");
+        policyService.guestPickupEnabled("G2025");
+        policyService.multiVendorCart("G2025");
+
+        var after = policyService.cacheStats();
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(2);
+
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        event.setRequireVendorPinForPickup(!requirePin);
+        eventRepo.save(event);
+        assertThat(policyService.requirePin("G2025")).isEqualTo(requirePin);
+
+        policyService.invalidate("G2025");
+        assertThat(policyService.requirePin("G2025")).isEqualTo(!requirePin);
+    }
+
+    @Test
+    void tierPolicyUpdatesAreVisibleImmediately() {
+        policyService.updateTierPolicy("G2025", TierCode.REG, false, 3);
+        assertThat(policyService.tierLimit("G2025", TierCode.REG).maxItemsPerVendor()).isEqualTo(3);
+
+        policyService.updateTierPolicy("G2025", TierCode.REG, true, null);
+        assertThat(policyService.tierLimit("G2025", TierCode.REG).hasLimit()).isFalse();
+    }
+}
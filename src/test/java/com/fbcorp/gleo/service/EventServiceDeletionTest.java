@@ -10,12 +10,16 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @SpringBootTest
+@RecordApplicationEvents
 class EventServiceDeletionTest {
 
     @Autowired
@@ -26,6 +30,8 @@ class EventServiceDeletionTest {
     MenuItemRepo menuItemRepo;
     @Autowired
     EventService eventService;
+    @Autowired
+    ApplicationEvents applicationEvents;
 
     @Test
     @Transactional
@@ -64,5 +70,8 @@ class EventServiceDeletionTest {
         Assertions.assertTrue(eventRepo.findById(eventId).isEmpty(), "Event should be deleted");
         Assertions.assertTrue(vendorRepo.findById(vendorId).isEmpty(), "Vendor should be deleted");
         Assertions.assertTrue(menuItemRepo.findById(menuItemId).isEmpty(), "MenuItem should be deleted");
+        Assertions.assertEquals(1, applicationEvents.stream(EventDeletedEvent.class)
+                .filter(deleted -> deleted.eventId().equals(eventId) && deleted.vendorIds().equals(List.of(vendorId)))
+                .count(), "Caches should be told the event and its vendors are gone");
     }
 }
@@ -0,0 +1,40 @@
+package com.fbcorp.gleo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPathMetricsTest {
+
+    private final HotPathMetrics metrics = new HotPathMetrics();
+
+    @Test
+    void scrapesCumulativeBucketsAndLabelledCounters() {
+        var statements = metrics.histogram("gleo_statements", "Statements", new double[]{1, 5}, "route");
+        statements.observe(1, "/e/{eventCode}/cart");
+        statements.observe(3, "/e/{eventCode}/cart");
+        statements.observe(9, "/e/{eventCode}/cart");
+        metrics.counter("gleo_rows_total", "Rows", "result").add(4, "created");
+
+        assertThat(metrics.scrape())
+                .contains("# TYPE gleo_statements histogram\n")
+                .contains("gleo_statements_bucket{route=\"/e/{eventCode}/cart\",le=\"1\"} 1\n")
+                .contains("gleo_statements_bucket{route=\"/e/{eventCode}/cart\",le=\"5\"} 2\n")
+                .contains("gleo_statements_bucket{route=\"/e/{eventCode}/cart\",le=\"+Inf\"} 3\n")
+                .contains("gleo_statements_sum{route=\"/e/{eventCode}/cart\"} 13\n")
+                .contains("gleo_statements_count{route=\"/e/{eventCode}/cart\"} 3\n")
+                .contains("gleo_rows_total{result=\"created\"} 4\n");
+    }
+
+    @Test
+    void foldsLabelValuesPastTheSeriesLimitIntoOther() {
+        var counter = metrics.counter("gleo_hits_total", "Hits", "route");
+        for (int i = 0; i < HotPathMetrics.MAX_SERIES + 3; i++) {
+            counter.increment("/route/" + i);
+        }
+
+        assertThat(metrics.scrape())
+                .contains("gleo_hits_total{route=\"/route/0\"} 1\n")
+                .contains("gleo_hits_total{route=\"other\"} 3\n");
+    }
+}
@@ -0,0 +1,59 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuSnapshotServiceTest {
+
+    private final VendorRepo vendorRepo = mock(VendorRepo.class);
+    private final MenuItemRepo menuItemRepo = mock(MenuItemRepo.class);
+
+    @Test
+    void expiredSnapshotsPickUpMenuChangesMadeOnOtherNodes() {
+        // Every read is past the TTL, as it would be once the other node's write is that old
+        MenuSnapshotService service = new MenuSnapshotService(vendorRepo, menuItemRepo, Duration.ZERO);
+        Vendor vendor = vendor();
+        MenuItem burger = new MenuItem();
+        burger.setId(10L);
+        burger.setVendor(vendor);
+        burger.setName("Burger");
+        burger.setPrice(new BigDecimal("100.00"));
+        burger.setAvailable(true);
+        when(vendorRepo.findWithEventByIdIn(any())).thenReturn(List.of(vendor));
+        when(menuItemRepo.findByVendorIn(any())).thenReturn(List.of(burger));
+
+        var first = service.menu(1L).orElseThrow();
+        long generation = service.generation();
+        assertThat(service.menu(1L)).containsSame(first);
+        assertThat(service.generation()).isEqualTo(generation);
+
+        burger.setPrice(new BigDecimal("120.00"));
+        var changed = service.menu(1L).orElseThrow();
+        assertThat(changed.version()).isNotEqualTo(first.version());
+        assertThat(changed.item(10L).price()).isEqualByComparingTo("120.00");
+        assertThat(service.generation()).isGreaterThan(generation);
+    }
+
+    private static Vendor vendor() {
+        Event event = new Event();
+        event.setCode("G2025");
+        Vendor vendor = new Vendor();
+        vendor.setId(1L);
+        vendor.setEvent(event);
+        vendor.setName("BRGR");
+        return vendor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fbcorp.gleo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrderBroadcastDispatcherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+    private final HotPathMetrics metrics = new HotPathMetrics();
+
+    // A long window keeps the background flusher out of the way; the test flushes explicitly
+    private final OrderBroadcastDispatcher dispatcher =
+            new OrderBroadcastDispatcher(messagingTemplate, metrics, 2, Duration.ofHours(1));
+
+    @AfterEach
+    void stop() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void coalescesUpdatesToTheSameOrderAndDropsWhenFull() {
+        dispatcher.enqueueLatest(1L, "/topic/orders/G2025", "NEW");
+        dispatcher.enqueueLatest(1L, "/topic/orders/G2025", "PREPARING");
+        dispatcher.enqueue("/topic/orders/G2025", "delta");
+        dispatcher.enqueue("/topic/orders/G2025", "overflow");
+
+        assertThat(metrics.scrape())
+                .contains("gleo_broadcast_queue_depth 2\n")
+                .contains("gleo_broadcast_discarded_total{reason=\"coalesced\"} 1\n")
+                .contains("gleo_broadcast_discarded_total{reason=\"queue_full\"} 1\n");
+
+        dispatcher.flush();
+
+        var sent = inOrder(messagingTemplate);
+        sent.verify(messagingTemplate).convertAndSend("/topic/orders/G2025", (Object) "PREPARING");
+        sent.verify(messagingTemplate).convertAndSend("/topic/orders/G2025", (Object) "delta");
+        verify(messagingTemplate, times(0)).convertAndSend("/topic/orders/G2025", (Object) "NEW");
+        assertThat(metrics.scrape())
+                .contains("gleo_broadcast_delivery_seconds_count{outcome=\"sent\"} 2\n")
+                .contains("gleo_broadcast_queue_depth 0\n");
+    }
+}
@@ -0,0 +1,62 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderTimingServiceTest {
+
+    private long minute = 1_000_000;
+
+    private final OrderTimingService service = new OrderTimingService(Duration.ofMinutes(10)) {
+        @Override
+        long currentMinute() {
+            return minute;
+        }
+    };
+
+    @Test
+    void aggregatesStageTimesPerVendorAndAgesOutOldMinutes() {
+        LocalDateTime placed = LocalDateTime.of(2025, 5, 1, 18, 0);
+        for (int i = 0; i < 10; i++) {
+            LocalDateTime preparing = placed.plusSeconds(30 + i * 30L);
+            LocalDateTime ready = preparing.plusMinutes(4);
+            LocalDateTime completed = ready.plusSeconds(20);
+            service.onOrderChanged(event((long) i, OrderStatus.NEW, null, placed, null, null, null));
+            service.onOrderChanged(event((long) i, OrderStatus.PREPARING, OrderStatus.NEW, placed, preparing, null, null));
+            service.onOrderChanged(event((long) i, OrderStatus.READY, OrderStatus.PREPARING, placed, preparing, ready, null));
+            service.onOrderChanged(event((long) i, OrderStatus.COMPLETED, OrderStatus.READY, placed, preparing, ready, completed));
+        }
+
+        var flow = service.throughput("G2025", 5).get(7L);
+        assertThat(flow.placed()).isEqualTo(10);
+        assertThat(flow.completed()).isEqualTo(10);
+        assertThat(flow.ordersPerMinute()).isEqualTo(2.0);
+        assertThat(flow.queueWait().count()).isEqualTo(10);
+        // Waits are 30s..300s; p90 is 270s give or take one bucket
+        assertThat(flow.queueWait().p90Seconds()).isBetween(270L, 300L);
+        assertThat(flow.queueWait().maxSeconds()).isEqualTo(300);
+        assertThat(flow.prep().p50Seconds()).isBetween(240L, 255L);
+        assertThat(flow.pickup().p90Seconds()).isEqualTo(20);
+        assertThat(flow.perMinute()).hasSize(5);
+        assertThat(service.throughput("OTHER", 5)).isEmpty();
+
+        minute += 11;
+        var later = service.throughput("G2025", 10).get(7L);
+        assertThat(later.placed()).isZero();
+        assertThat(later.queueWait().count()).isZero();
+    }
+
+    private static OrderChangedEvent event(Long orderId, OrderStatus status, OrderStatus previous,
+                                           LocalDateTime createdAt, LocalDateTime preparingAt,
+                                           LocalDateTime readyAt, LocalDateTime completedAt) {
+        var card = new UsherBoardService.BoardCard(orderId, "G2025", 7L, "BRGR", null, orderId.intValue(),
+                createdAt, status, "Guest", 1L, "QR", "S1", List.of());
+        return new OrderChangedEvent(card, previous, new OrderChangedEvent.Timeline(createdAt, preparingAt, readyAt, completedAt));
+    }
+}
@@ -0,0 +1,65 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrganizerAnalyticsServiceTest {
+
+    @Autowired
+    private OrganizerAnalyticsService analyticsService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private EventRepo eventRepo;
+    @Autowired
+    private VendorRepo vendorRepo;
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void keepsRunningTotalsAsOrdersArePlacedAndCompleted() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        List<Vendor> vendors = vendorRepo.findByEvent(event);
+        Vendor vendor = vendorRepo.findByEventAndActiveTrue(event).get(0);
+        MenuItem item = menuItemRepo.findByVendorAndAvailableTrue(vendor).get(0);
+        var before = analyticsService.computeVendorStats(event, vendors).get(vendor.getId());
+
+        var cart = Map.of(vendor.getId(), List.of(new CheckoutService.CartLine(item.getId(), 3)));
+        var completed = checkoutService.checkout("G2025", null, "analytics-device", cart).orders.get(0);
+        orderService.markStatus(completed.getId(), OrderStatus.COMPLETED);
+        checkoutService.checkout("G2025", null, "analytics-device", cart);
+        // The counters are bumped with bulk updates; drop the rows read for "before"
+        entityManager.clear();
+
+        var stats = analyticsService.computeVendorStats(event, vendors);
+        var after = stats.get(vendor.getId());
+
+        assertThat(stats).containsKeys(vendors.stream().map(Vendor::getId).toArray(Long[]::new));
+        assertThat(after.totalOrders() - before.totalOrders()).isEqualTo(2);
+        assertThat(after.completedOrders() - before.completedOrders()).isEqualTo(1);
+        assertThat(after.itemsServed() - before.itemsServed()).isEqualTo(3);
+        assertThat(after.revenue().subtract(before.revenue()))
+                .isEqualByComparingTo(item.getPrice().multiply(BigDecimal.valueOf(3)));
+    }
+}
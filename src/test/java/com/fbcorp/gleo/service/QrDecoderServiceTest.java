@@ -0,0 +1,51 @@
+package com.fbcorp.gleo.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QrDecoderServiceTest {
+
+    private final HotPathMetrics metrics = new HotPathMetrics();
+    private final QrDecoderService decoder = new QrDecoderService(metrics, 2, 4, 1280, Duration.ofSeconds(10));
+
+    @AfterEach
+    void shutdown() {
+        decoder.shutdown();
+    }
+
+    @Test
+    void decodesAQrCodeInALargePhotoAndCountsTheOutcome() throws Exception {
+        BitMatrix matrix = new QRCodeWriter().encode("VIP-001", BarcodeFormat.QR_CODE, 900, 900);
+        BufferedImage photo = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        graphics.setColor(Color.LIGHT_GRAY);
+        graphics.fillRect(0, 0, photo.getWidth(), photo.getHeight());
+        graphics.drawImage(MatrixToImageWriter.toBufferedImage(matrix), 1550, 1050, null);
+        graphics.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(photo, "png", png);
+
+        assertThat(decoder.decode(new MockMultipartFile("qrFile", "photo.png", "image/png", png.toByteArray())))
+                .contains("VIP-001");
+        assertThat(decoder.decode(new MockMultipartFile("qrFile", "notes.txt", "text/plain", "not an image".getBytes())))
+                .isEmpty();
+
+        assertThat(metrics.scrape())
+                .contains("gleo_qr_decode_seconds_count{outcome=\"decoded\"} 1\n")
+                .contains("gleo_qr_decode_seconds_count{outcome=\"unreadable\"} 1\n");
+    }
+}
@@ -0,0 +1,153 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.config.SqlStatementCounter;
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.MenuItem;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.domain.VendorSalesRollup;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.support.SqlStatements;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Seeding and reconciliation join the test's transaction, so every row written here rolls back
+@SpringBootTest
+@Transactional
+class SalesRollupServiceTest {
+
+    @Autowired
+    private SalesRollupService rollupService;
+    @Autowired
+    private CheckoutService checkoutService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EventRepo eventRepo;
+    @Autowired
+    private VendorRepo vendorRepo;
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Test
+    void cancellationAndUncompletionComeOffTheCounters() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Vendor vendor = vendorRepo.findByEventAndActiveTrue(event).get(0);
+        MenuItem item = menuItemRepo.findByVendorAndAvailableTrue(vendor).get(0);
+        VendorSalesRollup before = row(event, vendor);
+
+        var cart = Map.of(vendor.getId(), List.of(new CheckoutService.CartLine(item.getId(), 2)));
+        Long orderId = checkoutService.checkout("G2025", null, "rollup-device", cart).orders.get(0).getId();
+        orderService.markStatus(orderId, OrderStatus.COMPLETED);
+        VendorSalesRollup completed = row(event, vendor);
+        assertThat(completed.getCompletedOrders() - before.getCompletedOrders()).isEqualTo(1);
+        assertThat(completed.getItemsServed() - before.getItemsServed()).isEqualTo(2);
+
+        // Back to READY: the order and its items and revenue come off the completed figures
+        orderService.markStatus(orderId, OrderStatus.READY);
+        VendorSalesRollup uncompleted = row(event, vendor);
+        assertThat(uncompleted.getCompletedOrders()).isEqualTo(before.getCompletedOrders());
+        assertThat(uncompleted.getReadyOrders() - before.getReadyOrders()).isEqualTo(1);
+        assertThat(uncompleted.getItemsServed()).isEqualTo(before.getItemsServed());
+        assertThat(uncompleted.getRevenue()).isEqualByComparingTo(before.getRevenue());
+
+        orderService.markStatus(orderId, OrderStatus.CANCELLED);
+        VendorSalesRollup cancelled = row(event, vendor);
+        assertThat(cancelled.getReadyOrders()).isEqualTo(before.getReadyOrders());
+        assertThat(cancelled.getCancelledOrders() - before.getCancelledOrders()).isEqualTo(1);
+        assertThat(cancelled.getTotalOrders() - before.getTotalOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void reconciliationRepairsDriftButSkipsRowsReconciledSinceTheCutoff() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Vendor vendor = vendorRepo.findByEventAndActiveTrue(event).get(0);
+        VendorSalesRollup expected = row(event, vendor);
+
+        jdbc.update("UPDATE vendor_sales_rollups SET completed_orders = completed_orders + 5, revenue = revenue + 999 "
+                + "WHERE vendor_id = ?", vendor.getId());
+        entityManager.clear();
+        // Just reconciled, e.g. by another node: the scheduled pass leaves it alone
+        assertThat(rollupService.reconcileAll()).isZero();
+        assertThat(row(event, vendor).getCompletedOrders()).isEqualTo(expected.getCompletedOrders() + 5);
+
+        jdbc.update("UPDATE vendor_sales_rollups SET reconciled_at = ? WHERE vendor_id = ?",
+                LocalDateTime.now().minusDays(1), vendor.getId());
+        entityManager.clear();
+        assertThat(rollupService.reconcileAll()).isPositive();
+        VendorSalesRollup repaired = row(event, vendor);
+        assertThat(repaired.getCompletedOrders()).isEqualTo(expected.getCompletedOrders());
+        assertThat(repaired.getRevenue()).isEqualByComparingTo(expected.getRevenue());
+
+        jdbc.update("UPDATE vendor_sales_rollups SET cancelled_orders = cancelled_orders + 1 WHERE vendor_id = ?",
+                vendor.getId());
+        entityManager.clear();
+        assertThat(rollupService.reconcile(event)).isEqualTo(1);
+        assertThat(row(event, vendor).getCancelledOrders()).isEqualTo(expected.getCancelledOrders());
+    }
+
+    @Test
+    void aColdEventIsSeededWithAFixedNumberOfStatements() throws Exception {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        List<Vendor> vendors = new ArrayList<>(vendorRepo.findByEvent(event));
+        for (int i = 0; i < 6; i++) {
+            Vendor extra = new Vendor();
+            extra.setEvent(event);
+            extra.setName("Rollup vendor " + i);
+            vendors.add(vendorRepo.save(extra));
+        }
+        Map<Long, VendorSalesRollup> expected = new LinkedHashMap<>();
+        rollupService.rollups(event, vendors).forEach((id, row) -> expected.put(id, copy(row)));
+
+        jdbc.update("DELETE FROM vendor_sales_rollups WHERE event_id = ?", event.getId());
+        entityManager.flush();
+        entityManager.clear();
+        // The lookup, the two grouped queries and the re-read; the batch insert goes through JDBC
+        Map<Long, VendorSalesRollup> seeded = SqlStatements.atMost(statementCounter, 4,
+                "rollups of " + vendors.size() + " unseeded vendors", () -> rollupService.rollups(event, vendors));
+
+        assertThat(seeded).hasSize(vendors.size());
+        expected.forEach((id, row) -> {
+            assertThat(seeded.get(id).getTotalOrders()).isEqualTo(row.getTotalOrders());
+            assertThat(seeded.get(id).getCompletedOrders()).isEqualTo(row.getCompletedOrders());
+            assertThat(seeded.get(id).getItemsServed()).isEqualTo(row.getItemsServed());
+            assertThat(seeded.get(id).getRevenue()).isEqualByComparingTo(row.getRevenue());
+        });
+    }
+
+    private static VendorSalesRollup copy(VendorSalesRollup row) {
+        VendorSalesRollup copy = new VendorSalesRollup();
+        copy.setTotalOrders(row.getTotalOrders());
+        copy.setCompletedOrders(row.getCompletedOrders());
+        copy.setItemsServed(row.getItemsServed());
+        copy.setRevenue(row.getRevenue());
+        return copy;
+    }
+
+    /** The vendor's row as this transaction sees it; counters are bumped with bulk updates, so nothing cached is reused. */
+    private VendorSalesRollup row(Event event, Vendor vendor) {
+        entityManager.flush();
+        entityManager.clear();
+        return rollupService.rollups(event, List.of(vendor)).get(vendor.getId());
+    }
+}
@@ -0,0 +1,54 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Ticket;
+import com.fbcorp.gleo.domain.TierCode;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.TicketRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SequenceIdAllocatorTest {
+
+    @Autowired
+    private SequenceIdAllocator idAllocator;
+
+    @Autowired
+    private TicketRepo ticketRepo;
+
+    @Autowired
+    private EventRepo eventRepo;
+
+    @Test
+    void allocatedIdsNeverOverlapTheOnesHibernateAssigns() {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Set<Long> ids = new HashSet<>();
+        List<Long> allocated = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            // More than a block each time, so both sides cross block boundaries
+            Arrays.stream(idAllocator.allocate(Ticket.class, 70)).forEach(allocated::add);
+            for (int i = 0; i < 60; i++) {
+                Ticket ticket = new Ticket();
+                ticket.setEvent(event);
+                ticket.setQrCode("ALLOC-" + round + "-" + i);
+                ticket.setTierCode(TierCode.REG);
+                ids.add(ticketRepo.save(ticket).getId());
+            }
+        }
+        ticketRepo.flush();
+
+        assertThat(ids).hasSize(180);
+        assertThat(new HashSet<>(allocated)).hasSize(210).doesNotContainAnyElementsOf(ids);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Event;
+import com.fbcorp.gleo.domain.TicketImportLog;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.TicketImportLogRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TicketImportLogService.class, AuditLogService.class})
+class TicketImportLogServiceTest {
+
+    @Autowired
+    private TicketImportLogService logService;
+
+    @Autowired
+    private TicketImportLogRepo logRepo;
+
+    @Autowired
+    private EventRepo eventRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setCode("EVT-IMP");
+        event.setName("Import Event");
+        eventRepo.saveAndFlush(event);
+    }
+
+    @Test
+    void onlyOneClaimWinsUntilTheRunnerGoesQuiet() {
+        TicketImportLog job = logService.queue(event, "organizer", "tickets.csv", "/tmp/tickets.csv");
+        entityManager.flush();
+
+        assertThat(logService.claim(job.getId(), LocalDateTime.now().minusMinutes(15))).isTrue();
+        assertThat(logService.claim(job.getId(), LocalDateTime.now().minusMinutes(15))).isFalse();
+        // Once the runner has not reported for stale-after, another node may take the job over
+        assertThat(logService.claim(job.getId(), LocalDateTime.now().plusSeconds(1))).isTrue();
+
+        entityManager.clear();
+        assertThat(logRepo.findById(job.getId())).hasValueSatisfying(
+                claimed -> assertThat(claimed.getStatus()).isEqualTo(TicketImportLog.Status.RUNNING));
+    }
+
+    @Test
+    void heartbeatKeepsAQueuedJobFromBeingFailedAsStale() {
+        TicketImportLog job = logService.queue(event, "organizer", "tickets.csv", "/tmp/tickets.csv");
+        entityManager.flush();
+        LocalDateTime staleBefore = LocalDateTime.now().plusSeconds(1);
+
+        logService.heartbeat(List.of(job.getId()));
+        assertThat(logService.failIfStale(job.getId(), "gone", LocalDateTime.now().minusMinutes(15))).isFalse();
+        assertThat(logService.failIfStale(job.getId(), "gone", staleBefore)).isTrue();
+
+        entityManager.clear();
+        assertThat(logRepo.findById(job.getId())).hasValueSatisfying(failed -> {
+            assertThat(failed.getStatus()).isEqualTo(TicketImportLog.Status.FAILED);
+            assertThat(failed.getSpoolPath()).isNull();
+        });
+    }
+
+    @Test
+    void recordedErrorsReadBackForAResumedJob() {
+        TicketImportLog job = logService.queue(event, "organizer", "tickets.csv", "/tmp/tickets.csv");
+        List<String> errors = List.of("Row 1: Missing QR code.", "Row 3: Duplicate QR code inside file: A",
+                "Row 4: Missing QR code.", "Row 7: Missing QR code.");
+
+        logService.progress(job.getId(), new TicketImportService.ImportResult(2, 1, 3, 8, errors));
+        entityManager.flush();
+        entityManager.clear();
+
+        TicketImportLog saved = logRepo.findById(job.getId()).orElseThrow();
+        assertThat(saved.getErrorCount()).isEqualTo(4);
+        assertThat(logService.errors(saved)).containsExactlyElementsOf(errors);
+    }
+}
@@ -13,13 +13,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
-@Import(TicketImportService.class)
+// A tiny chunk size makes every multi-row upload span several chunks
+@DataJpaTest(properties = "gleo.ticket-import.chunk-size=2")
+@Import({TicketImportService.class, SequenceIdAllocator.class, HotPathMetrics.class})
 class TicketImportServiceTest {
 
     @Autowired
@@ -38,7 +42,7 @@ class TicketImportServiceTest {
         event = new Event();
         event.setCode("EVT-1");
         event.setName("Test Event");
-        eventRepo.save(event);
+        eventRepo.saveAndFlush(event);
     }
 
     @Test
@@ -118,5 +122,51 @@ class TicketImportServiceTest {
         assertThat(result.errors()).isNotEmpty();
         assertThat(ticketRepo.findByQrCode("DUP-001")).hasValue(existing);
     }
-}
 
+    @Test
+    void importsInChunksAndCatchesDuplicatesAcrossChunks() throws Exception {
+        String csv = "QR,TIER,NAME\nC-1,VIP,One\nC-2,REG,Two\nC-3,GOLD,Three\nC-1,VIP,Again\nC-4,REG,Four\n";
+        List<TicketImportService.ImportResult> progress = new ArrayList<>();
+
+        TicketImportService.ImportResult result = ticketImportService.importSheet(event, "chunks.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), null, progress::add);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.invalid()).isEqualTo(1);
+        assertThat(progress).extracting(TicketImportService.ImportResult::total).containsExactly(2, 4, 5);
+        assertThat(ticketRepo.findByQrCode("C-4")).hasValueSatisfying(ticket -> {
+            assertThat(ticket.getEvent().getId()).isEqualTo(event.getId());
+            assertThat(ticket.getTierCode()).isEqualTo(TierCode.REG);
+            assertThat(ticket.isActive()).isTrue();
+        });
+    }
+
+    @Test
+    void resumesAfterTheLastCheckpoint() throws Exception {
+        String csv = "QR,TIER\nR-1,VIP\nR-2,REG\nR-1,VIP\nR-3,REG\n";
+        // As if an earlier run committed the first chunk (R-1, R-2) and then died
+        Ticket first = new Ticket();
+        first.setEvent(event);
+        first.setQrCode("R-1");
+        first.setTierCode(TierCode.VIP);
+        ticketRepo.save(first);
+        Ticket second = new Ticket();
+        second.setEvent(event);
+        second.setQrCode("R-2");
+        second.setTierCode(TierCode.REG);
+        ticketRepo.save(second);
+        var checkpoint = new TicketImportService.ImportResult(2, 0, 0, 2, List.of());
+
+        TicketImportService.ImportResult result = ticketImportService.importSheet(event, "resume.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), checkpoint, TicketImportService.ProgressListener.NONE);
+
+        assertThat(result.total()).isEqualTo(4);
+        assertThat(result.created()).isEqualTo(3);
+        // The repeated R-1 is still recognised as an in-file duplicate, not an existing ticket
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().asString().contains("inside file");
+        assertThat(ticketRepo.findByQrCode("R-3")).isPresent();
+    }
+}
@@ -1,12 +1,19 @@
 package com.fbcorp.gleo.service;
 
 import com.fbcorp.gleo.domain.Ticket;
+import com.fbcorp.gleo.domain.TierCode;
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.TicketRepo;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -14,6 +21,12 @@ class TicketServiceTest {
 
     @Autowired
     private TicketService ticketService;
+    @Autowired
+    private TicketQrIndex qrIndex;
+    @Autowired
+    private EventRepo eventRepo;
+    @Autowired
+    private TicketRepo ticketRepo;
 
     @Test
     void resolvesWalkInTicketWhenQrMissing() {
@@ -24,4 +37,85 @@ class TicketServiceTest {
         Ticket second = ticketService.resolveTicket("G2025", "", "device123");
         assertThat(second.getId()).isEqualTo(first.getId());
     }
+
+    @Test
+    void qrIndexAnswersForKnownAndUnknownCodes() {
+        qrIndex.refresh();
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+
+        TicketQrIndex.Lookup vip = qrIndex.lookup(event, "VIP-001");
+        assertThat(vip.verdict()).isEqualTo(TicketQrIndex.Verdict.FOUND);
+        assertThat(vip.entry().tierCode()).isEqualTo(TierCode.VIP);
+        assertThat(qrIndex.lookup(event, "NO-SUCH-CODE").verdict()).isEqualTo(TicketQrIndex.Verdict.UNKNOWN);
+
+        Ticket ticket = ticketService.validateAndBind("G2025", "VIP-001", "device-index");
+        assertThat(ticket.getId()).isEqualTo(vip.entry().ticketId());
+        assertThatThrownBy(() -> ticketService.validateAndBind("G2025", "NO-SUCH-CODE", "device-index"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void qrIndexPicksUpTicketsWrittenElsewhere() {
+        qrIndex.refresh();
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+
+        // Written without going through the index, as another node would
+        Ticket other = new Ticket();
+        other.setEvent(event);
+        other.setQrCode("OTHER-NODE-001");
+        other.setTierCode(TierCode.REG);
+        ticketRepo.saveAndFlush(other);
+        assertThat(qrIndex.lookup(event, "OTHER-NODE-001").verdict()).isEqualTo(TicketQrIndex.Verdict.UNKNOWN);
+        assertThat(ticketService.validateAndBind("G2025", "OTHER-NODE-001", "device-other").getId()).isEqualTo(other.getId());
+
+        Ticket vip = ticketRepo.findByQrCode("VIP-001").orElseThrow();
+        vip.setActive(false);
+        ticketRepo.saveAndFlush(vip);
+        qrIndex.refresh();
+        assertThat(qrIndex.lookup(event, "OTHER-NODE-001").entry().ticketId()).isEqualTo(other.getId());
+        assertThat(qrIndex.lookup(event, "VIP-001").entry().active()).isFalse();
+    }
+
+    @Test
+    void bindsNormalizedDeviceHashAndFindsTheTicketByIt() {
+        Ticket bound = ticketService.validateAndBind("G2025", "REG-001", " Device-42 ");
+        assertThat(bound.getBoundDeviceHash()).isEqualTo("device42");
+
+        assertThat(ticketService.findTicketForDevice("G2025", "DEVICE-42")).map(Ticket::getId).contains(bound.getId());
+        assertThat(ticketService.findTicketIdForDevice("G2025", "device42")).contains(bound.getId());
+        assertThatThrownBy(() -> ticketService.validateAndBind("G2025", "REG-001", "other-device"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void cachedDeviceBindingIsDroppedOnceTheTicketIsDeactivatedOrDeleted() {
+        // Committed, so the binding is cached; the cache only fills once a binding commits
+        Ticket ticket = new Ticket();
+        ticket.setEvent(eventRepo.findByCode("G2025").orElseThrow());
+        ticket.setQrCode("DEVICE-CACHE-001");
+        ticket.setTierCode(TierCode.REG);
+        ticket = ticketRepo.save(ticket);
+        try {
+            ticketService.validateAndBind("G2025", "DEVICE-CACHE-001", "device-cache");
+            assertThat(ticketService.findTicketIdForDevice("G2025", "device-cache")).contains(ticket.getId());
+
+            // Changed without going through this service, as another node would
+            Ticket deactivated = ticketRepo.findById(ticket.getId()).orElseThrow();
+            deactivated.setActive(false);
+            ticketRepo.save(deactivated);
+            assertThat(ticketService.findTicketIdForDevice("G2025", "device-cache")).isEmpty();
+            assertThat(ticketService.findTicketForDevice("G2025", "device-cache")).isEmpty();
+
+            Ticket reactivated = ticketRepo.findById(ticket.getId()).orElseThrow();
+            reactivated.setActive(true);
+            ticketRepo.save(reactivated);
+            assertThat(ticketService.findTicketIdForDevice("G2025", "device-cache")).contains(ticket.getId());
+            ticketRepo.deleteById(ticket.getId());
+            assertThat(ticketService.findTicketIdForDevice("G2025", "device-cache")).isEmpty();
+        } finally {
+            ticketRepo.findById(ticket.getId()).ifPresent(ticketRepo::delete);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.service.TicketSheetRows.TicketRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketSheetRowsTest {
+
+    @Test
+    void quotedCellsKeepTheirCommasAndQuotes() {
+        assertThat(TicketSheetRows.splitCsvLine("\"QR-1\", VIP ,\"Guest \"\"The Host\"\", One\",0100,"))
+                .containsExactly("QR-1", "VIP", "Guest \"The Host\", One", "0100", "");
+    }
+
+    @Test
+    void csvSkipsCommentsHeadersAndBlankLinesButKeepsLineNumbers() throws Exception {
+        String csv = "# QR,TIER,Holder name,Phone,Serial\nQR Code,Tier\n\nQR-1,VIP,Guest One\nQR-2,REG\n";
+        List<TicketRow> rows = new ArrayList<>();
+
+        TicketSheetRows.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), rows::add);
+
+        assertThat(rows).containsExactly(
+                new TicketRow(4, "QR-1", "VIP", "Guest One", "", ""),
+                new TicketRow(5, "QR-2", "REG", "", "", ""));
+    }
+}
@@ -0,0 +1,92 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.domain.Order;
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.domain.Vendor;
+import com.fbcorp.gleo.domain.VendorBoardVersion;
+import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.repo.TicketRepo;
+import com.fbcorp.gleo.repo.VendorBoardVersionRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class UsherBoardServiceTest {
+
+    @Autowired
+    private UsherBoardService usherBoardService;
+
+    @Autowired
+    private VendorBoardVersionRepo versionRepo;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private VendorRepo vendorRepo;
+
+    @Autowired
+    private TicketRepo ticketRepo;
+
+    @Autowired
+    private VendorOrderNumberAllocator orderNumberAllocator;
+
+    @AfterEach
+    void forgetBoards() {
+        // Boards are loaded from this test's uncommitted orders
+        usherBoardService.forgetEvent("G2025");
+    }
+
+    @Test
+    void queuedChangesAreAppliedAndNumberedOffTheCommittingThread() {
+        Vendor vendor = vendorRepo.findAll().stream().findFirst().orElseThrow();
+        long versionBefore = usherBoardService.view(vendor).version();
+        var card = new UsherBoardService.BoardCard(-1L, "G2025", vendor.getId(), vendor.getName(), null, 1,
+                LocalDateTime.now(), OrderStatus.NEW, "Guest", null, null, null, List.of());
+
+        usherBoardService.onOrderChanged(new OrderChangedEvent(card, null, null));
+        usherBoardService.applyPending();
+
+        assertThat(usherBoardService.card(vendor.getId(), -1L)).isEqualTo(card);
+        // Reserved by the worker's own transaction, so the shared version already matches the board
+        assertThat(versionRepo.findByVendorIdIn(List.of(vendor.getId())))
+                .extracting(VendorBoardVersion::getVersion)
+                .containsExactly(versionBefore + 1);
+        assertThat(usherBoardService.view(vendor).version()).isEqualTo(versionBefore + 1);
+    }
+
+    @Test
+    void aBoardBehindTheSharedVersionIsReloadedFromTheDatabase() {
+        Vendor vendor = vendorRepo.findAll().stream().findFirst().orElseThrow();
+        long versionBefore = usherBoardService.view(vendor).version();
+
+        // Another node places an order: this node gets no event, only the bumped shared version
+        Order order = new Order();
+        order.setEvent(vendor.getEvent());
+        order.setVendor(vendor);
+        order.setTicket(ticketRepo.findByQrCode("VIP-001").orElseThrow());
+        order.setVendorOrderNumber(orderNumberAllocator.next(vendor.getId()));
+        orderRepo.saveAndFlush(order);
+        assertThat(usherBoardService.card(vendor.getId(), order.getId())).isNull();
+        if (versionRepo.increment(vendor.getId(), 1) == 0) {
+            versionRepo.insertIfAbsent(vendor.getId(), 1);
+        }
+
+        UsherBoardService.BoardView after = usherBoardService.view(vendor);
+
+        assertThat(after.version()).isEqualTo(versionBefore + 1);
+        assertThat(after.buckets().get(OrderStatus.NEW))
+                .extracting(UsherBoardService.BoardCard::orderId)
+                .contains(order.getId());
+    }
+}
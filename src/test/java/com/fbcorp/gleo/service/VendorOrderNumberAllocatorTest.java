@@ -0,0 +1,132 @@
+package com.fbcorp.gleo.service;
+
+import com.fbcorp.gleo.config.SqlStatementCounter;
+import com.fbcorp.gleo.domain.VendorOrderSequence;
+import com.fbcorp.gleo.repo.OrderRepo;
+import com.fbcorp.gleo.repo.VendorOrderSequenceRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VendorOrderNumberAllocatorTest {
+
+    @Autowired
+    private VendorOrderNumberAllocator allocator;
+
+    @Autowired
+    private VendorOrderSequenceRepo sequenceRepo;
+
+    @Autowired
+    private OrderRepo orderRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Test
+    void concurrentAllocationsAreUniquePerVendor() throws Exception {
+        Long vendorId = 900_001L;
+        Set<Integer> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = IntStream.range(0, 200)
+                    .mapToObj(i -> pool.submit(() -> issued.add(allocator.next(vendorId))))
+                    .toList();
+            for (Future<Boolean> f : futures) {
+                assertThat(f.get()).isTrue();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(issued).hasSize(200);
+        assertThat(issued).allMatch(n -> n >= 1);
+        assertThat(sequenceRepo.findById(vendorId).orElseThrow().getLastReserved())
+                .isGreaterThanOrEqualTo(200);
+    }
+
+    @Test
+    void nodesSeedingTheSameVendorAtOnceGetDisjointBlocks() throws Exception {
+        Long vendorId = 900_003L;
+        // A second allocator over the same tables stands in for another node
+        VendorOrderNumberAllocator otherNode = new VendorOrderNumberAllocator(
+                sequenceRepo, orderRepo, transactionManager, 10);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 5; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Integer> here = pool.submit(() -> {
+                    start.await();
+                    return allocator.next(vendorId);
+                });
+                Future<Integer> there = pool.submit(() -> {
+                    start.await();
+                    return otherNode.next(vendorId);
+                });
+                start.countDown();
+                assertThat(here.get()).isNotEqualTo(there.get());
+                allocator.forget(vendorId);
+                otherNode.forget(vendorId);
+            }
+        } finally {
+            pool.shutdown();
+            otherNode.shutdown();
+        }
+        assertThat(sequenceRepo.findById(vendorId).orElseThrow().getLastReserved()).isEqualTo(100);
+    }
+
+    @Test
+    void reservesTheNextBlockAheadOffTheCallersThread() throws Exception {
+        Long vendorId = 900_004L;
+        statementCounter.begin();
+        List<Integer> numbers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 6; i++) {
+                numbers.add(allocator.next(vendorId));
+            }
+        } finally {
+            // Both reservations, the first block and the standby, ran on the allocator's threads
+            assertThat(statementCounter.end()).isZero();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sequenceRepo.findById(vendorId).map(VendorOrderSequence::getLastReserved).orElse(0) < 20
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sequenceRepo.findById(vendorId).orElseThrow().getLastReserved()).isEqualTo(20);
+
+        for (int i = 0; i < 5; i++) {
+            numbers.add(allocator.next(vendorId));
+        }
+        assertThat(numbers).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+    }
+
+    @Test
+    void forgottenVendorContinuesAfterReservedBlock() {
+        Long vendorId = 900_002L;
+        int first = allocator.next(vendorId);
+        allocator.forget(vendorId);
+        int afterRestart = allocator.next(vendorId);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(afterRestart).isGreaterThan(first);
+    }
+}
@@ -0,0 +1,79 @@
+package com.fbcorp.gleo.service.cart;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryCartStoreTest {
+
+    @Test
+    void roundTripsCartsThroughTheCompactEncoding() {
+        CartSession cart = new CartSession();
+        cart.add(2L, 10L, 1);
+        cart.add(1L, 300L, 2);
+        cart.add(2L, 11L, 3);
+        cart.add(2L, 10L, 1);
+        cart.setVendorNote(2L, "No onions");
+        cart.setPromoCode("SAVE10");
+
+        byte[] encoded = CartCodec.encode(cart);
+        CartSession decoded = CartCodec.decode(encoded);
+
+        assertThat(encoded.length).isLessThan(40);
+        assertThat(decoded.vendorIds()).containsExactly(2L, 1L);
+        List<String> lines = new ArrayList<>();
+        decoded.forEachLine(2L, (itemId, qty) -> lines.add(itemId + "x" + qty));
+        assertThat(lines).containsExactly("10x2", "11x3");
+        assertThat(decoded.getVendorNote(2L)).isEqualTo("No onions");
+        assertThat(decoded.getPromoCode()).isEqualTo("SAVE10");
+        assertThat(decoded.getRevision()).isEqualTo(cart.getRevision());
+    }
+
+    @Test
+    void expiresIdleCarts() {
+        MutableClock clock = new MutableClock();
+        InMemoryCartStore store = new InMemoryCartStore(Duration.ofMinutes(20), clock);
+        CartSession cart = new CartSession();
+        cart.add(1L, 1L, 1);
+        store.save("guest", cart);
+
+        clock.advance(Duration.ofMinutes(15));
+        assertThat(store.load("guest")).isPresent();
+        // Reading the cart counts as use, so the idle time restarts from here
+        clock.advance(Duration.ofMinutes(15));
+        assertThat(store.load("guest")).isPresent();
+        clock.advance(Duration.ofMinutes(21));
+        assertThat(store.load("guest")).isEmpty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fbcorp.gleo.support;
+
+import com.fbcorp.gleo.config.SqlStatementCounter;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many SQL statements a piece of work issues, e.g.
+ * {@code SqlStatements.atMost(counter, 20, "checkout of 3 vendors", () -> checkoutService.checkout(...))}.
+ * Wraps MockMvc calls too: the request's own scope nests inside this one.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static <T> T atMost(SqlStatementCounter counter, int budget, String description, Callable<T> work) throws Exception {
+        counter.begin();
+        T result;
+        int issued;
+        try {
+            result = work.call();
+        } finally {
+            issued = counter.end();
+        }
+        assertThat(issued).as("SQL statements issued by %s", description).isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
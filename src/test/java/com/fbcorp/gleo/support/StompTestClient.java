@@ -0,0 +1,154 @@
+package com.fbcorp.gleo.support;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A browser tab's view of {@code /ws}: logs in through the login form, then opens a STOMP
+ * session over SockJS with the resulting session cookie, e.g.
+ * {@code StompTestClient.connect(port, "admin", "Admin@123").subscribe("/topic/orders/G2025", BoardDeltaMessage.class)}.
+ */
+public final class StompTestClient implements AutoCloseable {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final WebSocketStompClient client;
+    private final StompSession session;
+    private final BlockingQueue<String> errors;
+
+    private StompTestClient(WebSocketStompClient client, StompSession session, BlockingQueue<String> errors) {
+        this.client = client;
+        this.session = session;
+        this.errors = errors;
+    }
+
+    public static StompTestClient connect(int port, String username, String password) throws Exception {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add("Cookie", login(port, username, password));
+
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new MappingJackson2MessageConverter())));
+        BlockingQueue<String> errors = new LinkedBlockingQueue<>();
+        StompSession session = client.connectAsync("http://localhost:" + port + "/ws", handshakeHeaders,
+                new StompSessionHandlerAdapter() {
+                    @Override
+                    @NonNull
+                    public Type getPayloadType(@NonNull StompHeaders headers) {
+                        return String.class;
+                    }
+
+                    @Override
+                    public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                        String message = headers.getFirst("message");
+                        errors.add(message != null ? message : String.valueOf(payload));
+                    }
+
+                    @Override
+                    public void handleException(@NonNull StompSession session, StompCommand command,
+                                                @NonNull StompHeaders headers, @NonNull byte[] payload,
+                                                @NonNull Throwable exception) {
+                        errors.add(String.valueOf(exception.getMessage()));
+                    }
+
+                    @Override
+                    public void handleTransportError(@NonNull StompSession session, @NonNull Throwable exception) {
+                        // A refused frame closes the connection, which can beat the ERROR frame to the client
+                        errors.add(String.valueOf(exception.getMessage()));
+                    }
+                })
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new StompTestClient(client, session, errors);
+    }
+
+    /** Subscribes; delivered payloads are converted to {@code type} and queued in arrival order. */
+    public <T> BlockingQueue<T> subscribe(String destination, Class<T> type) {
+        BlockingQueue<T> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            @NonNull
+            public Type getPayloadType(@NonNull StompHeaders headers) {
+                return type;
+            }
+
+            @Override
+            public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+                received.add(type.cast(payload));
+            }
+        });
+        return received;
+    }
+
+    /**
+     * Repeats {@code send} until something arrives on {@code received}: a SUBSCRIBE is processed
+     * asynchronously, so the first sends may reach the broker before the subscription does.
+     */
+    public <T> T awaitDelivery(BlockingQueue<T> received, Runnable send) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            send.run();
+            T message = received.poll(200, TimeUnit.MILLISECONDS);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /** The next ERROR frame's message or transport failure, or {@code null} if neither arrives in time. */
+    public String awaitError() throws InterruptedException {
+        return errors.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (session.isConnected()) {
+            session.disconnect();
+        }
+        client.stop();
+    }
+
+    private static String login(int port, String username, String password) throws Exception {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .build()
+                .send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(), HttpResponse.BodyHandlers.discarding());
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.split(";", 2)[0])
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login as " + username + " failed: HTTP " + response.statusCode()));
+    }
+}
@@ -8,10 +8,17 @@ import com.fbcorp.gleo.repo.UserAccountRepo;
 import com.fbcorp.gleo.repo.VendorRepo;
 import com.fbcorp.gleo.service.AssetStorageService;
 import com.fbcorp.gleo.service.AuditLogService;
+import com.fbcorp.gleo.service.EventExportService;
 import com.fbcorp.gleo.service.EventPolicyService;
+import com.fbcorp.gleo.service.MenuSnapshotService;
+import com.fbcorp.gleo.service.OrderTimingService;
 import com.fbcorp.gleo.service.OrganizerAnalyticsService;
-import com.fbcorp.gleo.service.TicketImportLogService;
+import com.fbcorp.gleo.service.TicketImportJobService;
 import com.fbcorp.gleo.service.TicketImportService;
+import com.fbcorp.gleo.service.TicketService;
+import com.fbcorp.gleo.service.VendorOrderNumberAllocator;
+import com.fbcorp.gleo.config.RequestMetricsInterceptor;
+import com.fbcorp.gleo.config.RequestMetricsMvcConfig;
 import com.fbcorp.gleo.config.StaticResourceConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -45,7 +52,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(
         controllers = OrganizerEventController.class,
-        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = StaticResourceConfig.class)
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                StaticResourceConfig.class, RequestMetricsMvcConfig.class, RequestMetricsInterceptor.class})
 )
 class OrganizerEventControllerTest {
 
@@ -63,13 +71,23 @@ class OrganizerEventControllerTest {
     @MockBean
     private AssetStorageService assetStorageService;
     @MockBean
-    private TicketImportLogService importLogService;
+    private TicketImportJobService importJobService;
     @MockBean
     private OrganizerAnalyticsService analyticsService;
     @MockBean
     private AuditLogService auditLogService;
     @MockBean
     private UserAccountRepo userAccountRepo;
+    @MockBean
+    private MenuSnapshotService menuSnapshotService;
+    @MockBean
+    private TicketService ticketService;
+    @MockBean
+    private OrderTimingService orderTimingService;
+    @MockBean
+    private EventExportService eventExportService;
+    @MockBean
+    private VendorOrderNumberAllocator orderNumberAllocator;
 
     @BeforeEach
     void setupMocks() {
@@ -0,0 +1,53 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.domain.OrderStatus;
+import com.fbcorp.gleo.service.UsherBoardService.BoardCard;
+import com.fbcorp.gleo.service.UsherBoardService.BoardView;
+import com.fbcorp.gleo.web.UsherBoardBuckets.StatusBucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsherBoardBucketsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 1, 18, 0);
+
+    @Test
+    void mergesVendorsOldestFirstAndHidesAnEmptyCancelledColumn() {
+        List<StatusBucket> buckets = UsherBoardBuckets.merge(List.of(
+                view(1L, card(1L, 1L, 5, "VIP-001", "Ada")),
+                view(2L, card(2L, 2L, 2, "REG-002", "Grace"))), "");
+
+        assertThat(buckets).extracting(StatusBucket::status).doesNotContain(OrderStatus.CANCELLED);
+        assertThat(buckets.get(0).orders()).extracting(BoardCard::orderId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void theFilterMatchesQrOrGuestNameIgnoringCase() {
+        List<BoardView> views = List.of(view(1L, card(1L, 1L, 1, "VIP-001", "Ada"), card(2L, 1L, 2, "REG-002", "Grace")));
+
+        assertThat(UsherBoardBuckets.merge(views, " vip-001 ").get(0).orders())
+                .extracting(BoardCard::orderId).containsExactly(1L);
+        assertThat(UsherBoardBuckets.merge(views, "GRACE").get(0).orders())
+                .extracting(BoardCard::orderId).containsExactly(2L);
+    }
+
+    private static BoardView view(Long vendorId, BoardCard... newCards) {
+        Map<OrderStatus, List<BoardCard>> buckets = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            buckets.put(status, List.of());
+        }
+        buckets.put(OrderStatus.NEW, List.of(newCards));
+        return new BoardView(vendorId, 1, buckets);
+    }
+
+    private static BoardCard card(Long orderId, Long vendorId, int minutes, String qr, String guest) {
+        return new BoardCard(orderId, "G2025", vendorId, "Vendor " + vendorId, null, orderId.intValue(),
+                START.plusMinutes(minutes), OrderStatus.NEW, guest, orderId, qr, "S-" + orderId, List.of());
+    }
+}
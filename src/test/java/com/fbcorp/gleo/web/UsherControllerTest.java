@@ -1,5 +1,6 @@
 package com.fbcorp.gleo.web;
 
+import com.fbcorp.gleo.config.SqlStatementCounter;
 import com.fbcorp.gleo.domain.Order;
 import com.fbcorp.gleo.domain.OrderItem;
 import com.fbcorp.gleo.domain.OrderStatus;
@@ -9,6 +10,11 @@ import com.fbcorp.gleo.repo.MenuItemRepo;
 import com.fbcorp.gleo.repo.OrderRepo;
 import com.fbcorp.gleo.repo.TicketRepo;
 import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.service.UsherBoardService;
+import com.fbcorp.gleo.service.VendorOrderNumberAllocator;
+import com.fbcorp.gleo.support.SqlStatements;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +24,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -44,12 +50,27 @@ class UsherControllerTest {
     @Autowired
     private MenuItemRepo menuItemRepo;
 
+    @Autowired
+    private VendorOrderNumberAllocator orderNumberAllocator;
+
+    @Autowired
+    private UsherBoardService usherBoardService;
+
+    @Autowired
+    private SqlStatementCounter statementCounter;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUpOrder() {
         if (!orderRepo.findAll().isEmpty()) {
             return;
         }
-        Vendor vendor = vendorRepo.findAll().stream().findFirst().orElseThrow();
+        placeOrder(vendorRepo.findAll().stream().findFirst().orElseThrow(), 1);
+    }
+
+    private void placeOrder(Vendor vendor, int itemCount) {
         Ticket ticket = ticketRepo.findByQrCode("VIP-001").orElseThrow();
 
         Order order = new Order();
@@ -57,22 +78,46 @@ class UsherControllerTest {
         order.setVendor(vendor);
         order.setTicket(ticket);
         order.setStatus(OrderStatus.NEW);
+        order.setVendorOrderNumber(orderNumberAllocator.next(vendor.getId()));
 
-        var firstItem = menuItemRepo.findByVendorAndAvailableTrue(vendor).stream().findFirst().orElseThrow();
-        OrderItem orderItem = new OrderItem();
-        orderItem.setMenuItem(firstItem);
-        orderItem.setQty(1);
-        order.addItem(orderItem);
+        menuItemRepo.findByVendorAndAvailableTrue(vendor).stream().limit(itemCount).forEach(menuItem -> {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setMenuItem(menuItem);
+            orderItem.setQty(1);
+            order.addItem(orderItem);
+        });
 
         orderRepo.save(order);
     }
 
+    @AfterEach
+    void forgetBoards() {
+        // Boards are seeded from this test's uncommitted orders
+        usherBoardService.forgetEvent("G2025");
+    }
+
     @Test
     void usherBoardLoads() throws Exception {
-        mockMvc.perform(get("/e/G2025/usher").with(httpBasic("usher_brgr", "Usher@123")))
+        mockMvc.perform(get("/e/G2025/usher").with(user("usher_brgr").roles("USHER")))
                 .andExpect(status().isOk())
                 .andExpect(view().name("usher_board"))
                 .andExpect(model().attributeExists("statusBuckets"))
                 .andExpect(model().attribute("hasAnyOrders", true));
     }
+
+    @Test
+    void usherBoardLoadsInAFixedNumberOfStatements() throws Exception {
+        Vendor vendor = vendorRepo.findAll().stream().findFirst().orElseThrow();
+        for (int i = 0; i < 5; i++) {
+            placeOrder(vendor, 2);
+        }
+        // Start from an empty persistence context, as a real request does
+        entityManager.flush();
+        entityManager.clear();
+
+        // One of them reads the board's shared version; none depend on the number of orders
+        SqlStatements.atMost(statementCounter, 4, "a cold usher board with 6 orders",
+                () -> mockMvc.perform(get("/e/G2025/usher").with(user("usher_brgr").roles("USHER")))
+                        .andExpect(status().isOk()));
+    }
 }
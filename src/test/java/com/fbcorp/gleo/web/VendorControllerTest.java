@@ -0,0 +1,82 @@
+package com.fbcorp.gleo.web;
+
+import com.fbcorp.gleo.repo.EventRepo;
+import com.fbcorp.gleo.repo.MenuItemRepo;
+import com.fbcorp.gleo.repo.VendorRepo;
+import com.fbcorp.gleo.service.MenuSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VendorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EventRepo eventRepo;
+    @Autowired
+    private VendorRepo vendorRepo;
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
+    @Test
+    void repeatMenuVisitsAreAnsweredWithNotModified() throws Exception {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        Long vendorId = vendorRepo.findByEvent(event).get(0).getId();
+        String url = "/e/G2025/v/" + vendorId;
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(view().name("vendor_menu"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void editingTheMenuChangesTheETag() throws Exception {
+        var event = eventRepo.findByCode("G2025").orElseThrow();
+        var vendor = vendorRepo.findByEvent(event).get(0);
+        var item = menuItemRepo.findByVendorOrderByNameAsc(vendor).stream()
+                .filter(candidate -> candidate.isAvailable())
+                .findFirst().orElseThrow();
+        BigDecimal price = item.getPrice();
+        String url = "/e/G2025/v/" + vendor.getId();
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        try {
+            // What the organizer's menu edit does: save, then evict the vendor's snapshot
+            item.setPrice(price.add(BigDecimal.ONE));
+            menuItemRepo.save(item);
+            menuSnapshotService.evict(vendor.getId());
+
+            String edited = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(edited).isNotEqualTo(etag);
+        } finally {
+            item.setPrice(price);
+            menuItemRepo.save(item);
+            menuSnapshotService.evict(vendor.getId());
+        }
+    }
+}